@@ -0,0 +1,98 @@
+package io.github.systemfalse.jcomp.benchmarks;
+
+import io.github.systemfalse.jcomp.Action;
+import io.github.systemfalse.jcomp.ActionContext;
+import io.github.systemfalse.jcomp.ComponentFactory;
+import io.github.systemfalse.jcomp.annotations.ActionRef;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invocation of a generated action through {@link Action#perform(Object...)} and
+ * through an explicitly filled action context.
+ * <p>
+ * Benchmarks of {@code contains} action use cached boxed arguments and result, so
+ * with {@code -prof gc} they show allocations of the invocation path itself.
+ * Steady-state {@code performArity} and {@code reusedContext} calls are expected
+ * to allocate nothing.
+ * </p>
+ * <p>
+ * {@code bound} benchmark invokes a method bound at runtime with
+ * {@link ComponentFactory#actions} and {@code direct} calls the same method directly.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ActionBenchmark {
+    private Point point;
+    private Action<?> move;
+    private Action<?> contains;
+    private ActionContext<?> context;
+    private Area area;
+    private Action<?> bound;
+
+    public static class Area {
+        int width = 10;
+        int height = 10;
+
+        @ActionRef
+        public boolean contains(int px, int py) {
+            return px < width && py < height;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        point = new Point();
+        move = point.action("move").orElseThrow();
+        contains = point.action("contains").orElseThrow();
+        context = contains.createContext();
+        area = new Area();
+        bound = ComponentFactory.actions(point, area).get("contains");
+    }
+
+    @Benchmark
+    public Object perform() {
+        return move.perform(1, -1);
+    }
+
+    @Benchmark
+    public Object context() {
+        return move.createContext().with(1).with(-1).call();
+    }
+
+    @Benchmark
+    public Object namedContext() {
+        return point.invoke("move").with("dx", 1).with("dy", -1).call();
+    }
+
+    @Benchmark
+    public Object performVarargs() {
+        return contains.perform(new Object[]{3, 4});
+    }
+
+    @Benchmark
+    public Object performArity() {
+        return contains.perform(3, 4);
+    }
+
+    @Benchmark
+    public Object reusedContext() {
+        return context.reset().with(3).with(4).call();
+    }
+
+    @Benchmark
+    public Object bound() {
+        return bound.perform(3, 4);
+    }
+
+    @Benchmark
+    public boolean direct() {
+        return area.contains(3, 4);
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.systemfalse.jcomp.benchmarks;
+
+import io.github.systemfalse.jcomp.ComponentArena;
+import io.github.systemfalse.jcomp.PropertyKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading and writing a property of components stored off-heap in a
+ * {@link ComponentArena} and of regular components, and reusing freed records.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArenaBenchmark {
+    private final PropertyKey<Integer> x = Point.TYPE.key("x", Integer.class);
+    private ComponentArena<Point> arena;
+    private ComponentArena.Slot slot;
+    private Point point;
+    private int value;
+
+    @Setup
+    public void setup() {
+        arena = new ComponentArena<>(Point.TYPE);
+        slot = arena.allocate();
+        point = Point.TYPE.initialize().get();
+    }
+
+    @TearDown
+    public void tearDown() {
+        arena.close();
+    }
+
+    @Benchmark
+    public int arenaReadWrite() {
+        slot.set(x, ++value);
+        return slot.get(x);
+    }
+
+    @Benchmark
+    public int componentReadWrite() {
+        point.set(x, ++value);
+        return point.get(x);
+    }
+
+    @Benchmark
+    public int allocateAndFree() {
+        ComponentArena.Slot allocated = arena.allocate();
+        arena.free(allocated);
+        return arena.size();
+    }
+}
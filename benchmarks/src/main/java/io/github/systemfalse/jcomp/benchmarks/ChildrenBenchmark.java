@@ -0,0 +1,41 @@
+package io.github.systemfalse.jcomp.benchmarks;
+
+import io.github.systemfalse.jcomp.Component;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating components with eager and lazy children, and accessing a lazy child
+ * after it was created.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChildrenBenchmark {
+    private Component frame;
+
+    @Setup
+    public void setup() {
+        frame = new LazyFrame();
+        frame.children().get("content");
+    }
+
+    @Benchmark
+    public Component createEager() {
+        return new Frame();
+    }
+
+    @Benchmark
+    public Component createLazy() {
+        return new LazyFrame();
+    }
+
+    @Benchmark
+    public Component getCreated() {
+        return frame.children().get("content");
+    }
+}
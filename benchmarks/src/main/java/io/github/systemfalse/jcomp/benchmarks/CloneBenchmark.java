@@ -0,0 +1,40 @@
+package io.github.systemfalse.jcomp.benchmarks;
+
+import io.github.systemfalse.jcomp.Component;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deep and lazy clone of component trees of different sizes. Lazy clone also reads
+ * one child to include cost of copying it on first access.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CloneBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+
+    private Component tree;
+
+    @Setup
+    public void setup() {
+        tree = Fixtures.tree(size, 10);
+    }
+
+    @Benchmark
+    public Component deepClone() {
+        return tree.clone();
+    }
+
+    @Benchmark
+    public Component lazyClone() {
+        Component clone = tree.lazyClone();
+        clone.children().get(0);
+        return clone;
+    }
+}
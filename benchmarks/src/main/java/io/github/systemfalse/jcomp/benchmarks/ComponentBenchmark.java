@@ -0,0 +1,55 @@
+package io.github.systemfalse.jcomp.benchmarks;
+
+import io.github.systemfalse.jcomp.Component;
+import io.github.systemfalse.jcomp.PropertyKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Property access of a generated component by name and by resolved key.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ComponentBenchmark {
+    private Component point;
+    private PropertyKey<Integer> x;
+    private PropertyKey<Integer> y;
+    private int value;
+
+    @Setup
+    public void setup() {
+        point = new Point();
+        x = Point.TYPE.key("x", Integer.class);
+        y = Point.TYPE.key("y", Integer.class);
+    }
+
+    @Benchmark
+    public Object get() {
+        return point.get("y");
+    }
+
+    @Benchmark
+    public Object getReference() {
+        return point.get("label");
+    }
+
+    @Benchmark
+    public void set() {
+        point.set("x", value++);
+    }
+
+    @Benchmark
+    public Integer getByKey() {
+        return point.get(y);
+    }
+
+    @Benchmark
+    public void setByKey() {
+        point.set(x, value++);
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.systemfalse.jcomp.benchmarks;
+
+import io.github.systemfalse.jcomp.Component;
+import io.github.systemfalse.jcomp.ComponentList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups and iteration of {@link ComponentList} for different list sizes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ComponentListBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+
+    private String[] names;
+    private ComponentList list;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        names = Fixtures.names(size);
+        list = Fixtures.list(names);
+    }
+
+    private int next() {
+        int i = cursor;
+        cursor = i + 1 == size ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public Component getByName() {
+        return list.get(names[next()]);
+    }
+
+    @Benchmark
+    public Component getByIndex() {
+        return list.get(next());
+    }
+
+    @Benchmark
+    public List<Point> getByType() {
+        return list.get(Point.TYPE);
+    }
+
+    @Benchmark
+    public Point viewByType() {
+        List<Point> points = list.view(Point.TYPE);
+        return points.get(points.size() - 1);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (Component component : list) {
+            blackhole.consume(component);
+        }
+    }
+}
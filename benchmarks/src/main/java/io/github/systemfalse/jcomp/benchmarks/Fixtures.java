@@ -0,0 +1,69 @@
+package io.github.systemfalse.jcomp.benchmarks;
+
+import io.github.systemfalse.jcomp.Component;
+import io.github.systemfalse.jcomp.ComponentList;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Factory methods for benchmark data.
+ */
+final class Fixtures {
+    private Fixtures() {
+
+    }
+
+    /**
+     * Method returns names of list children: {@code c0, c1, ...}.
+     *
+     * @param size number of names
+     * @return array of names
+     */
+    static String[] names(int size) {
+        String[] names = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = "c" + i;
+        }
+        return names;
+    }
+
+    /**
+     * Method creates list with {@code size} children, every second is a point and others are nodes.
+     *
+     * @param names child names
+     * @return new list
+     */
+    static ComponentList list(String[] names) {
+        ComponentList list = new ComponentList();
+        for (int i = 0; i < names.length; i++) {
+            list.add(names[i], i % 2 == 0 ? new Point() : new Node());
+        }
+        return list;
+    }
+
+    /**
+     * Method creates tree of nodes in breadth-first order where each node has up
+     * to {@code fanOut} children.
+     *
+     * @param size total number of nodes
+     * @param fanOut maximum number of children of a node
+     * @return root node
+     */
+    static Component tree(int size, int fanOut) {
+        Node root = new Node();
+        Queue<Component> queue = new ArrayDeque<>();
+        queue.add(root);
+        int created = 1;
+        while (created < size) {
+            Component parent = queue.remove();
+            for (int i = 0; i < fanOut && created < size; i++, created++) {
+                Node child = new Node();
+                child.set("value", created);
+                parent.children().add("n" + i, child);
+                queue.add(child);
+            }
+        }
+        return root;
+    }
+}
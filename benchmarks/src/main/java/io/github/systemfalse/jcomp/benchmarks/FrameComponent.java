@@ -0,0 +1,35 @@
+package io.github.systemfalse.jcomp.benchmarks;
+
+import io.github.systemfalse.jcomp.Component;
+import io.github.systemfalse.jcomp.annotations.ChildRef;
+import io.github.systemfalse.jcomp.annotations.ComponentRef;
+
+/**
+ * Component with eight children created together with it.
+ */
+@ComponentRef
+public class FrameComponent {
+    @ChildRef(type = "io.github.systemfalse.jcomp.benchmarks.Point")
+    Component header;
+
+    @ChildRef(type = "io.github.systemfalse.jcomp.benchmarks.Point")
+    Component footer;
+
+    @ChildRef(type = "io.github.systemfalse.jcomp.benchmarks.Point")
+    Component toolbar;
+
+    @ChildRef(type = "io.github.systemfalse.jcomp.benchmarks.Point")
+    Component status;
+
+    @ChildRef(type = "io.github.systemfalse.jcomp.benchmarks.Point")
+    Component menu;
+
+    @ChildRef(type = "io.github.systemfalse.jcomp.benchmarks.Point")
+    Component sidebar;
+
+    @ChildRef(type = "io.github.systemfalse.jcomp.benchmarks.Point")
+    Component content;
+
+    @ChildRef(type = "io.github.systemfalse.jcomp.benchmarks.Point")
+    Component dialog;
+}
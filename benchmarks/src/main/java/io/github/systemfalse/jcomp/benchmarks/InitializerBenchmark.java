@@ -0,0 +1,54 @@
+package io.github.systemfalse.jcomp.benchmarks;
+
+import io.github.systemfalse.jcomp.ColumnInitializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating a batch of components with three properties one by one with named
+ * initializers and from columns of values.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InitializerBenchmark {
+    private static final int SIZE = 10000;
+
+    private int[] xs;
+    private int[] ys;
+    private String[] labels;
+    private ColumnInitializer<Point> columns;
+
+    @Setup
+    public void setup() {
+        xs = new int[SIZE];
+        ys = new int[SIZE];
+        labels = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            xs[i] = i;
+            ys[i] = -i;
+            labels[i] = "p" + i;
+        }
+        columns = Point.TYPE.initialize().columns("x", "y", "label");
+    }
+
+    @Benchmark
+    public List<Point> oneByOne() {
+        List<Point> points = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            points.add(Point.TYPE.initialize().set("x", xs[i]).set("y", ys[i]).set("label", labels[i]).get());
+        }
+        return points;
+    }
+
+    @Benchmark
+    public List<Point> columns() {
+        return columns.create(xs, ys, labels);
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.systemfalse.jcomp.benchmarks;
+
+import io.github.systemfalse.jcomp.annotations.ComponentRef;
+import io.github.systemfalse.jcomp.annotations.PropertyRef;
+
+/**
+ * Mapping target of {@link PointComponent} that shares part of its properties.
+ */
+@ComponentRef
+public class LabelComponent {
+    @PropertyRef
+    String label;
+    @PropertyRef
+    int x;
+    @PropertyRef
+    long width;
+}
@@ -0,0 +1,35 @@
+package io.github.systemfalse.jcomp.benchmarks;
+
+import io.github.systemfalse.jcomp.Component;
+import io.github.systemfalse.jcomp.annotations.ChildRef;
+import io.github.systemfalse.jcomp.annotations.ComponentRef;
+
+/**
+ * Component with eight children created on first access.
+ */
+@ComponentRef
+public class LazyFrameComponent {
+    @ChildRef(type = "io.github.systemfalse.jcomp.benchmarks.Point", lazy = true)
+    Component header;
+
+    @ChildRef(type = "io.github.systemfalse.jcomp.benchmarks.Point", lazy = true)
+    Component footer;
+
+    @ChildRef(type = "io.github.systemfalse.jcomp.benchmarks.Point", lazy = true)
+    Component toolbar;
+
+    @ChildRef(type = "io.github.systemfalse.jcomp.benchmarks.Point", lazy = true)
+    Component status;
+
+    @ChildRef(type = "io.github.systemfalse.jcomp.benchmarks.Point", lazy = true)
+    Component menu;
+
+    @ChildRef(type = "io.github.systemfalse.jcomp.benchmarks.Point", lazy = true)
+    Component sidebar;
+
+    @ChildRef(type = "io.github.systemfalse.jcomp.benchmarks.Point", lazy = true)
+    Component content;
+
+    @ChildRef(type = "io.github.systemfalse.jcomp.benchmarks.Point", lazy = true)
+    Component dialog;
+}
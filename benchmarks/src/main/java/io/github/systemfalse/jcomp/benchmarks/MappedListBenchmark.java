@@ -0,0 +1,58 @@
+package io.github.systemfalse.jcomp.benchmarks;
+
+import io.github.systemfalse.jcomp.Component;
+import io.github.systemfalse.jcomp.MappedComponentList;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opening memory-mapped component lists of different sizes and looking up a single
+ * component by name without keeping decoded components.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MappedListBenchmark {
+    @Param({"1000", "100000"})
+    private int size;
+
+    private Path file;
+    private String[] names;
+    private MappedComponentList list;
+    private int index;
+
+    @Setup
+    public void setup() throws IOException {
+        names = Fixtures.names(size);
+        file = Files.createTempFile("jcomp", ".list");
+        MappedComponentList.write(Fixtures.list(names), file);
+        list = MappedComponentList.open(file, MappedComponentList.Eviction.always(), Point.TYPE, Node.TYPE);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        list.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public int open() throws IOException {
+        try (MappedComponentList opened = MappedComponentList.open(file, MappedComponentList.Eviction.always(),
+                Point.TYPE, Node.TYPE)) {
+            return opened.size();
+        }
+    }
+
+    @Benchmark
+    public Component getByName() {
+        index = (index + 7919) % size;
+        return list.get(names[index]);
+    }
+}
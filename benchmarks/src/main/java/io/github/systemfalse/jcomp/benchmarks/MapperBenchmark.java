@@ -0,0 +1,50 @@
+package io.github.systemfalse.jcomp.benchmarks;
+
+import io.github.systemfalse.jcomp.ComponentList;
+import io.github.systemfalse.jcomp.ComponentPair;
+import io.github.systemfalse.jcomp.Mapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Default mapping between two generated component types, and incremental sync of
+ * a mapped pair after one property was changed.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapperBenchmark {
+    private Mapper<Point, Label> mapper;
+    private Point point;
+    private ComponentList list;
+    private ComponentPair<Point, Label> pair;
+    private int x;
+
+    @Setup
+    public void setup() {
+        mapper = Mapper.defaultMapper(Point.TYPE, Label.TYPE);
+        point = new Point();
+        list = Fixtures.list(Fixtures.names(1000));
+        pair = mapper.pair(new Point());
+    }
+
+    @Benchmark
+    public Label apply() {
+        return mapper.apply(point);
+    }
+
+    @Benchmark
+    public ComponentList mapAll() {
+        return mapper.mapAll(list);
+    }
+
+    @Benchmark
+    public int sync() {
+        pair.source().set("x", x++);
+        return pair.sync();
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.systemfalse.jcomp.benchmarks;
+
+import io.github.systemfalse.jcomp.annotations.ComponentRef;
+import io.github.systemfalse.jcomp.annotations.PropertyRef;
+
+/**
+ * Tree node used for building component hierarchies.
+ */
+@ComponentRef
+public class NodeComponent {
+    @PropertyRef
+    int value;
+}
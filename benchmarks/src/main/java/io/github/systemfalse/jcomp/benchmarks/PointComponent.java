@@ -0,0 +1,30 @@
+package io.github.systemfalse.jcomp.benchmarks;
+
+import io.github.systemfalse.jcomp.annotations.ActionRef;
+import io.github.systemfalse.jcomp.annotations.ComponentRef;
+import io.github.systemfalse.jcomp.annotations.PropertyRef;
+
+/**
+ * Small component with primitive and reference properties and actions.
+ */
+@ComponentRef
+public class PointComponent {
+    @PropertyRef
+    int x;
+    @PropertyRef
+    int y;
+    @PropertyRef
+    String label = "point";
+
+    @ActionRef
+    public int move(int dx, int dy) {
+        x += dx;
+        y += dy;
+        return x;
+    }
+
+    @ActionRef
+    public boolean contains(int px, int py) {
+        return px >= x && py >= y;
+    }
+}
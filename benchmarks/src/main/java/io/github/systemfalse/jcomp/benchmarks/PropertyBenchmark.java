@@ -0,0 +1,104 @@
+package io.github.systemfalse.jcomp.benchmarks;
+
+import io.github.systemfalse.jcomp.ChangeDispatcher;
+import io.github.systemfalse.jcomp.IntProperty;
+import io.github.systemfalse.jcomp.Property;
+import io.github.systemfalse.jcomp.internal.SimpleIntProperty;
+import io.github.systemfalse.jcomp.internal.SimpleProperty;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading properties through chains of mapped and memoized views and writing
+ * boxed, primitive and observed properties.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PropertyBenchmark {
+    private Property<Integer> source;
+    private Property<Long> mapped;
+    private Property<String> chained;
+    private Property<String> memoized;
+    private Property<String> memoizedSimple;
+    private Property<Integer> boxed;
+    private IntProperty primitive;
+    private IntProperty observed;
+    private ChangeDispatcher dispatcher;
+    private int notified;
+    private int value;
+
+    @SuppressWarnings("unchecked")
+    @Setup
+    public void setup() {
+        source = (Property<Integer>) new Point().property("x").orElseThrow();
+        mapped = source.map(Long.class, Integer::longValue);
+        chained = mapped.map(Long.class, l -> l * 1000)
+                .map(Double.class, l -> l / 3.0)
+                .map(String.class, String::valueOf);
+        memoized = source.mapMemoized(Long.class, Integer::longValue)
+                .mapMemoized(Long.class, l -> l * 1000)
+                .mapMemoized(Double.class, l -> l / 3.0)
+                .mapMemoized(String.class, String::valueOf);
+        memoizedSimple = new SimpleIntProperty("versioned", 42).mapMemoized(Long.class, Integer::longValue)
+                .mapMemoized(Long.class, l -> l * 1000)
+                .mapMemoized(Double.class, l -> l / 3.0)
+                .mapMemoized(String.class, String::valueOf);
+        boxed = new SimpleProperty<>(Integer.class, "boxed", 0);
+        primitive = new SimpleIntProperty("primitive");
+        observed = new SimpleIntProperty("observed");
+        dispatcher = ChangeDispatcher.create();
+        dispatcher.listen(observed, p -> notified++);
+    }
+
+    @Benchmark
+    public Integer get() {
+        return source.get();
+    }
+
+    @Benchmark
+    public Long map() {
+        return mapped.get();
+    }
+
+    @Benchmark
+    public String mapChain() {
+        return chained.get();
+    }
+
+    @Benchmark
+    public String mapChainMemoized() {
+        return memoized.get();
+    }
+
+    @Benchmark
+    public String mapChainMemoizedSimple() {
+        return memoizedSimple.get();
+    }
+
+    @Benchmark
+    public void setBoxed() {
+        boxed.set(boxed.get() + 1000);
+    }
+
+    @Benchmark
+    public void setPrimitive() {
+        primitive.setInt(primitive.getInt() + 1000);
+    }
+
+    @Benchmark
+    public void setObserved() {
+        observed.setInt(observed.getInt() + 1000);
+    }
+
+    @Benchmark
+    public int setObservedFlush() {
+        observed.setInt(observed.getInt() + 1000);
+        dispatcher.flush();
+        return notified;
+    }
+}
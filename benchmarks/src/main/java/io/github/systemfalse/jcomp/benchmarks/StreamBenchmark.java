@@ -0,0 +1,53 @@
+package io.github.systemfalse.jcomp.benchmarks;
+
+import io.github.systemfalse.jcomp.Component;
+import io.github.systemfalse.jcomp.ComponentReader;
+import io.github.systemfalse.jcomp.ComponentWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing and reading component trees of different sizes in binary format.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StreamBenchmark {
+    @Param({"1000", "100000"})
+    private int size;
+
+    private Component tree;
+    private ByteArrayOutputStream out;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() throws IOException {
+        tree = Fixtures.tree(size, 10);
+        out = new ByteArrayOutputStream();
+        write();
+        bytes = out.toByteArray();
+    }
+
+    @Benchmark
+    public int write() throws IOException {
+        out.reset();
+        try (ComponentWriter writer = ComponentWriter.of(out)) {
+            writer.write(tree);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public Component read() throws IOException {
+        try (ComponentReader reader = ComponentReader.of(new ByteArrayInputStream(bytes), Node.TYPE)) {
+            return reader.readComponent();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.systemfalse.jcomp.benchmarks;
+
+import io.github.systemfalse.jcomp.ComponentTable;
+import io.github.systemfalse.jcomp.PropertyKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sum of one property over many components, read from the column of a
+ * {@link ComponentTable}, through its rows and from separate components.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TableBenchmark {
+    @Param({"1000", "100000"})
+    private int size;
+
+    private final PropertyKey<Integer> x = Point.TYPE.key("x", Integer.class);
+    private Point[] points;
+    private ComponentTable<Point> table;
+
+    @Setup
+    public void setup() {
+        points = new Point[size];
+        table = new ComponentTable<>(Point.TYPE, size);
+        for (int i = 0; i < size; i++) {
+            points[i] = Point.TYPE.initialize().set("x", i).get();
+            table.add(points[i]);
+        }
+    }
+
+    @Benchmark
+    public long sumColumn() {
+        int[] column = table.intColumn("x");
+        long sum = 0;
+        for (int i = 0; i < table.size(); i++) {
+            sum += column[i];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumRows() {
+        long sum = 0;
+        for (ComponentTable.Row row : table) {
+            sum += row.get(x);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumComponents() {
+        long sum = 0;
+        for (Point point : points) {
+            sum += point.get(x);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.systemfalse.jcomp.benchmarks;
+
+import io.github.systemfalse.jcomp.Component;
+import io.github.systemfalse.jcomp.ComponentTree;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counting all components of trees of different sizes with sequential and parallel
+ * tree streams and with fork-join reduction.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TreeBenchmark {
+    @Param({"1000", "100000"})
+    private int size;
+
+    private Component tree;
+
+    @Setup
+    public void setup() {
+        tree = Fixtures.tree(size, 10);
+    }
+
+    @Benchmark
+    public long stream() {
+        return ComponentTree.stream(tree).count();
+    }
+
+    @Benchmark
+    public long parallelStream() {
+        return ComponentTree.stream(tree).parallel().count();
+    }
+
+    @Benchmark
+    public long reduce() {
+        return ComponentTree.reduce(tree, 0L, (count, component) -> count + 1, Long::sum);
+    }
+}
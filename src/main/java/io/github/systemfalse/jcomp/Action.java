@@ -1,10 +1,20 @@
 package io.github.systemfalse.jcomp;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * This interface represents a method of a component. {@code Action} can be
  * invoked with method {@link #perform(Object...)} or {@link #createContext()}.
+ * Actions with up to three parameters can also be invoked with arity-specific
+ * overloads of {@code perform}, which avoid allocating an argument array.
+ * <p>
+ * Default implementations of the arity-specific overloads delegate to
+ * {@link #perform(Object...)}, so actions that override only that method behave
+ * the same for all calls. Implementations that override the overloads must keep
+ * them consistent with {@link #perform(Object...)}.
+ * </p>
  *
  * @param <T> return type
  */
@@ -55,4 +65,84 @@ public interface Action<T> {
     default T perform(Object... args) {
         return createContext().with(args).call();
     }
+
+    /**
+     * Method performs this action without arguments. Unlike {@link #perform(Object...)}
+     * it does not require an argument array, so implementations can perform the
+     * action without allocations. Default implementation delegates to
+     * {@link #perform(Object...)}.
+     *
+     * @return action result or {@code null} if {@link #returnType()} returns {@code void.class}.
+     */
+    default T perform() {
+        return perform(new Object[0]);
+    }
+
+    /**
+     * Method performs this action with one argument. Unlike {@link #perform(Object...)}
+     * it does not require an argument array, so implementations can perform the
+     * action without allocations. Default implementation delegates to
+     * {@link #perform(Object...)}.
+     *
+     * @param a first argument
+     * @return action result or {@code null} if {@link #returnType()} returns {@code void.class}.
+     */
+    default T perform(Object a) {
+        return perform(new Object[] {a});
+    }
+
+    /**
+     * Method performs this action with two arguments.
+     *
+     * @param a first argument
+     * @param b second argument
+     * @return action result or {@code null} if {@link #returnType()} returns {@code void.class}.
+     *
+     * @see #perform(Object)
+     */
+    default T perform(Object a, Object b) {
+        return perform(new Object[] {a, b});
+    }
+
+    /**
+     * Method performs this action with three arguments.
+     *
+     * @param a first argument
+     * @param b second argument
+     * @param c third argument
+     * @return action result or {@code null} if {@link #returnType()} returns {@code void.class}.
+     *
+     * @see #perform(Object)
+     */
+    default T perform(Object a, Object b, Object c) {
+        return perform(new Object[] {a, b, c});
+    }
+
+    /**
+     * Method performs this action with the given parameters on
+     * {@link AsyncActions#defaultExecutor() default executor}.
+     *
+     * @param args action arguments
+     * @return future of action result
+     *
+     * @see ActionContext#callAsync(Executor)
+     */
+    default CompletableFuture<T> performAsync(Object... args) {
+        return createContext().with(args).callAsync();
+    }
+
+    /**
+     * Method performs this action with the given parameters on given executor. Unlike
+     * {@link #performAsync(Object...)}, the executor is never taken as an argument of
+     * the action.
+     *
+     * @param executor executor that performs the action
+     * @param args action arguments
+     * @return future of action result
+     *
+     * @see ActionContext#callAsync(Executor)
+     */
+    default CompletableFuture<T> performAsyncOn(Executor executor, Object... args) {
+        return createContext().with(args).callAsync(executor);
+    }
 }
@@ -2,17 +2,22 @@ package io.github.systemfalse.jcomp;
 
 import java.util.Objects;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 /**
  * This interface represents a context for an action. It is used for passing
- * arguments in free form.
+ * arguments in free form. Context can be reused for several calls by clearing its
+ * arguments with {@link #reset()}.
  *
  * @param <T> action return type
  */
 public interface ActionContext<T> extends Callable<T> {
     /**
-     * Method sets an argument with given name and value.
+     * Method sets an argument with given name and value. Named argument is placed at
+     * the position of the parameter in the selected preset, so presets may declare
+     * parameter with the same name at different positions.
      *
      * @param name parameters name
      * @param value argument value
@@ -45,6 +50,17 @@ public interface ActionContext<T> extends Callable<T> {
      */
     ActionContext<T> with(Object... values);
 
+    /**
+     * Method removes all arguments, so this context can be used for another call.
+     *
+     * @return this context
+     *
+     * @throws UnsupportedOperationException if this context can not be reused
+     */
+    default ActionContext<T> reset() {
+        throw new UnsupportedOperationException("context can not be reset");
+    }
+
     /**
      * Method maps the action return type with the given mapper function.
      *
@@ -66,6 +82,31 @@ public interface ActionContext<T> extends Callable<T> {
      * @throws ActionException if the action fails
      */
     T call() throws ActionException;
+
+    /**
+     * Method performs the action on {@link AsyncActions#defaultExecutor() default executor}.
+     *
+     * @return future of action result
+     *
+     * @see #callAsync(Executor)
+     */
+    default CompletableFuture<T> callAsync() {
+        return callAsync(AsyncActions.defaultExecutor());
+    }
+
+    /**
+     * Method performs the action on given executor. Arguments are read when the action
+     * starts, so this context must not be changed or reset until returned future is
+     * completed. If the action fails, future is completed exceptionally with
+     * {@link java.util.concurrent.CompletionException} caused by {@link ActionException}.
+     *
+     * @param executor executor that performs the action
+     * @return future of action result
+     */
+    default CompletableFuture<T> callAsync(Executor executor) {
+        Objects.requireNonNull(executor, "executor");
+        return CompletableFuture.supplyAsync(this::call, executor);
+    }
 }
 
 class MappedActionContext<T, R> implements ActionContext<R> {
@@ -97,6 +138,11 @@ class MappedActionContext<T, R> implements ActionContext<R> {
         return this;
     }
 
+    public ActionContext<R> reset() {
+        context = context.reset();
+        return this;
+    }
+
     public R call() throws ActionException {
         T result = context.call();
         return mapper.apply(result);
@@ -0,0 +1,124 @@
+package io.github.systemfalse.jcomp;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class contains default executor of asynchronous actions and methods that perform
+ * an action of many components concurrently.
+ * <p>
+ * Default executor starts a virtual thread per action when running on Java 21 or
+ * later, so actions blocked on I/O do not occupy platform threads. On older versions
+ * it is a cached pool of daemon threads. Default executor can be replaced with
+ * {@link #setDefaultExecutor(Executor)}.
+ * </p>
+ *
+ * @see ActionContext#callAsync()
+ * @see Action#performAsync(Object...)
+ */
+public final class AsyncActions {
+    private static volatile Executor executor;
+
+    private AsyncActions() {
+    }
+
+    private static final class DefaultExecutor {
+        static final Executor INSTANCE = create();
+
+        private static Executor create() {
+            try {
+                return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                AtomicInteger counter = new AtomicInteger();
+                return Executors.newCachedThreadPool(task -> {
+                    Thread thread = new Thread(task, "jcomp-action-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        }
+    }
+
+    /**
+     * Method returns executor used by asynchronous actions when no executor is given.
+     *
+     * @return default executor
+     */
+    public static Executor defaultExecutor() {
+        Executor executor = AsyncActions.executor;
+        return executor != null ? executor : DefaultExecutor.INSTANCE;
+    }
+
+    /**
+     * Method replaces default executor of asynchronous actions.
+     *
+     * @param executor new default executor or {@code null} to restore built-in executor
+     */
+    public static void setDefaultExecutor(Executor executor) {
+        AsyncActions.executor = executor;
+    }
+
+    /**
+     * Method performs action with given name of every component in the list with given
+     * arguments on {@link #defaultExecutor() default executor}.
+     *
+     * @param list component list
+     * @param action name of the action
+     * @param args action arguments
+     * @return future of map from component names to action results
+     *
+     * @throws NoSuchActionException if a component does not have the action
+     *
+     * @see #performAll(ComponentList, Executor, String, Object...)
+     */
+    public static CompletableFuture<Map<String, Object>> performAll(ComponentList list, String action,
+                                                                    Object... args) {
+        return performAll(list, defaultExecutor(), action, args);
+    }
+
+    /**
+     * Method performs action with given name of every component in the list with given
+     * arguments on given executor. All actions are started concurrently and returned
+     * future completes when all of them are finished. Result map keeps order of the list
+     * and contains {@code null} for actions without return value. If any action fails,
+     * future is completed exceptionally with the first failure.
+     * <p>
+     * Actions are looked up before any of them is started, so if a component does not
+     * have the action, no action is performed.
+     * </p>
+     *
+     * @param list component list
+     * @param executor executor that performs actions
+     * @param action name of the action
+     * @param args action arguments
+     * @return future of map from component names to action results
+     *
+     * @throws NoSuchActionException if a component does not have the action
+     */
+    public static CompletableFuture<Map<String, Object>> performAll(ComponentList list, Executor executor,
+                                                                    String action, Object... args) {
+        Objects.requireNonNull(list, "list");
+        Objects.requireNonNull(executor, "executor");
+        Objects.requireNonNull(action, "action");
+        List<String> names = new ArrayList<>(list.size());
+        List<ActionContext<?>> contexts = new ArrayList<>(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            names.add(list.name(i));
+            contexts.add(list.get(i).invoke(action).with(args));
+        }
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[contexts.size()];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = contexts.get(i).callAsync(executor);
+        }
+        return CompletableFuture.allOf(futures).thenApply(ignored -> {
+            Map<String, Object> results = new LinkedHashMap<>();
+            for (int i = 0; i < futures.length; i++) {
+                results.put(names.get(i), futures[i].join());
+            }
+            return Collections.unmodifiableMap(results);
+        });
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.systemfalse.jcomp;
+
+/**
+ * Constants and helpers shared by {@link ComponentWriter} and {@link ComponentReader}.
+ */
+final class BinaryFormat {
+    static final int MAGIC = 0x4A434D50;
+    static final byte VERSION = 1;
+
+    static final byte RECORD_COMPONENT = 1;
+    static final byte RECORD_LIST = 2;
+
+    static final byte NULL = 0;
+    static final byte FALSE = 1;
+    static final byte TRUE = 2;
+    static final byte BYTE = 3;
+    static final byte SHORT = 4;
+    static final byte CHAR = 5;
+    static final byte INT = 6;
+    static final byte LONG = 7;
+    static final byte FLOAT = 8;
+    static final byte DOUBLE = 9;
+    static final byte STRING = 10;
+    static final byte BYTES = 11;
+    static final byte COMPONENT = 12;
+    static final byte SERIALIZED = 13;
+
+    /**
+     * Maximal nesting of components in a stream. It limits recursion of the writer and
+     * of the reader of untrusted streams.
+     */
+    static final int MAX_DEPTH = 1024;
+
+    private BinaryFormat() {
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
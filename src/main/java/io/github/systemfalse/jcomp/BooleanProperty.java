@@ -0,0 +1,32 @@
+package io.github.systemfalse.jcomp;
+
+/**
+ * Property that holds {@code boolean} value. Its value can be read and written
+ * without boxing using {@link #getBoolean()} and {@link #setBoolean(boolean)}.
+ */
+public interface BooleanProperty extends Property<Boolean> {
+    /**
+     * Method returns value of this property without boxing.
+     *
+     * @return value of the property
+     */
+    boolean getBoolean();
+
+    /**
+     * Method sets value of this property without boxing. If this property is
+     * read-only, an {@code UnsupportedOperationException} is thrown.
+     *
+     * @param value value to set
+     *
+     * @throws UnsupportedOperationException if this property is read-only
+     */
+    void setBoolean(boolean value);
+
+    /**
+     * Method returns a copy of this property.
+     *
+     * @return a copy of this property
+     */
+    @Override
+    BooleanProperty clone();
+}
@@ -0,0 +1,237 @@
+package io.github.systemfalse.jcomp;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+
+/**
+ * Class delivers coalesced change notifications to property and component listeners.
+ * Setting an observed value only marks it as changed, and changes are delivered in
+ * batches, so each listener is notified at most once per flush no matter how many
+ * times values were set.
+ * <p>
+ * Dispatcher created with {@link #create()} delivers changes only when
+ * {@link #flush()} is called, on the calling thread. Dispatcher created with
+ * {@link #create(Executor)} also schedules flush on the executor when the first
+ * change after the previous flush is marked.
+ * </p>
+ * <p>
+ * Only changes made through {@code set} methods of properties and components are
+ * observed. Fields assigned directly by the component definition are not.
+ * </p>
+ */
+public final class ChangeDispatcher {
+    /**
+     * This interface represents registration of a listener. Closing subscription
+     * stops observing changes and drops undelivered ones.
+     */
+    public interface Subscription extends AutoCloseable {
+        /**
+         * Method cancels the subscription.
+         */
+        @Override
+        void close();
+    }
+
+    private final Executor executor;
+    private final Object lock = new Object();
+    private List<Target> pending = new ArrayList<>();
+    private boolean scheduled;
+
+    private ChangeDispatcher(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Method creates new dispatcher that delivers changes when {@link #flush()} is called.
+     *
+     * @return new dispatcher
+     */
+    public static ChangeDispatcher create() {
+        return new ChangeDispatcher(null);
+    }
+
+    /**
+     * Method creates new dispatcher that delivers changes on given executor. Flush is
+     * scheduled once for all changes marked until it runs.
+     *
+     * @param executor executor for delivering changes
+     * @return new dispatcher
+     */
+    public static ChangeDispatcher create(Executor executor) {
+        return new ChangeDispatcher(Objects.requireNonNull(executor, "executor"));
+    }
+
+    /**
+     * Method registers listener of given property.
+     *
+     * @param property observed property
+     * @param listener listener
+     * @return subscription
+     * @param <T> type of the property
+     *
+     * @throws UnsupportedOperationException if property can not be observed
+     */
+    public <T> Subscription listen(Property<T> property, PropertyListener<T> listener) {
+        Objects.requireNonNull(property, "property");
+        Objects.requireNonNull(listener, "listener");
+        PropertyTarget<T> target = new PropertyTarget<>(property, listener);
+        property.observe(target);
+        return target;
+    }
+
+    /**
+     * Method registers listener of given component.
+     *
+     * @param component observed component
+     * @param listener listener
+     * @return subscription
+     *
+     * @throws UnsupportedOperationException if component can not be observed
+     */
+    public Subscription listen(Component component, ComponentListener listener) {
+        Objects.requireNonNull(component, "component");
+        Objects.requireNonNull(listener, "listener");
+        ComponentTarget target = new ComponentTarget(component, listener);
+        component.observe(target);
+        return target;
+    }
+
+    /**
+     * Method delivers all changes marked since the previous flush on the calling thread.
+     * If any listener throws an exception, remaining listeners are still notified and the
+     * first exception is rethrown afterward.
+     */
+    public void flush() {
+        List<Target> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                scheduled = false;
+                return;
+            }
+            batch = pending;
+            pending = new ArrayList<>();
+            scheduled = false;
+            for (Target target : batch) {
+                target.queued = false;
+            }
+        }
+        RuntimeException failure = null;
+        for (Target target : batch) {
+            try {
+                target.deliver();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void enqueue(Target target) {
+        boolean schedule = false;
+        synchronized (lock) {
+            if (target.queued || target.closed) {
+                return;
+            }
+            target.queued = true;
+            pending.add(target);
+            if (executor != null && !scheduled) {
+                scheduled = schedule = true;
+            }
+        }
+        if (schedule) {
+            try {
+                executor.execute(this::flush);
+            } catch (RuntimeException e) {
+                //changes stay pending and next change schedules flush again
+                synchronized (lock) {
+                    scheduled = false;
+                }
+                throw e;
+            }
+        }
+    }
+
+    private abstract class Target implements ChangeObserver, Subscription {
+        volatile boolean queued;
+        volatile boolean closed;
+
+        @Override
+        public void changed(Object source, String property) {
+            mark(property);
+            if (!queued) {
+                enqueue(this);
+            }
+        }
+
+        void mark(String property) {
+        }
+
+        abstract void deliver();
+    }
+
+    private final class PropertyTarget<T> extends Target {
+        private final Property<T> property;
+        private final PropertyListener<T> listener;
+
+        PropertyTarget(Property<T> property, PropertyListener<T> listener) {
+            this.property = property;
+            this.listener = listener;
+        }
+
+        @Override
+        void deliver() {
+            if (!closed) {
+                listener.changed(property);
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            property.unobserve(this);
+        }
+    }
+
+    private final class ComponentTarget extends Target {
+        private final Component component;
+        private final ComponentListener listener;
+        private Set<String> changed = new LinkedHashSet<>();
+
+        ComponentTarget(Component component, ComponentListener listener) {
+            this.component = component;
+            this.listener = listener;
+        }
+
+        @Override
+        synchronized void mark(String property) {
+            changed.add(property);
+        }
+
+        @Override
+        void deliver() {
+            Set<String> properties;
+            synchronized (this) {
+                if (changed.isEmpty()) {
+                    return;
+                }
+                properties = changed;
+                changed = new LinkedHashSet<>();
+            }
+            if (!closed) {
+                listener.changed(component, Collections.unmodifiableSet(properties));
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            component.unobserve(this);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.systemfalse.jcomp;
+
+/**
+ * This interface represents low-level observer of property changes. Observer is
+ * called synchronously by the thread that sets the value, so it must be cheap and
+ * must not modify observed object. Usually observers only mark changed properties
+ * and {@link ChangeDispatcher} delivers the changes to listeners later.
+ *
+ * @see Property#observe(ChangeObserver)
+ * @see Component#observe(ChangeObserver)
+ */
+@FunctionalInterface
+public interface ChangeObserver {
+    /**
+     * Method is called after value of a property was set.
+     *
+     * @param source changed property or component
+     * @param property name of the changed property
+     */
+    void changed(Object source, String property);
+}
@@ -0,0 +1,36 @@
+package io.github.systemfalse.jcomp;
+
+import java.util.List;
+
+/**
+ * This interface creates components from columns of property values. Property names
+ * are resolved and validated once, when the initializer is created with
+ * {@link Initializer#columns(String...)} or, if the initializer does not know type of
+ * its components, when the first component is created, so creating each component
+ * only sets its values. Initializer can be reused for any number of batches.
+ *
+ * @param <C> component type
+ */
+public interface ColumnInitializer<C extends Component> {
+    /**
+     * Method returns names of properties in column order.
+     *
+     * @return property names
+     */
+    List<String> properties();
+
+    /**
+     * Method creates one component per row of given columns. Each column is an array
+     * of values of the property at the same position in {@link #properties()}. Arrays
+     * of primitive types are supported. All columns must have the same length.
+     *
+     * @param columns arrays of property values
+     * @return new list of components in row order
+     *
+     * @throws IllegalArgumentException if number of columns does not match number of
+     * properties, a column is not an array, columns have different lengths or a property
+     * does not exist
+     * @throws ClassCastException if a value is not applicable for its property
+     */
+    List<C> create(Object... columns);
+}
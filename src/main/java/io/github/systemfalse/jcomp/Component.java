@@ -38,6 +38,26 @@ public interface Component extends Cloneable {
      */
     Component clone();
 
+    /**
+     * Method returns a copy of this component that shares child components with this
+     * component. The copy copies each shared child when it returns it for the first time,
+     * so cloning is independent of the size of the component tree and only visited parts
+     * of the tree are ever copied. This component keeps its children, so modifications
+     * made through the copy never affect it.
+     * <p>
+     * Generated components copy children stored in their fields when they are cloned,
+     * because definition classes read these fields directly. Children that were not
+     * created yet stay lazy in both components. Default implementation returns
+     * {@link #clone()}.
+     * </p>
+     *
+     * @return a lazy copy of this component
+     * @see ComponentList#lazyClone()
+     */
+    default Component lazyClone() {
+        return clone();
+    }
+
     /**
      * Method returns the value of the property with the given name.
      *
@@ -61,6 +81,35 @@ public interface Component extends Cloneable {
      */
     <T, R> R get(String property, Function<T, R> mapper);
 
+    /**
+     * Method returns the value of the property identified by the given key. Components
+     * of the key owner type can access the property by index without resolving its name.
+     *
+     * @param key property key
+     * @return value of the property
+     * @param <T> type of the property
+     *
+     * @throws NoSuchPropertyException if property was not found
+     */
+    default <T> T get(PropertyKey<T> key) {
+        return key.type().cast(get(key.name()));
+    }
+
+    /**
+     * Method sets the value of the property identified by the given key.
+     *
+     * @param key property key
+     * @param value value of the property
+     * @param <T> type of the property
+     *
+     * @throws ClassCastException if given value is not applicable for the property
+     * @throws UnsupportedOperationException if this property is read-only
+     * @throws NoSuchPropertyException if property was not found
+     */
+    default <T> void set(PropertyKey<T> key, T value) {
+        set(key.name(), value);
+    }
+
     /**
      * Method sets the value of the property with the given name. If given value
      * is not applicable for the property, a {@code ClassCastException} is thrown.
@@ -129,6 +178,29 @@ public interface Component extends Cloneable {
         throw new IllegalArgumentException("unsuitable mapper");
     }
 
+    /**
+     * Method registers observer that is called every time a property of this component
+     * is set through the component or its properties. Default implementation throws
+     * {@code UnsupportedOperationException}.
+     *
+     * @param observer observer
+     *
+     * @throws UnsupportedOperationException if this component can not be observed
+     * @see ChangeDispatcher
+     */
+    default void observe(ChangeObserver observer) {
+        throw new UnsupportedOperationException("component can not be observed");
+    }
+
+    /**
+     * Method removes observer registered with {@link #observe(ChangeObserver)}. Default
+     * implementation does nothing.
+     *
+     * @param observer observer
+     */
+    default void unobserve(ChangeObserver observer) {
+    }
+
     /**
      * Method returns list of child components.
      *
@@ -0,0 +1,551 @@
+package io.github.systemfalse.jcomp;
+
+import io.github.systemfalse.jcomp.internal.SimpleProperty;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Class stores property values of components of one type outside the Java heap. Each
+ * component occupies a fixed-size record in a direct {@link ByteBuffer}, and records
+ * are allocated in chunks of {@value #CHUNK} records, so the heap only holds a few
+ * buffer objects instead of millions of components and boxed values, which garbage
+ * collector does not need to scan.
+ * <p>
+ * Properties of primitive wrapper types with non-null default value are stored in the
+ * record, other properties are stored in reference arrays on the heap. Components of
+ * the arena are {@link Slot slots}, which are views of a record and implement
+ * {@link Component}, so they can be used by existing code. Default values, read-only
+ * flags and children of new components are taken from a component created by
+ * {@link ComponentType#initialize() initializer} of the arena type.
+ * </p>
+ * <p>
+ * Lifetime of components is managed explicitly. {@link #free(Slot)} returns a record to
+ * the arena, so it is reused by the next allocation, and {@link #close()} drops all
+ * buffers, whose memory is released when garbage collector collects them. Each record
+ * keeps its generation, so slots of freed records throw {@code IllegalStateException}
+ * instead of reading values of another component. Arena is not thread-safe.
+ * </p>
+ *
+ * @param <C> type of components
+ */
+public final class ComponentArena<C extends Component> implements Closeable {
+    private static final int SHIFT = 13, MASK = (1 << SHIFT) - 1;
+
+    /**
+     * Number of records in one buffer.
+     */
+    public static final int CHUNK = 1 << SHIFT;
+
+    private static final byte REFERENCE = 0, INT = 1, LONG = 2, DOUBLE = 3, FLOAT = 4, SHORT = 5, CHAR = 6,
+            BYTE = 7, BOOLEAN = 8;
+
+    private final ComponentType<C> type;
+    private final C prototype;
+    private final String[] names;
+    private final PropertyKey<?>[] keys;
+    private final Class<?>[] types;
+    private final byte[] kinds;
+    private final int[] offsets;
+    private final boolean[] readOnly;
+    private final Map<String, Integer> indices;
+    private final int stride, generation, references;
+    private ByteBuffer[] chunks;
+    private Object[][] values;
+    private ComponentList[][] children;
+    private int[] free;
+    private int freeCount, next, size;
+
+    /**
+     * Public constructor creates new empty arena for components of given type.
+     *
+     * @param type component type
+     */
+    public ComponentArena(ComponentType<C> type) {
+        this.type = Objects.requireNonNull(type, "type");
+        prototype = type.initialize().get();
+        names = type.properties().toArray(String[]::new);
+        keys = new PropertyKey<?>[names.length];
+        types = new Class<?>[names.length];
+        kinds = new byte[names.length];
+        offsets = new int[names.length];
+        readOnly = new boolean[names.length];
+        indices = new HashMap<>(Math.max(16, names.length * 4 / 3 + 1));
+        int references = 0;
+        for (int i = 0; i < names.length; i++) {
+            Property<?> property = prototype.property(names[i]).orElseThrow(() ->
+                    new IllegalArgumentException("prototype does not have declared property"));
+            keys[i] = type.key(names[i]).orElse(null);
+            types[i] = keys[i] != null && keys[i].type() != Object.class ? keys[i].type() : property.type();
+            //null default means the property is not primitive, so it stays on the heap
+            kinds[i] = prototype.get(names[i]) != null ? kind(types[i]) : REFERENCE;
+            readOnly[i] = property.isReadOnly();
+            indices.put(names[i], i);
+            if (kinds[i] == REFERENCE) {
+                offsets[i] = references++;
+            }
+        }
+        this.references = references;
+        //fields are placed from the widest, so each of them is aligned to its size
+        int offset = 0, generation = 0;
+        for (int width = 8; width > 0; width >>= 1) {
+            for (int i = 0; i < names.length; i++) {
+                if (kinds[i] != REFERENCE && width(kinds[i]) == width) {
+                    offsets[i] = offset;
+                    offset += width;
+                }
+            }
+            if (width == 4) {
+                generation = offset;
+                offset += 4;
+            }
+        }
+        this.generation = generation;
+        stride = (offset + 7) & ~7;
+        chunks = new ByteBuffer[0];
+        values = new Object[0][];
+        free = new int[16];
+    }
+
+    private static byte kind(Class<?> type) {
+        if (type == Integer.class) {
+            return INT;
+        } else if (type == Long.class) {
+            return LONG;
+        } else if (type == Double.class) {
+            return DOUBLE;
+        } else if (type == Float.class) {
+            return FLOAT;
+        } else if (type == Short.class) {
+            return SHORT;
+        } else if (type == Character.class) {
+            return CHAR;
+        } else if (type == Byte.class) {
+            return BYTE;
+        } else if (type == Boolean.class) {
+            return BOOLEAN;
+        }
+        return REFERENCE;
+    }
+
+    private static int width(byte kind) {
+        return switch (kind) {
+            case LONG, DOUBLE -> 8;
+            case INT, FLOAT -> 4;
+            case SHORT, CHAR -> 2;
+            default -> 1;
+        };
+    }
+
+    /**
+     * Method returns type of arena components.
+     *
+     * @return component type
+     */
+    public ComponentType<C> type() {
+        return type;
+    }
+
+    /**
+     * Method returns number of allocated components.
+     *
+     * @return number of components
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Method returns number of bytes of direct buffers reserved by this arena.
+     *
+     * @return reserved off-heap memory
+     */
+    public long reservedBytes() {
+        ByteBuffer[] chunks = this.chunks;
+        return chunks != null ? (long) chunks.length * CHUNK * stride : 0;
+    }
+
+    /**
+     * Method allocates component with default values of the arena type.
+     *
+     * @return new component
+     *
+     * @throws IllegalStateException if arena is closed
+     */
+    public Slot allocate() {
+        Slot slot = reserve();
+        for (int i = 0; i < names.length; i++) {
+            write(slot.index, i, prototype.get(names[i]));
+        }
+        return slot;
+    }
+
+    /**
+     * Method allocates component with property values and children of given component.
+     * Values are copied, so later changes of the component do not affect the arena.
+     *
+     * @param component component
+     * @return new component
+     *
+     * @throws IllegalStateException if arena is closed
+     * @throws NullPointerException if component has {@code null} value of a property
+     * stored off-heap
+     */
+    public Slot allocate(C component) {
+        Objects.requireNonNull(component, "component");
+        Slot slot = reserve();
+        try {
+            for (int i = 0; i < names.length; i++) {
+                write(slot.index, i, keys[i] != null ? component.get(keys[i]) : component.get(names[i]));
+            }
+        } catch (RuntimeException e) {
+            free(slot);
+            throw e;
+        }
+        if (component.children().size() > 0) {
+            children(slot.index)[slot.index & MASK] = component.children().clone();
+        }
+        return slot;
+    }
+
+    private Slot reserve() {
+        checkOpen();
+        int index;
+        if (freeCount > 0) {
+            index = free[--freeCount];
+        } else {
+            if (next == chunks.length * CHUNK) {
+                if (chunks.length == (Integer.MAX_VALUE >>> SHIFT) + 1) {
+                    throw new IllegalStateException("arena is full");
+                }
+                grow();
+            }
+            index = next++;
+        }
+        size++;
+        return new Slot(this, index, chunks[index >>> SHIFT].getInt((index & MASK) * stride + generation));
+    }
+
+    private void grow() {
+        int count = chunks.length;
+        chunks = Arrays.copyOf(chunks, count + 1);
+        chunks[count] = ByteBuffer.allocateDirect(CHUNK * stride).order(ByteOrder.nativeOrder());
+        values = Arrays.copyOf(values, count + 1);
+        values[count] = references > 0 ? new Object[CHUNK * references] : null;
+        if (children != null) {
+            children = Arrays.copyOf(children, count + 1);
+        }
+    }
+
+    private ComponentList[] children(int index) {
+        if (children == null) {
+            children = new ComponentList[chunks.length][];
+        }
+        ComponentList[] chunk = children[index >>> SHIFT];
+        if (chunk == null) {
+            chunk = children[index >>> SHIFT] = new ComponentList[CHUNK];
+        }
+        return chunk;
+    }
+
+    /**
+     * Method returns record of given component to the arena. Component and all other
+     * slots of the same record can not be used after that.
+     *
+     * @param slot component of this arena
+     *
+     * @throws IllegalArgumentException if component belongs to another arena
+     * @throws IllegalStateException if component was already freed or arena is closed
+     */
+    public void free(Slot slot) {
+        Objects.requireNonNull(slot, "slot");
+        if (slot.arena != this) {
+            throw new IllegalArgumentException("component belongs to another arena");
+        }
+        int base = check(slot);
+        int index = slot.index;
+        chunks[index >>> SHIFT].putInt(base + generation, slot.generation + 1);
+        if (references > 0) {
+            Arrays.fill(values[index >>> SHIFT], (index & MASK) * references, ((index & MASK) + 1) * references, null);
+        }
+        if (children != null && children[index >>> SHIFT] != null) {
+            children[index >>> SHIFT][index & MASK] = null;
+        }
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, freeCount * 2);
+        }
+        free[freeCount++] = index;
+        size--;
+    }
+
+    /**
+     * Method drops references to all buffers of the arena. Direct buffers can not be
+     * freed explicitly, so their memory is released when garbage collector collects
+     * them. Components of the arena can not be used after it is closed.
+     */
+    @Override
+    public void close() {
+        chunks = null;
+        values = null;
+        children = null;
+        free = null;
+        size = 0;
+    }
+
+    private void checkOpen() {
+        if (chunks == null) {
+            throw new IllegalStateException("component arena is closed");
+        }
+    }
+
+    private int check(Slot slot) {
+        checkOpen();
+        int base = (slot.index & MASK) * stride;
+        if (chunks[slot.index >>> SHIFT].getInt(base + generation) != slot.generation) {
+            throw new IllegalStateException("component was freed");
+        }
+        return base;
+    }
+
+    private Object read(Slot slot, int field) {
+        int base = check(slot);
+        ByteBuffer buffer = chunks[slot.index >>> SHIFT];
+        int position = base + offsets[field];
+        return switch (kinds[field]) {
+            case INT -> buffer.getInt(position);
+            case LONG -> buffer.getLong(position);
+            case DOUBLE -> buffer.getDouble(position);
+            case FLOAT -> buffer.getFloat(position);
+            case SHORT -> buffer.getShort(position);
+            case CHAR -> buffer.getChar(position);
+            case BYTE -> buffer.get(position);
+            case BOOLEAN -> buffer.get(position) != 0;
+            default -> values[slot.index >>> SHIFT][(slot.index & MASK) * references + offsets[field]];
+        };
+    }
+
+    private void write(int index, int field, Object value) {
+        byte kind = kinds[field];
+        if (kind == REFERENCE) {
+            values[index >>> SHIFT][(index & MASK) * references + offsets[field]] = types[field].cast(value);
+            return;
+        }
+        Objects.requireNonNull(value, "off-heap property can not be null");
+        ByteBuffer buffer = chunks[index >>> SHIFT];
+        int position = (index & MASK) * stride + offsets[field];
+        switch (kind) {
+            case INT -> buffer.putInt(position, (Integer) value);
+            case LONG -> buffer.putLong(position, (Long) value);
+            case DOUBLE -> buffer.putDouble(position, (Double) value);
+            case FLOAT -> buffer.putFloat(position, (Float) value);
+            case SHORT -> buffer.putShort(position, (Short) value);
+            case CHAR -> buffer.putChar(position, (Character) value);
+            case BYTE -> buffer.put(position, (Byte) value);
+            default -> buffer.put(position, (Boolean) value ? (byte) 1 : (byte) 0);
+        }
+    }
+
+    private C materialize(Slot slot) {
+        check(slot);
+        Initializer<C> initializer = type.initialize();
+        for (int i = 0; i < names.length; i++) {
+            if (!readOnly[i]) {
+                initializer.set(names[i], read(slot, i));
+            }
+        }
+        C component = initializer.get();
+        ComponentList[] chunk = children != null ? children[slot.index >>> SHIFT] : null;
+        ComponentList list = chunk != null ? chunk[slot.index & MASK] : null;
+        if (list != null) {
+            list.copyInto(component.children());
+        }
+        return component;
+    }
+
+    private int field(Component slot, String property) {
+        Integer field = indices.get(property);
+        if (field == null) {
+            throw new NoSuchPropertyException(slot, property);
+        }
+        return field;
+    }
+
+    private int field(Component slot, PropertyKey<?> key) {
+        int index = key.index();
+        if (key.owner() == type && index >= 0 && index < keys.length && keys[index] != null
+                && keys[index].name().equals(key.name())) {
+            return index;
+        }
+        return field(slot, key.name());
+    }
+
+    /**
+     * Class is a component view of one record of the arena. It keeps index and
+     * generation of the record, so it is valid until the record is freed.
+     */
+    public static final class Slot implements Component {
+        private final ComponentArena<?> arena;
+        private final int index;
+        private final int generation;
+
+        Slot(ComponentArena<?> arena, int index, int generation) {
+            this.arena = arena;
+            this.index = index;
+            this.generation = generation;
+        }
+
+        /**
+         * Method returns arena of this component.
+         *
+         * @return arena
+         */
+        public ComponentArena<?> arena() {
+            return arena;
+        }
+
+        /**
+         * Method checks whether the record of this component was not freed.
+         *
+         * @return {@code true} if component can be used, {@code false} otherwise
+         */
+        public boolean isLive() {
+            ByteBuffer[] chunks = arena.chunks;
+            return chunks != null
+                    && chunks[index >>> SHIFT].getInt((index & MASK) * arena.stride + arena.generation) == generation;
+        }
+
+        @Override
+        public ComponentType<?> type() {
+            return arena.type;
+        }
+
+        /**
+         * Method returns detached component of the arena type with property values and
+         * children of this component.
+         *
+         * @return new component
+         */
+        @Override
+        public Component clone() {
+            return arena.materialize(this);
+        }
+
+        @Override
+        public Object get(String property) {
+            return arena.read(this, arena.field(this, property));
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T, R> R get(String property, Function<T, R> mapper) {
+            return mapper.apply((T) get(property));
+        }
+
+        @Override
+        public <T> T get(PropertyKey<T> key) {
+            return key.type().cast(arena.read(this, arena.field(this, key)));
+        }
+
+        @Override
+        public <T> void set(PropertyKey<T> key, T value) {
+            set(arena.field(this, key), value);
+        }
+
+        @Override
+        public void set(String property, Object value) {
+            set(arena.field(this, property), value);
+        }
+
+        private void set(int field, Object value) {
+            if (arena.readOnly[field]) {
+                throw new UnsupportedOperationException("unmodifiable property");
+            }
+            arena.check(this);
+            arena.write(index, field, value);
+        }
+
+        @Override
+        public Optional<Property<?>> property(String property) {
+            Integer field = arena.indices.get(property);
+            return field == null ? Optional.empty() : Optional.of(new Cell<>(this, arena.types[field], field));
+        }
+
+        @Override
+        public ActionContext<?> invoke(String action) {
+            throw new NoSuchActionException(this, action);
+        }
+
+        @Override
+        public Optional<Action<?>> action(String action) {
+            return Optional.empty();
+        }
+
+        @Override
+        public <T extends Component> T as(ComponentType<T> type) {
+            return clone().as(type);
+        }
+
+        @Override
+        public ComponentList children() {
+            arena.check(this);
+            ComponentList[] children = arena.children(index);
+            ComponentList list = children[index & MASK];
+            if (list == null) {
+                //children are copied only when they are accessed through the slot
+                list = children[index & MASK] = arena.prototype.children().lazyClone();
+            }
+            return list;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Slot slot && slot.arena == arena && slot.index == index
+                    && slot.generation == generation;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(arena) * 31 + index;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(arena.type.getTypeName()).append('[');
+            for (int i = 0; i < arena.names.length; i++) {
+                if (i > 0) builder.append(", ");
+                builder.append(arena.names[i]).append('=').append(arena.read(this, i));
+            }
+            return builder.append(']').toString();
+        }
+    }
+
+    private record Cell<T>(Slot slot, Class<T> type, int field) implements Property<T> {
+        @Override
+        public String name() {
+            return slot.arena.names[field];
+        }
+
+        @Override
+        public T get() {
+            return type.cast(slot.arena.read(slot, field));
+        }
+
+        @Override
+        public boolean isReadOnly() {
+            return slot.arena.readOnly[field];
+        }
+
+        @Override
+        public void set(Object value) {
+            slot.set(field, value);
+        }
+
+        @Override
+        public Property<T> clone() {
+            return new SimpleProperty<>(type, name(), get());
+        }
+    }
+}
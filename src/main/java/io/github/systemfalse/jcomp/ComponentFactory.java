@@ -1,5 +1,10 @@
 package io.github.systemfalse.jcomp;
 
+import io.github.systemfalse.jcomp.internal.ActionBinding;
+
+import java.util.Map;
+import java.util.Objects;
+
 /**
  * Factory class for creating component builders, instances and wrappers.
  */
@@ -8,4 +13,23 @@ public final class ComponentFactory {
     public ComponentFactory() {
 
     }
+
+    /**
+     * Method creates actions from methods of the given object annotated with
+     * {@link io.github.systemfalse.jcomp.annotations.ActionRef}. Methods of each class
+     * are discovered once and invoked through method handles. Selected preset is
+     * remembered for the classes of the arguments, so it is not resolved again on
+     * following calls.
+     *
+     * @param handler component that owns the actions
+     * @param target object whose methods are invoked
+     * @return map from action name to action
+     *
+     * @throws IllegalArgumentException if annotated methods are not accessible or presets are invalid
+     */
+    public static Map<String, Action<?>> actions(Component handler, Object target) {
+        Objects.requireNonNull(handler, "handler");
+        Objects.requireNonNull(target, "target");
+        return ActionBinding.of(target.getClass()).bindAll(handler, target);
+    }
 }
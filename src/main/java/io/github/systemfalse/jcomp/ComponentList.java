@@ -1,17 +1,53 @@
 package io.github.systemfalse.jcomp;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-
 import java.util.*;
-import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Class represents list of component children. It supports retrieving components
  * by index and name.
+ * <p>
+ * Names are indexed in a hash table, so retrieving, replacing and removing components
+ * by name do not scan the list. Removing a component still shifts positions of the
+ * following components.
+ * </p>
+ * <p>
+ * Entries of the list, their name index and groups are kept in a single state object
+ * published through a volatile field. Modifications of the list are synchronized.
+ * By default they change the state in place and reads are not synchronized, so this
+ * list must not be read while other thread modifies it. Lists created with
+ * {@link #concurrent(Entry...)} never change entries of published state: each
+ * modification publishes modified copy, so readers always see consistent list.
+ * Readers do not lock while the published state has no components that must be created
+ * or copied first; such components are created under the lock, and the state is
+ * published again once all of them were created.
+ * </p>
+ * <p>
+ * {@link #lazyClone()} returns a copy that shares the storage of this list until
+ * either of the lists is modified. The copy copies each shared component when it returns
+ * it for the first time, while this list keeps returning its own components, so the copy
+ * can not change components of this list.
+ * </p>
+ * <p>
+ * Entries are grouped by class of their components when the list is queried by type for
+ * the first time, and groups are updated by later modifications. Queries by types
+ * with known {@link ComponentType#componentClass() component class}, such as generated
+ * types, match whole groups, so they take time proportional to the number of matching
+ * components and the number of component classes. Queries by other types check each
+ * component of the list.
+ * </p>
+ * <p>
+ * Components added with {@link #addLazy(String, Supplier)} are created when the list
+ * returns them for the first time.
+ * Components added with {@link #addLazy(String, ComponentType, Supplier)} are grouped
+ * by their type, so queries by types with known component class do not create them
+ * unless they match. Other queries create them to check them.
+ * </p>
  */
 public class ComponentList implements Iterable<Component>, Cloneable {
     /**
@@ -27,6 +63,25 @@ public class ComponentList implements Iterable<Component>, Cloneable {
          * Component value.
          */
         private Component component;
+        /**
+         * Position of the entry in the owning list.
+         */
+        private int index;
+        /**
+         * Whether the component belongs to the list this list was lazily cloned from and
+         * must be copied before it is returned, or was not created yet. It is changed with
+         * the lock held and read without the lock only from states without such entries.
+         */
+        private boolean pending;
+        /**
+         * Factory of the component if it was added lazily and was not created yet.
+         */
+        private Supplier<? extends Component> factory;
+        /**
+         * Type of the component if it was added lazily with its type, so it is grouped
+         * by the type instead of class of the component.
+         */
+        private ComponentType<?> type;
 
         /**
          * Default constructor that creates new entry using given name and component.
@@ -67,9 +122,73 @@ public class ComponentList implements Iterable<Component>, Cloneable {
         }
     }
 
-    private TreeSet<String> names;
-    private List<Entry> entries;
-    private Cache<String, Entry> cache;
+    /**
+     * State of the list. Flags and groups of the state never change, so they are
+     * published together with entries.
+     */
+    private static final class State {
+        final List<Entry> entries;
+        final HashMap<String, Entry> index;
+        /**
+         * Whether entries and index are shared with other list and must be copied before
+         * modification.
+         */
+        final boolean shared;
+        /**
+         * Whether components of the entries belong to the list this list was lazily cloned
+         * from, so they must be copied before they are returned.
+         */
+        final boolean borrowed;
+        /**
+         * Entries grouped by class of their components, or by type of lazily added
+         * components, in list order, or {@code null} if the state was not queried by type
+         * yet. Groups are never empty.
+         */
+        final HashMap<Object, ArrayList<Entry>> buckets;
+        /**
+         * Whether the state has no pending entries and never gets them, so components of
+         * its entries are returned without locking.
+         */
+        final boolean settled;
+        /**
+         * Number of pending entries, changed with the lock held.
+         */
+        int pending;
+        /**
+         * Number of changes of the set of groups, used by views to refresh matching groups.
+         * Published states change it only if the list modifies them in place.
+         */
+        int bucketsVersion;
+
+        State(List<Entry> entries, HashMap<String, Entry> index, boolean shared, boolean borrowed,
+              HashMap<Object, ArrayList<Entry>> buckets, int pending) {
+            this.entries = entries;
+            this.index = index;
+            this.shared = shared;
+            this.borrowed = borrowed;
+            this.buckets = buckets;
+            this.pending = pending;
+            settled = !borrowed && pending == 0;
+        }
+
+        /**
+         * Constructor that creates state with the same entries and given groups, which is
+         * published instead of the given state to change its groups or its flags.
+         *
+         * @param state current state
+         * @param buckets groups of entries
+         */
+        State(State state, HashMap<Object, ArrayList<Entry>> buckets) {
+            this(state.entries, state.index, state.shared, state.borrowed, buckets, state.pending);
+            bucketsVersion = state.bucketsVersion + (buckets != state.buckets ? 1 : 0);
+        }
+    }
+
+    /**
+     * Whether modifications publish modified copy of the state instead of changing it.
+     */
+    private final boolean concurrent;
+    private volatile State state;
 
     /**
      * Protected constructor that creates new component list using given supplier of entry list.
@@ -79,18 +198,26 @@ public class ComponentList implements Iterable<Component>, Cloneable {
      * @throws IllegalArgumentException if duplicate name is found
      */
     protected ComponentList(Supplier<List<Entry>> listSupplier) {
+        this(listSupplier, false);
+    }
+
+    private ComponentList(Supplier<List<Entry>> listSupplier, boolean concurrent) {
         Objects.requireNonNull(listSupplier, "listSupplier");
-        entries = Objects.requireNonNull(listSupplier.get(), "list");
-        names = new TreeSet<>();
-        if (!entries.isEmpty()) {
-            for (Entry entry : entries) {
-                if (names.contains(entry.getName())) {
-                    throw new IllegalArgumentException("Duplicate name '" + entry.getName() + "'");
-                }
-                names.add(entry.getName());
+        List<Entry> entries = Objects.requireNonNull(listSupplier.get(), "list");
+        HashMap<String, Entry> index = new HashMap<>(capacity(entries.size()));
+        ListIterator<Entry> iterator = entries.listIterator();
+        while (iterator.hasNext()) {
+            Entry source = iterator.next();
+            //entries may be shared with other lists, so each list keeps own copies
+            Entry entry = new Entry(source.getName(), source.getComponent());
+            entry.index = iterator.previousIndex();
+            if (index.putIfAbsent(entry.getName(), entry) != null) {
+                throw new IllegalArgumentException("Duplicate name '" + entry.getName() + "'");
             }
+            iterator.set(entry);
         }
-        cache = CacheBuilder.newBuilder().weakValues().build();
+        this.concurrent = concurrent;
+        state = new State(entries, index, false, false, null, 0);
     }
 
     /**
@@ -100,13 +227,17 @@ public class ComponentList implements Iterable<Component>, Cloneable {
         this(ArrayList::new);
     }
 
+    private static int capacity(int size) {
+        return Math.max(16, size * 4 / 3 + 1);
+    }
+
     /**
      * Method returns set of component names.
      *
      * @return set of names
      */
     public Set<String> names() {
-        return Set.copyOf(names);
+        return Set.copyOf(state.index.keySet());
     }
 
     /**
@@ -115,7 +246,7 @@ public class ComponentList implements Iterable<Component>, Cloneable {
      * @return number of components
      */
     public int size() {
-        return names.size();
+        return state.entries.size();
     }
 
     /**
@@ -127,21 +258,53 @@ public class ComponentList implements Iterable<Component>, Cloneable {
      * @throws IndexOutOfBoundsException if index is out of bounds
      */
     public Component get(int index) {
-        return entries.get(index).getComponent();
+        return component(state.entries.get(index));
     }
 
     /**
-     * Method searches entry with given name.
+     * Method returns component at given index without creating or copying it. Component
+     * that was not created yet is created by its factory but is not stored in the list,
+     * and component shared with a lazy clone is returned as is, so it must only be read.
      *
-     * @param name name of the component
-     * @return optional entry
+     * @param index index
+     * @return component at given index
      */
-    private Optional<Entry> find(String name) {
-        try {
-            return Optional.of(cache.get(name, () -> entries.stream().dropWhile(e -> !e.getName().equals(name)).findFirst().orElseThrow()));
-        } catch (ExecutionException e) {
-            return Optional.empty();
+    Component peek(int index) {
+        State s = state;
+        Entry entry = s.entries.get(index);
+        if (s.settled && !entry.pending) {
+            return entry.component;
         }
+        Supplier<? extends Component> factory;
+        synchronized (this) {
+            factory = entry.pending ? entry.factory : null;
+            if (factory == null) {
+                return entry.component;
+            }
+        }
+        return Objects.requireNonNull(factory.get(), "component");
+    }
+
+    /**
+     * Method returns name of the component at given index.
+     *
+     * @param index index
+     * @return component name
+     *
+     * @throws IndexOutOfBoundsException if index is out of bounds
+     */
+    public String name(int index) {
+        return state.entries.get(index).getName();
+    }
+
+    /**
+     * Method checks whether the list contains component with given name.
+     *
+     * @param name component name
+     * @return {@code true} if component with given name exists, {@code false} otherwise
+     */
+    public boolean contains(String name) {
+        return state.index.containsKey(name);
     }
 
     /**
@@ -153,7 +316,150 @@ public class ComponentList implements Iterable<Component>, Cloneable {
      * @throws NoSuchElementException if component with given name was not found
      */
     public Component get(String name) {
-        return find(name).orElseThrow().getComponent();
+        Entry entry = state.index.get(name);
+        if (entry == null) {
+            throw new NoSuchElementException("No component with name '" + name + "'");
+        }
+        return component(entry);
+    }
+
+    /**
+     * Method returns component of given entry. If the component was not copied yet after
+     * lazy cloning or was not created yet, it is copied or created and stored in this
+     * list first.
+     *
+     * @param entry entry of this list
+     * @return component
+     */
+    private Component component(Entry entry) {
+        //entries are changed only before state without pending entries is published
+        if (state.settled && !entry.pending) {
+            return entry.component;
+        }
+        synchronized (this) {
+            State s = state;
+            if (s.shared) {
+                s = own();
+            }
+            //entry may belong to state this list published before
+            Entry current = locate(s, entry);
+            if (current == null) {
+                return detached(entry);
+            }
+            if (current.pending) {
+                if (current.factory != null) {
+                    current.component = Objects.requireNonNull(current.factory.get(), "component");
+                    current.factory = null;
+                } else {
+                    current.component = current.component.lazyClone();
+                }
+                current.pending = false;
+                if (--s.pending == 0) {
+                    //readers that see the new state see all created components
+                    state = new State(s, s.buckets);
+                }
+            }
+            return current.component;
+        }
+    }
+
+    /**
+     * Method searches entry of the current state that corresponds to the given entry
+     * of this or previous state.
+     *
+     * @param state current state
+     * @param entry entry
+     * @return entry of the current state or {@code null} if it was removed
+     */
+    private static Entry locate(State state, Entry entry) {
+        List<Entry> entries = state.entries;
+        if (entry.index < entries.size() && entries.get(entry.index).getName().equals(entry.getName())) {
+            return entries.get(entry.index);
+        }
+        return state.index.get(entry.getName());
+    }
+
+    /**
+     * Method returns component of an entry that was removed after it was read. The
+     * component is not stored in the list.
+     *
+     * @param entry removed entry
+     * @return component
+     */
+    private static Component detached(Entry entry) {
+        if (!entry.pending) {
+            return entry.component;
+        }
+        Supplier<? extends Component> factory = entry.factory;
+        return factory != null ? Objects.requireNonNull(factory.get(), "component") : entry.component.lazyClone();
+    }
+
+    /**
+     * Method returns entries for iterating over components. Components of borrowed
+     * entries are recognized only by the state, so such entries are copied first.
+     *
+     * @return entries
+     */
+    private List<Entry> entries() {
+        State s = state;
+        if (s.borrowed) {
+            synchronized (this) {
+                s = own();
+            }
+        }
+        return s.entries;
+    }
+
+    /**
+     * Method replaces shared state with own copy and publishes it. It must be called
+     * with the lock held.
+     *
+     * @return own state
+     */
+    private State own() {
+        State s = state;
+        if (s.shared) {
+            s = copy(s);
+            state = s;
+        }
+        return s;
+    }
+
+    /**
+     * Method returns state that can be modified. Concurrent lists always modify a copy
+     * of the state, which must be published with {@link #publish(State)} when the
+     * modification is complete. It must be called with the lock held.
+     *
+     * @return state for modification
+     */
+    private State writable() {
+        State s = state;
+        return s.shared || concurrent ? copy(s) : s;
+    }
+
+    private void publish(State s) {
+        if (state != s) {
+            state = s;
+        }
+    }
+
+    private static State copy(State s) {
+        List<Entry> entries = s.entries instanceof LinkedList ? new LinkedList<>() : new ArrayList<>(s.entries.size());
+        HashMap<String, Entry> index = new HashMap<>(capacity(s.entries.size()));
+        int pending = 0;
+        for (Entry e : s.entries) {
+            Entry entry = new Entry(e.getName(), e.getComponent());
+            entry.index = e.index;
+            entry.factory = e.factory;
+            entry.type = e.type;
+            entry.pending = s.borrowed || e.pending;
+            if (entry.pending) {
+                pending++;
+            }
+            entries.add(entry);
+            index.put(entry.getName(), entry);
+        }
+        return new State(entries, index, false, false, s.buckets != null ? group(entries) : null, pending);
     }
 
     /**
@@ -164,7 +470,236 @@ public class ComponentList implements Iterable<Component>, Cloneable {
      * @param <T> component type
      */
     public <T extends Component> List<T> get(ComponentType<T> type) {
-        return entries.stream().filter(e -> type.isInstance(e.getComponent())).map(e -> type.cast(e.getComponent())).toList();
+        Objects.requireNonNull(type, "type");
+        List<ArrayList<Entry>> matching = matching(grouped().buckets, type);
+        if (matching.isEmpty()) {
+            return List.of();
+        }
+        List<Entry> entries = merge(matching);
+        List<T> result = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            result.add(type.cast(component(entry)));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Method returns read-only view of components of given type in list order. Unlike
+     * {@link #get(ComponentType)} it does not copy components, and it reflects later
+     * modifications of the list.
+     *
+     * @param type component type
+     * @return live view of components
+     * @param <T> component type
+     */
+    public <T extends Component> List<T> view(ComponentType<T> type) {
+        Objects.requireNonNull(type, "type");
+        return new TypeView<>(type);
+    }
+
+    /**
+     * Method returns state with groups of entries, creating them if necessary. Lazily
+     * added components without type are created, because they are grouped by class.
+     *
+     * @return state with groups of entries
+     */
+    private State grouped() {
+        entries();
+        State s = state;
+        if (s.buckets == null) {
+            synchronized (this) {
+                //component() may publish new state, so it is read on each step
+                for (int i = 0; i < state.entries.size(); i++) {
+                    Entry entry = state.entries.get(i);
+                    if (entry.factory != null && entry.type == null) {
+                        component(entry);
+                    }
+                }
+                s = state;
+                if (s.buckets == null) {
+                    //groups are complete before readers can see them
+                    s = new State(s, group(s.entries));
+                    state = s;
+                }
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Method groups given entries. Lazily added components without type must be created
+     * first.
+     *
+     * @param entries entries in list order
+     * @return groups of entries
+     */
+    private static HashMap<Object, ArrayList<Entry>> group(List<Entry> entries) {
+        HashMap<Object, ArrayList<Entry>> buckets = new HashMap<>();
+        for (Entry entry : entries) {
+            buckets.computeIfAbsent(group(entry), c -> new ArrayList<>()).add(entry);
+        }
+        return buckets;
+    }
+
+    /**
+     * Method returns key of the group of given entry, which is type of a lazily added
+     * component or class of the component.
+     *
+     * @param entry entry
+     * @return group key
+     */
+    private static Object group(Entry entry) {
+        return entry.type != null ? entry.type : entry.getComponent().getClass();
+    }
+
+    /**
+     * Method adds entry to its group keeping list order. It must be called after
+     * position of the entry is set.
+     *
+     * @param s modified state
+     * @param entry entry
+     */
+    private static void bucketAdd(State s, Entry entry) {
+        HashMap<Object, ArrayList<Entry>> buckets = s.buckets;
+        if (buckets == null) {
+            return;
+        }
+        Object key = group(entry);
+        ArrayList<Entry> bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            buckets.put(key, bucket);
+            s.bucketsVersion++;
+        }
+        int size = bucket.size();
+        if (size == 0 || bucket.get(size - 1).index < entry.index) {
+            bucket.add(entry);
+        } else {
+            bucket.add(-search(bucket, entry.index) - 1, entry);
+        }
+    }
+
+    /**
+     * Method removes entry from the group with given key. It must be called before
+     * positions of entries are changed.
+     *
+     * @param s modified state
+     * @param entry entry
+     * @param key key of the group of the entry
+     */
+    private static void bucketRemove(State s, Entry entry, Object key) {
+        HashMap<Object, ArrayList<Entry>> buckets = s.buckets;
+        if (buckets == null) {
+            return;
+        }
+        ArrayList<Entry> bucket = buckets.get(key);
+        bucket.remove(search(bucket, entry.index));
+        if (bucket.isEmpty()) {
+            buckets.remove(key);
+            s.bucketsVersion++;
+        }
+    }
+
+    private static int search(List<Entry> bucket, int position) {
+        int low = 0, high = bucket.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int index = bucket.get(middle).index;
+            if (index < position) {
+                low = middle + 1;
+            } else if (index > position) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Method returns groups of entries whose components are instances of given type.
+     * Groups are matched by class of their components if it is known for both the group
+     * and the type, otherwise each component of the group is checked, creating lazily
+     * added components.
+     *
+     * @param buckets groups of entries
+     * @param type component type
+     * @return matching groups
+     */
+    private List<ArrayList<Entry>> matching(HashMap<Object, ArrayList<Entry>> buckets, ComponentType<?> type) {
+        Class<?> expected = type.componentClass();
+        List<ArrayList<Entry>> matching = new ArrayList<>(1);
+        for (var bucket : buckets.entrySet()) {
+            Object key = bucket.getKey();
+            Class<?> group = componentClass(key);
+            if (key.equals(type) || expected != null && group != null && expected.isAssignableFrom(group)) {
+                matching.add(bucket.getValue());
+            } else if (expected == null || group == null) {
+                ArrayList<Entry> instances = new ArrayList<>();
+                for (Entry entry : bucket.getValue()) {
+                    if (type.isInstance(instance(entry))) {
+                        instances.add(entry);
+                    }
+                }
+                if (!instances.isEmpty()) {
+                    matching.add(instances);
+                }
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Method returns component of given entry for checking its type. Lazily added
+     * component is created, but component shared with the list this list was lazily
+     * cloned from is returned without copying.
+     *
+     * @param entry entry
+     * @return component
+     */
+    private Component instance(Entry entry) {
+        if (state.settled && !entry.pending) {
+            return entry.component;
+        }
+        synchronized (this) {
+            return entry.factory != null ? component(entry) : entry.component;
+        }
+    }
+
+    /**
+     * Method checks whether groups matching given type can be reused while the set
+     * of groups does not change, which is true if groups are matched by class.
+     *
+     * @param buckets groups of entries
+     * @param type component type
+     * @return {@code true} if matching groups depend only on keys of the groups
+     */
+    private static boolean byClass(HashMap<Object, ArrayList<Entry>> buckets, ComponentType<?> type) {
+        if (type.componentClass() == null) {
+            return false;
+        }
+        for (Object key : buckets.keySet()) {
+            if (componentClass(key) == null && !key.equals(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Class<?> componentClass(Object key) {
+        return key instanceof ComponentType<?> type ? type.componentClass() : (Class<?>) key;
+    }
+
+    private static List<Entry> merge(List<ArrayList<Entry>> matching) {
+        if (matching.size() == 1) {
+            return matching.get(0);
+        }
+        List<Entry> merged = new ArrayList<>();
+        for (ArrayList<Entry> bucket : matching) {
+            merged.addAll(bucket);
+        }
+        merged.sort(Comparator.comparingInt(e -> e.index));
+        return merged;
     }
 
     /**
@@ -179,11 +714,98 @@ public class ComponentList implements Iterable<Component>, Cloneable {
         Objects.requireNonNull(name, "name");
         Objects.requireNonNull(component, "component");
         synchronized (this) {
-            if (names.contains(name)) {
+            if (state.index.containsKey(name)) {
                 throw new IllegalArgumentException("name '" + name + "' already exists");
             }
-            names.add(name);
-            entries.add(new Entry(name, component));
+            State s = writable();
+            Entry entry = new Entry(name, component);
+            s.index.put(name, entry);
+            entry.index = s.entries.size();
+            s.entries.add(entry);
+            bucketAdd(s, entry);
+            publish(s);
+        }
+    }
+
+    /**
+     * Method adds component with given name to the end of list. Component is created
+     * with given factory when the list returns it for the first time, including queries
+     * by type, iteration and copying. Use {@link #addLazy(String, ComponentType, Supplier)}
+     * if the type of the component is known, so queries by type do not create it.
+     *
+     * @param name name
+     * @param factory factory of the component
+     *
+     * @throws IllegalArgumentException if component with given name already exists
+     */
+    public void addLazy(String name, Supplier<? extends Component> factory) {
+        Objects.requireNonNull(factory, "factory");
+        addLazy(name, null, factory);
+    }
+
+    /**
+     * Method adds component of given type with given name to the end of list. Component
+     * is created with given factory when the list returns it for the first time, like
+     * with {@link #addLazy(String, Supplier)}, but queries by given type do not create it.
+     * Factory must create components of given type.
+     *
+     * @param name name
+     * @param type type of the component
+     * @param factory factory of the component
+     *
+     * @throws IllegalArgumentException if component with given name already exists
+     */
+    public void addLazy(String name, ComponentType<?> type, Supplier<? extends Component> factory) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(factory, "factory");
+        synchronized (this) {
+            if (state.index.containsKey(name)) {
+                throw new IllegalArgumentException("name '" + name + "' already exists");
+            }
+            State s = writable();
+            Entry entry = new Entry(name, null);
+            s.index.put(name, entry);
+            entry.index = s.entries.size();
+            entry.factory = factory;
+            entry.type = type;
+            entry.pending = true;
+            s.entries.add(entry);
+            s.pending++;
+            HashMap<Object, ArrayList<Entry>> buckets = s.buckets;
+            if (type != null) {
+                bucketAdd(s, entry);
+            } else {
+                //components without type are grouped after they are created
+                buckets = null;
+            }
+            //state that was published without pending entries must never get them
+            publish(s.settled || buckets != s.buckets ? new State(s, buckets) : s);
+        }
+    }
+
+    /**
+     * Method replaces factory of the component with given name if the component was
+     * added with {@link #addLazy(String, Supplier)} and was not created yet. Copies of
+     * the list keep factories of components that were not created, so generated
+     * components use this method to bind such components to their copies.
+     *
+     * @param name name
+     * @param factory new factory of the component
+     * @return {@code true} if factory was replaced, {@code false} if the list does not
+     * contain component with given name or the component was already created
+     */
+    public boolean replaceFactory(String name, Supplier<? extends Component> factory) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(factory, "factory");
+        synchronized (this) {
+            Entry entry = state.index.get(name);
+            if (entry == null || entry.factory == null) {
+                return false;
+            }
+            State s = writable();
+            s.index.get(name).factory = factory;
+            publish(s);
+            return true;
         }
     }
 
@@ -201,10 +823,11 @@ public class ComponentList implements Iterable<Component>, Cloneable {
         Objects.requireNonNull(name, "name");
         Objects.requireNonNull(component, "component");
         synchronized (this) {
-            Entry entry = find(name).orElseThrow();
-            entry.setComponent(component);
-            cache.invalidate(name);
-            return entry.getComponent();
+            Entry entry = state.index.get(name);
+            if (entry == null) {
+                throw new NoSuchElementException("No component with name '" + name + "'");
+            }
+            return exchange(entry.index, component);
         }
     }
 
@@ -219,14 +842,39 @@ public class ComponentList implements Iterable<Component>, Cloneable {
      * @throws NoSuchPropertyException if {@code component} is {@code null}
      */
     public Component set(int index, Component component) {
-        Objects.checkIndex(index, entries.size());
         Objects.requireNonNull(component, "component");
         synchronized (this) {
-            Entry entry = entries.get(index);
-            entry.setComponent(component);
-            cache.invalidate(entry.getName());
-            return entry.getComponent();
+            Objects.checkIndex(index, state.entries.size());
+            return exchange(index, component);
+        }
+    }
+
+    /**
+     * Method sets new component of the entry at given position and moves the entry to
+     * another group if class of the component changes.
+     *
+     * @param position entry position
+     * @param component new value
+     * @return old value
+     */
+    private Component exchange(int position, Component component) {
+        Component old = component(state.entries.get(position));
+        State s = writable();
+        Entry entry = s.entries.get(position);
+        Object key = group(entry);
+        entry.setComponent(component);
+        entry.factory = null;
+        entry.type = null;
+        if (entry.pending) {
+            entry.pending = false;
+            s.pending--;
+        }
+        if (key != component.getClass()) {
+            bucketRemove(s, entry, key);
+            bucketAdd(s, entry);
         }
+        publish(settle(s));
+        return old;
     }
 
     /**
@@ -238,11 +886,9 @@ public class ComponentList implements Iterable<Component>, Cloneable {
      * @throws IndexOutOfBoundsException if index is out of bounds
      */
     public Component remove(int index) {
-        Objects.checkIndex(index, entries.size());
         synchronized (this) {
-            Entry entry = entries.remove(index);
-            cache.invalidate(entry.getName());
-            return entry.getComponent();
+            Objects.checkIndex(index, state.entries.size());
+            return unlink(index);
         }
     }
 
@@ -253,38 +899,112 @@ public class ComponentList implements Iterable<Component>, Cloneable {
      * @return removed component or {@code null} if component with given name was not found
      */
     public Component remove(String name) {
-        Entry entry;
-        try {
-            entry = find(name).orElse(null);
-        } catch (NoSuchElementException e) {
-            return null;
+        synchronized (this) {
+            //shared state is copied only if there is something to remove
+            Entry entry = state.index.get(name);
+            return entry != null ? unlink(entry.index) : null;
         }
-        if (entry != null) {
-            synchronized (this) {
-                cache.invalidate(name);
-                entries.remove(entry);
-                return entry.getComponent();
-            }
-        } else return null;
+    }
+
+    /**
+     * Method removes entry at given position from the list and the name index and
+     * updates positions of the following entries.
+     *
+     * @param position entry position
+     * @return removed component
+     */
+    private Component unlink(int position) {
+        Component component = component(state.entries.get(position));
+        State s = writable();
+        Entry entry = s.entries.get(position);
+        bucketRemove(s, entry, group(entry));
+        s.entries.remove(position);
+        s.index.remove(entry.getName());
+        if (entry.pending) {
+            s.pending--;
+        }
+        ListIterator<Entry> iterator = s.entries.listIterator(position);
+        while (iterator.hasNext()) {
+            iterator.next().index--;
+        }
+        publish(settle(s));
+        return component;
+    }
+
+    /**
+     * Method returns state that is published instead of given modified state, so readers
+     * stop locking once the last pending entry is replaced or removed.
+     *
+     * @param s modified state
+     * @return state to publish
+     */
+    private static State settle(State s) {
+        return !s.settled && !s.borrowed && s.pending == 0 ? new State(s, s.buckets) : s;
     }
 
     /**
      * Method clears the list.
      */
     public synchronized void clear() {
-        entries.clear();
-        names.clear();
-        cache.invalidateAll();
+        State s = state;
+        if (s.shared || concurrent) {
+            state = new State(s.entries instanceof LinkedList ? new LinkedList<>() : new ArrayList<>(),
+                    new HashMap<>(), false, false, null, 0);
+        } else {
+            s.entries.clear();
+            s.index.clear();
+            state = new State(s.entries, s.index, false, false, null, 0);
+        }
     }
 
     /**
-     * Method returns iterator of components in their list order.
+     * Method returns iterator of components in their list order. Iterators of lists
+     * created with {@link #concurrent(Entry...)} traverse the state published when they
+     * were created and never throw {@link ConcurrentModificationException}.
      *
      * @return iterator
      */
     @Override
     public Iterator<Component> iterator() {
-        return entries.stream().map(Entry::getComponent).iterator();
+        Iterator<Entry> iterator = entries().iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Component next() {
+                return component(iterator.next());
+            }
+        };
+    }
+
+    /**
+     * Method returns spliterator of components in their list order. Lists backed by
+     * random access storage are split by index ranges and report exact sizes, so
+     * components can be processed in parallel efficiently.
+     *
+     * @return spliterator
+     */
+    @Override
+    public Spliterator<Component> spliterator() {
+        List<Entry> entries = entries();
+        if (entries instanceof RandomAccess) {
+            return new EntrySpliterator(entries, 0, entries.size());
+        }
+        return Spliterators.spliterator(iterator(), entries.size(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Method returns sequential stream of components in their list order.
+     *
+     * @return stream of components
+     *
+     * @see ComponentTree#stream(Component) stream of the whole component tree
+     */
+    public Stream<Component> stream() {
+        return StreamSupport.stream(spliterator(), false);
     }
 
     /**
@@ -301,14 +1021,90 @@ public class ComponentList implements Iterable<Component>, Cloneable {
             //should never happen
             throw new RuntimeException(e);
         }
-        clone.names = new TreeSet<>(names);
-        clone.entries = new ArrayList<>(entries.stream()
-                .map(e -> new Entry(e.getName(), e.getComponent().clone()))
-                .toList());
-        clone.cache = CacheBuilder.newBuilder().weakValues().build();
+        State s = state;
+        List<Entry> entries = s.entries instanceof LinkedList ? new LinkedList<>() : new ArrayList<>(s.entries.size());
+        HashMap<String, Entry> index = new HashMap<>(capacity(s.entries.size()));
+        int pending = 0;
+        for (Entry e : s.entries) {
+            Entry entry;
+            if (e.factory != null) {
+                entry = new Entry(e.getName(), null);
+                entry.factory = e.factory;
+                entry.type = e.type;
+                entry.pending = true;
+                pending++;
+            } else {
+                entry = new Entry(e.getName(), e.getComponent().clone());
+            }
+            entry.index = e.index;
+            entries.add(entry);
+            index.put(entry.getName(), entry);
+        }
+        clone.state = new State(entries, index, false, false, null, pending);
+        return clone;
+    }
+
+    /**
+     * Method returns copy of the list in constant time. The copy shares entries and
+     * components with this list. Entries are copied when either of the lists is modified,
+     * and the copy copies each shared component with {@link Component#lazyClone()} when
+     * it returns it for the first time, so only accessed parts of the component tree are
+     * ever copied. This list keeps returning its own components, so references taken
+     * before cloning stay valid and changes made through the copy never affect this list.
+     * Changes of components of this list are visible in the copy until it returns them
+     * for the first time.
+     *
+     * @return lazy copy
+     */
+    public synchronized ComponentList lazyClone() {
+        ComponentList clone;
+        try {
+            clone = (ComponentList) super.clone();
+        } catch (CloneNotSupportedException e) {
+            //should never happen
+            throw new RuntimeException(e);
+        }
+        State s = state;
+        //only the copy borrows components, entries are shared by both lists
+        state = new State(s.entries, s.index, true, s.borrowed, s.buckets, s.pending);
+        clone.state = new State(s.entries, s.index, true, true, null, 0);
         return clone;
     }
 
+    /**
+     * Method copies components of this list to given list of a detached component.
+     * Components of the same type are copied into the components the list already has,
+     * because generated components keep them in fields, other components are replaced
+     * with copies. Components of this list are only read, so they are not created or
+     * copied if they are lazy.
+     *
+     * @param into children of the detached component
+     */
+    void copyInto(ComponentList into) {
+        for (String name : into.names()) {
+            if (!contains(name)) {
+                into.remove(name);
+            }
+        }
+        for (int i = 0; i < size(); i++) {
+            String name = name(i);
+            Component child = peek(i);
+            Component existing = into.contains(name) ? into.get(name) : null;
+            if (existing == null) {
+                into.add(name, child.clone());
+            } else if (existing.type().equals(child.type())) {
+                for (String property : child.type().properties()) {
+                    if (existing.property(property).map(p -> !p.isReadOnly()).orElse(false)) {
+                        existing.set(property, child.get(property));
+                    }
+                }
+                child.children().copyInto(existing.children());
+            } else {
+                into.replace(name, child.clone());
+            }
+        }
+    }
+
     /**
      * Method creates new entry with given name and component.
      *
@@ -361,6 +1157,23 @@ public class ComponentList implements Iterable<Component>, Cloneable {
         return new ComponentList(() -> new ArrayList<>(Arrays.asList(entries)));
     }
 
+    /**
+     * Method creates new list for read-mostly workloads shared between threads. Readers
+     * see a consistent state of the list without locking, unless it has lazily added
+     * components that were not created yet, while writers are serialized and publish
+     * modified copy of the state, so each modification takes time proportional to the
+     * size of the list. Iterators never throw
+     * {@link ConcurrentModificationException}. Copies of the list are concurrent too.
+     *
+     * @param entries array of entries
+     * @return new concurrent list
+     *
+     * @throws IllegalArgumentException if any duplicate name was found
+     */
+    public static ComponentList concurrent(Entry... entries) {
+        return new ComponentList(() -> new ArrayList<>(Arrays.asList(entries)), true);
+    }
+
     /**
      * Method creates new linked list from given entries.
      *
@@ -372,4 +1185,114 @@ public class ComponentList implements Iterable<Component>, Cloneable {
     public static ComponentList ofLinked(Entry... entries) {
         return new ComponentList(() -> new LinkedList<>(Arrays.asList(entries)));
     }
+
+    private final class TypeView<T extends Component> extends AbstractList<T> {
+        private final ComponentType<T> type;
+        private HashMap<Object, ArrayList<Entry>> source;
+        private int version;
+        private List<ArrayList<Entry>> matching;
+
+        TypeView(ComponentType<T> type) {
+            this.type = type;
+        }
+
+        private List<ArrayList<Entry>> matching() {
+            State s = grouped();
+            HashMap<Object, ArrayList<Entry>> buckets = s.buckets;
+            //groups matched by checking components are copies, so they are not reused
+            if (buckets != source || version != s.bucketsVersion || !byClass(buckets, type)) {
+                matching = ComponentList.this.matching(buckets, type);
+                source = buckets;
+                version = s.bucketsVersion;
+            }
+            return matching;
+        }
+
+        @Override
+        public T get(int index) {
+            List<ArrayList<Entry>> matching = matching();
+            if (matching.size() == 1) {
+                return type.cast(component(matching.get(0).get(index)));
+            }
+            return type.cast(component(merge(matching).get(index)));
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (ArrayList<Entry> bucket : matching()) {
+                size += bucket.size();
+            }
+            return size;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            List<ArrayList<Entry>> matching = matching();
+            if (matching.isEmpty()) {
+                return Collections.emptyIterator();
+            }
+            Iterator<Entry> iterator = merge(matching).iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    return type.cast(component(iterator.next()));
+                }
+            };
+        }
+    }
+
+    private final class EntrySpliterator implements Spliterator<Component> {
+        private final List<Entry> entries;
+        private int origin;
+        private final int fence;
+
+        EntrySpliterator(List<Entry> entries, int origin, int fence) {
+            this.entries = entries;
+            this.origin = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Component> action) {
+            if (origin >= fence) {
+                return false;
+            }
+            action.accept(component(entries.get(origin++)));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Component> action) {
+            for (; origin < fence; origin++) {
+                action.accept(component(entries.get(origin)));
+            }
+        }
+
+        @Override
+        public Spliterator<Component> trySplit() {
+            int middle = (origin + fence) >>> 1;
+            if (middle <= origin) {
+                return null;
+            }
+            Spliterator<Component> prefix = new EntrySpliterator(entries, origin, middle);
+            origin = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - origin;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | SIZED | SUBSIZED;
+        }
+    }
 }
@@ -0,0 +1,20 @@
+package io.github.systemfalse.jcomp;
+
+import java.util.Set;
+
+/**
+ * This interface represents listener of component changes registered with
+ * {@link ChangeDispatcher}. Listener is notified once per flush with names of all
+ * properties that were set since the previous flush.
+ */
+@FunctionalInterface
+public interface ComponentListener {
+    /**
+     * Method is called when properties of the component were changed since the
+     * previous flush.
+     *
+     * @param component changed component
+     * @param properties names of changed properties in order of their first change
+     */
+    void changed(Component component, Set<String> properties);
+}
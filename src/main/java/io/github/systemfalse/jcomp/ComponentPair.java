@@ -0,0 +1,184 @@
+package io.github.systemfalse.jcomp;
+
+import io.github.systemfalse.jcomp.spi.IndexedComponent;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * Class represents source component paired with its mapped target. {@link #sync()}
+ * copies to the target only properties that were changed in the source since the
+ * previous sync.
+ * <p>
+ * If the source can be observed (see {@link Component#observe(ChangeObserver)}),
+ * pair marks properties set through the source and sync visits only them. Generated
+ * components also count actions, which may assign fields directly, so sync copies
+ * all properties after an action was performed. Fields assigned by other code of the
+ * source definition are not noticed in this mode, so {@link #syncAll()} must be used
+ * after such changes. Otherwise sync compares source values with values copied by the
+ * previous sync and writes only changed ones.
+ * </p>
+ * <p>
+ * Properties may be set from any thread, but sync must not be called concurrently.
+ * </p>
+ *
+ * @param <C1> source type
+ * @param <C2> target type
+ * @see Mapper#pair(Component, Component)
+ */
+public final class ComponentPair<C1 extends Component, C2 extends Component> implements AutoCloseable {
+    private static final Object UNKNOWN = new Object();
+
+    private final C1 source;
+    private final C2 target;
+    private final MappingPlan plan;
+    private ChangeObserver observer;
+    private BitSet dirty, spare;
+    private Object[] last;
+    /**
+     * Source whose property version is checked by sync. Every notified change bumps the
+     * version once, so the version differing from the number of notifications means that
+     * some fields were changed without notification.
+     */
+    private IndexedComponent versioned;
+    private long version, notified;
+
+    ComponentPair(C1 source, C2 target, MappingPlan plan) {
+        this.source = source;
+        this.target = target;
+        this.plan = plan;
+        int size = plan.size();
+        dirty = new BitSet(size);
+        spare = new BitSet(size);
+        dirty.set(0, size);
+        ChangeObserver observer = (s, property) -> mark(property);
+        try {
+            source.observe(observer);
+            this.observer = observer;
+        } catch (UnsupportedOperationException e) {
+            dirty = spare = null;
+            last = new Object[size];
+            Arrays.fill(last, UNKNOWN);
+            return;
+        }
+        if (source instanceof IndexedComponent indexed && indexed.propertyVersion() >= 0) {
+            versioned = indexed;
+            version = indexed.propertyVersion();
+        }
+    }
+
+    /**
+     * Method returns source component.
+     *
+     * @return source
+     */
+    public C1 source() {
+        return source;
+    }
+
+    /**
+     * Method returns target component.
+     *
+     * @return target
+     */
+    public C2 target() {
+        return target;
+    }
+
+    /**
+     * Method returns whether changes of the source are observed, so sync visits only
+     * changed properties.
+     *
+     * @return {@code true} if source is observed, {@code false} if sync compares values
+     */
+    public boolean isObserved() {
+        return observer != null;
+    }
+
+    private synchronized void mark(String property) {
+        notified++;
+        int position = plan.indexOf(property);
+        if (position >= 0) {
+            dirty.set(position);
+        }
+    }
+
+    /**
+     * Method copies properties changed since the previous sync from the source to the target.
+     *
+     * @return number of copied properties
+     */
+    public int sync() {
+        if (observer == null) {
+            int copied = 0;
+            for (int i = 0; i < last.length; i++) {
+                Object value = plan.read(source, i);
+                if (!Objects.equals(value, last[i])) {
+                    plan.write(target, i, value);
+                    last[i] = value;
+                    copied++;
+                }
+            }
+            return copied;
+        }
+        BitSet changed;
+        synchronized (this) {
+            if (versioned != null) {
+                long current = versioned.propertyVersion();
+                if (current != version + notified) {
+                    dirty.set(0, plan.size());
+                }
+                version = current;
+                notified = 0;
+            }
+            if (dirty.isEmpty()) {
+                return 0;
+            }
+            changed = dirty;
+            dirty = spare;
+        }
+        int copied = 0;
+        for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+            plan.write(target, i, plan.read(source, i));
+            copied++;
+        }
+        changed.clear();
+        spare = changed;
+        return copied;
+    }
+
+    /**
+     * Method copies all mapped properties from the source to the target.
+     *
+     * @return number of copied properties
+     */
+    public int syncAll() {
+        if (observer != null) {
+            synchronized (this) {
+                dirty.set(0, plan.size());
+            }
+        } else {
+            Arrays.fill(last, UNKNOWN);
+        }
+        return sync();
+    }
+
+    /**
+     * Method stops observing the source. Pair can still be synced, but it compares
+     * values of all properties and the next sync copies all of them. This method must
+     * not be called concurrently with sync.
+     */
+    @Override
+    public synchronized void close() {
+        if (observer == null) {
+            return;
+        }
+        source.unobserve(observer);
+        observer = null;
+        versioned = null;
+        dirty = spare = null;
+        last = new Object[plan.size()];
+        Arrays.fill(last, UNKNOWN);
+    }
+}
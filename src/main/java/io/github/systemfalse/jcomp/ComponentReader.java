@@ -0,0 +1,491 @@
+package io.github.systemfalse.jcomp;
+
+import io.github.systemfalse.jcomp.spi.IndexedComponent;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Class reads components and component lists written by {@link ComponentWriter}.
+ * <p>
+ * Component types are resolved by their {@link ComponentType#getTypeName() names}
+ * once per stream, and components are created with {@link ComponentType#initialize()}.
+ * Properties unknown to the resolved type are skipped. Children that the created
+ * component already has, for example children declared with
+ * {@link io.github.systemfalse.jcomp.annotations.ChildRef}, are read into the existing
+ * instances if their types match, so references to them stay valid. Children that
+ * were not written are removed.
+ * </p>
+ * <p>
+ * Values that were written with Java serialization are deserialized only if the
+ * {@link #setSerialFilter(ObjectInputFilter) serial filter} accepts their classes. By
+ * default it is the JVM-wide filter (see {@link ObjectInputFilter.Config#getSerialFilter()}),
+ * and if there is none, all serialized values are rejected. Components nested deeper
+ * than the writer allows are rejected as well.
+ * </p>
+ * <p>
+ * Reader decodes from a fixed-size buffer that is refilled from the channel, so
+ * streams of any size are read without loading them into memory. Arrays sized by
+ * lengths from the stream grow while their elements are read, so a corrupted or
+ * malicious length fails with {@link EOFException} instead of allocating memory for it.
+ * </p>
+ */
+public final class ComponentReader implements Closeable {
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    /**
+     * Maximal number of elements allocated in advance for a length read from the stream.
+     */
+    private static final int PREALLOCATED = 1024;
+
+    private final ReadableByteChannel channel;
+    private ByteBuffer buffer;
+    private final Function<String, ComponentType<?>> resolver;
+    private final List<Schema> schemas = new ArrayList<>();
+    private final String[][] types;
+    private final Map<String, Integer> typeIds;
+    private boolean started;
+    private ObjectInputFilter filter;
+    private int depth;
+
+    private static final class Schema {
+        final ComponentType<?> type;
+        final String[] names;
+        final boolean[] known;
+        int[] slots;
+
+        Schema(ComponentType<?> type, String[] names) {
+            this.type = type;
+            this.names = names;
+            known = new boolean[names.length];
+            Set<String> properties = type.properties();
+            for (int i = 0; i < names.length; i++) {
+                known[i] = properties.contains(names[i]);
+            }
+        }
+    }
+
+    /**
+     * Constructor creates new reader that resolves component types from given array.
+     *
+     * @param channel source channel
+     * @param types component types that may be found in the stream
+     */
+    public ComponentReader(ReadableByteChannel channel, ComponentType<?>... types) {
+        this(channel, registry(types));
+    }
+
+    /**
+     * Constructor creates new reader that resolves component types with given function.
+     * Function must return {@code null} for unknown type names.
+     *
+     * @param channel source channel
+     * @param resolver function that returns component type by its name
+     */
+    public ComponentReader(ReadableByteChannel channel, Function<String, ComponentType<?>> resolver) {
+        this.channel = Objects.requireNonNull(channel, "channel");
+        this.resolver = Objects.requireNonNull(resolver, "resolver");
+        buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+        buffer.limit(0);
+        types = null;
+        typeIds = null;
+        filter = defaultFilter();
+    }
+
+    /**
+     * Constructor creates reader that decodes components from given buffer without header.
+     * Types are taken from given table written by {@code ComponentWriter.writeTypes()}, so
+     * components can be decoded in any order.
+     */
+    ComponentReader(ByteBuffer source, Function<String, ComponentType<?>> resolver, String[][] types) {
+        channel = null;
+        buffer = source;
+        this.resolver = resolver;
+        this.types = types;
+        typeIds = new HashMap<>();
+        for (int i = 0; i < types.length; i++) {
+            typeIds.put(types[i][0], i);
+            schemas.add(null);
+        }
+        started = true;
+        filter = defaultFilter();
+    }
+
+    private static ObjectInputFilter defaultFilter() {
+        ObjectInputFilter filter = ObjectInputFilter.Config.getSerialFilter();
+        return filter != null ? filter : info -> info.serialClass() != null
+                ? ObjectInputFilter.Status.REJECTED : ObjectInputFilter.Status.UNDECIDED;
+    }
+
+    void reset(ByteBuffer source) {
+        buffer = source;
+    }
+
+    Component readEntry() throws IOException {
+        return readComponent(null);
+    }
+
+    String[][] readTypes() throws IOException {
+        int size = readVarInt();
+        List<String[]> table = new ArrayList<>(Math.min(size, PREALLOCATED));
+        for (int i = 0; i < size; i++) {
+            String typeName = readString();
+            table.add(readStrings(typeName));
+        }
+        return table.toArray(String[][]::new);
+    }
+
+    /**
+     * Method reads count and strings. Count comes from the stream, so arrays are not
+     * allocated for it in advance and grow only with strings that were actually read.
+     *
+     * @param first first element of the result or {@code null} if there is none
+     * @return read strings
+     */
+    private String[] readStrings(String first) throws IOException {
+        int count = readVarInt();
+        List<String> strings = new ArrayList<>(Math.min(count, PREALLOCATED) + 1);
+        if (first != null) {
+            strings.add(first);
+        }
+        for (int i = 0; i < count; i++) {
+            strings.add(readString());
+        }
+        return strings.toArray(String[]::new);
+    }
+
+    /**
+     * Method creates new reader that reads from given stream.
+     *
+     * @param stream source stream
+     * @param types component types that may be found in the stream
+     * @return new reader
+     */
+    public static ComponentReader of(InputStream stream, ComponentType<?>... types) {
+        return new ComponentReader(Channels.newChannel(Objects.requireNonNull(stream, "stream")), types);
+    }
+
+    static Function<String, ComponentType<?>> registry(ComponentType<?>... types) {
+        Map<String, ComponentType<?>> map = new HashMap<>();
+        for (ComponentType<?> type : types) {
+            map.put(type.getTypeName(), type);
+        }
+        return map::get;
+    }
+
+    /**
+     * Method sets filter that checks classes of values written with Java serialization.
+     * Filter is used for every serialized value read after this call.
+     *
+     * @param filter serial filter
+     */
+    public void setSerialFilter(ObjectInputFilter filter) {
+        this.filter = Objects.requireNonNull(filter, "filter");
+    }
+
+    /**
+     * Method checks whether the stream has more records.
+     *
+     * @return {@code true} if another component or list can be read
+     * @throws IOException if an I/O error occurs
+     */
+    public boolean hasNext() throws IOException {
+        if (!started && !fill(1)) {
+            return false;
+        }
+        start();
+        return fill(1);
+    }
+
+    /**
+     * Method reads next record that must be a component.
+     *
+     * @return component
+     * @throws IOException if an I/O error occurs, the stream is corrupted or next record is not a component
+     */
+    public Component readComponent() throws IOException {
+        record(BinaryFormat.RECORD_COMPONENT);
+        return readComponent(null);
+    }
+
+    /**
+     * Method reads next record that must be a component list.
+     *
+     * @return component list
+     * @throws IOException if an I/O error occurs, the stream is corrupted or next record is not a list
+     */
+    public ComponentList readList() throws IOException {
+        record(BinaryFormat.RECORD_LIST);
+        ComponentList list = new ComponentList();
+        readList(list);
+        return list;
+    }
+
+    /**
+     * Method closes the channel.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void start() throws IOException {
+        if (!started) {
+            started = true;
+            ensure(5);
+            if (buffer.getInt() != BinaryFormat.MAGIC) {
+                throw new StreamCorruptedException("not a component stream");
+            }
+            byte version = buffer.get();
+            if (version != BinaryFormat.VERSION) {
+                throw new StreamCorruptedException("unsupported version " + version);
+            }
+        }
+    }
+
+    private void record(byte expected) throws IOException {
+        start();
+        byte record = readByte();
+        if (record != expected) {
+            throw new StreamCorruptedException("unexpected record " + record);
+        }
+    }
+
+    private Component readComponent(Component into) throws IOException {
+        if (depth == BinaryFormat.MAX_DEPTH) {
+            throw new StreamCorruptedException("components are nested deeper than " + BinaryFormat.MAX_DEPTH);
+        }
+        depth++;
+        try {
+            return readFields(into);
+        } finally {
+            depth--;
+        }
+    }
+
+    private Component readFields(Component into) throws IOException {
+        int reference = readVarInt();
+        Schema schema;
+        if (reference == 0) {
+            String typeName = readString();
+            String[] names = readStrings(null);
+            if (typeIds != null) {
+                Integer id = typeIds.get(typeName);
+                if (id == null) {
+                    throw new StreamCorruptedException("type " + typeName + " is missing in type table");
+                }
+                schema = schema(id);
+            } else {
+                schema = new Schema(resolve(typeName), names);
+                schemas.add(schema);
+            }
+        } else if (reference <= schemas.size()) {
+            schema = types != null ? schema(reference - 1) : schemas.get(reference - 1);
+        } else {
+            throw new StreamCorruptedException("unknown type reference " + reference);
+        }
+
+        Component component = into != null && schema.type.equals(into.type()) ? into : schema.type.initialize().get();
+        String[] names = schema.names;
+        if (schema.slots == null && component instanceof IndexedComponent indexed) {
+            int[] slots = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                slots[i] = schema.known[i] ? indexed.slot(names[i]) : -1;
+            }
+            schema.slots = slots;
+        }
+        if (schema.slots != null && component instanceof IndexedComponent indexed) {
+            for (int slot : schema.slots) {
+                Object value = readValue();
+                if (slot >= 0) {
+                    indexed.set(slot, value);
+                }
+            }
+        } else {
+            for (int i = 0; i < names.length; i++) {
+                Object value = readValue();
+                if (schema.known[i]) {
+                    component.set(names[i], value);
+                }
+            }
+        }
+        readList(component.children());
+        return component;
+    }
+
+    private ComponentType<?> resolve(String typeName) throws IOException {
+        ComponentType<?> type = resolver.apply(typeName);
+        if (type == null) {
+            throw new InvalidClassException(typeName, "unknown component type");
+        }
+        return type;
+    }
+
+    private Schema schema(int id) throws IOException {
+        Schema schema = schemas.get(id);
+        if (schema == null) {
+            String[] row = types[id];
+            schema = new Schema(resolve(row[0]), Arrays.copyOfRange(row, 1, row.length));
+            schemas.set(id, schema);
+        }
+        return schema;
+    }
+
+    private void readList(ComponentList list) throws IOException {
+        int size = readVarInt();
+        Set<String> read = list.size() > 0 ? new HashSet<>() : null;
+        for (int i = 0; i < size; i++) {
+            String name = readString();
+            Component existing = list.contains(name) ? list.get(name) : null;
+            Component child = readComponent(existing);
+            if (existing == null) {
+                list.add(name, child);
+            } else if (child != existing) {
+                list.replace(name, child);
+            }
+            if (read != null) {
+                read.add(name);
+            }
+        }
+        if (read != null && read.size() < list.size()) {
+            for (String name : list.names()) {
+                if (!read.contains(name)) {
+                    list.remove(name);
+                }
+            }
+        }
+    }
+
+    private Object readValue() throws IOException {
+        byte tag = readByte();
+        return switch (tag) {
+            case BinaryFormat.NULL -> null;
+            case BinaryFormat.FALSE -> Boolean.FALSE;
+            case BinaryFormat.TRUE -> Boolean.TRUE;
+            case BinaryFormat.BYTE -> readByte();
+            case BinaryFormat.SHORT -> {
+                ensure(2);
+                yield buffer.getShort();
+            }
+            case BinaryFormat.CHAR -> {
+                ensure(2);
+                yield buffer.getChar();
+            }
+            case BinaryFormat.INT -> (int) BinaryFormat.unZigZag(readVarLong());
+            case BinaryFormat.LONG -> BinaryFormat.unZigZag(readVarLong());
+            case BinaryFormat.FLOAT -> {
+                ensure(4);
+                yield buffer.getFloat();
+            }
+            case BinaryFormat.DOUBLE -> {
+                ensure(8);
+                yield buffer.getDouble();
+            }
+            case BinaryFormat.STRING -> readString();
+            case BinaryFormat.BYTES -> readBytes();
+            case BinaryFormat.COMPONENT -> readComponent(null);
+            case BinaryFormat.SERIALIZED -> {
+                try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(readBytes()))) {
+                    stream.setObjectInputFilter(filter);
+                    yield stream.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new InvalidClassException(e.getMessage());
+                }
+            }
+            default -> throw new StreamCorruptedException("unknown value tag " + tag);
+        };
+    }
+
+    private String readString() throws IOException {
+        int length = readVarInt();
+        if (length <= buffer.capacity() && buffer.hasArray()) {
+            ensure(length);
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+        return new String(readBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private byte[] readBytes() throws IOException {
+        return readBytes(readVarInt());
+    }
+
+    private byte[] readBytes(int length) throws IOException {
+        //length comes from the stream, so the array grows with bytes that were actually read
+        byte[] bytes = new byte[Math.min(length, Math.max(buffer.capacity(), PREALLOCATED))];
+        int offset = 0;
+        while (offset < length) {
+            if (!buffer.hasRemaining()) {
+                ensure(1);
+            }
+            if (offset == bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+            }
+            int chunk = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.get(bytes, offset, chunk);
+            offset += chunk;
+        }
+        return bytes;
+    }
+
+    private byte readByte() throws IOException {
+        ensure(1);
+        return buffer.get();
+    }
+
+    private int readVarInt() throws IOException {
+        long value = readVarLong();
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new StreamCorruptedException("invalid length " + value);
+        }
+        return (int) value;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("malformed variable-length number");
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (!fill(bytes)) {
+            throw new EOFException();
+        }
+    }
+
+    private boolean fill(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return true;
+        }
+        if (channel == null) {
+            return false;
+        }
+        buffer.compact();
+        try {
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) {
+                    return false;
+                }
+            }
+        } finally {
+            buffer.flip();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,610 @@
+package io.github.systemfalse.jcomp;
+
+import io.github.systemfalse.jcomp.internal.SimpleProperty;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Class stores components of one type column by column. Each property has its own
+ * array, so {@code int}, {@code long}, {@code double} and {@code boolean} properties
+ * are kept in primitive arrays and other properties in reference arrays. Components
+ * of the table are {@link Row rows}, which are lightweight views of a row index and
+ * do not hold any values themselves.
+ * <p>
+ * Column arrays are returned directly by methods like {@link #intColumn(String)}, so a
+ * scan over one property is a plain loop over an array, which is much faster than
+ * reading the property of every component and can be vectorized by the JIT compiler.
+ * Only first {@link #size()} elements of a column are rows, and columns are replaced
+ * with bigger arrays when rows are added.
+ * </p>
+ * <p>
+ * Default values, read-only flags and children of new rows are taken from a component
+ * created by {@link ComponentType#initialize() initializer} of the table type. Rows
+ * do not have actions, can not be observed and do not track versions of their
+ * properties, so memoized mappings of their properties convert values on every read.
+ * Table is not thread-safe.
+ * </p>
+ * <p>
+ * Rows report the table type as their {@link Row#type() type}, but they are not
+ * instances of it: {@link ComponentType#isInstance(Component)} returns {@code false}
+ * for them and {@link ComponentType#cast(Component)} throws {@code ClassCastException},
+ * so they are not returned by {@link ComponentList#get(ComponentType)} and can not be
+ * mapped by mappers of the type. {@link Row#clone()} returns detached component of the
+ * table type with values of the row, which can be used instead.
+ * </p>
+ *
+ * @param <C> type of components
+ */
+public final class ComponentTable<C extends Component> implements Iterable<ComponentTable.Row> {
+    private static final byte OBJECT = 0, INT = 1, LONG = 2, DOUBLE = 3, BOOLEAN = 4;
+
+    private final ComponentType<C> type;
+    private final C prototype;
+    private final String[] names;
+    private final PropertyKey<?>[] keys;
+    private final Class<?>[] types;
+    private final byte[] kinds;
+    private final boolean[] readOnly;
+    private final Map<String, Integer> indices;
+    private final Object[] columns;
+    private final BitSet[] nulls;
+    private ComponentList[] children;
+    private int size;
+    private int capacity;
+
+    /**
+     * Public constructor creates new empty table for components of given type.
+     *
+     * @param type component type
+     */
+    public ComponentTable(ComponentType<C> type) {
+        this(type, 16);
+    }
+
+    /**
+     * Public constructor creates new empty table for components of given type with
+     * space for given number of rows.
+     *
+     * @param type component type
+     * @param capacity initial number of rows
+     *
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public ComponentTable(ComponentType<C> type, int capacity) {
+        this.type = Objects.requireNonNull(type, "type");
+        if (capacity < 0) {
+            throw new IllegalArgumentException("negative capacity");
+        }
+        prototype = type.initialize().get();
+        names = type.properties().toArray(String[]::new);
+        keys = new PropertyKey<?>[names.length];
+        types = new Class<?>[names.length];
+        kinds = new byte[names.length];
+        readOnly = new boolean[names.length];
+        indices = new HashMap<>(Math.max(16, names.length * 4 / 3 + 1));
+        columns = new Object[names.length];
+        nulls = new BitSet[names.length];
+        this.capacity = capacity;
+        for (int i = 0; i < names.length; i++) {
+            Property<?> property = prototype.property(names[i]).orElseThrow(() ->
+                    new IllegalArgumentException("prototype does not have declared property"));
+            keys[i] = type.key(names[i]).orElse(null);
+            types[i] = keys[i] != null && keys[i].type() != Object.class ? keys[i].type() : property.type();
+            kinds[i] = kind(types[i]);
+            readOnly[i] = property.isReadOnly();
+            indices.put(names[i], i);
+            columns[i] = allocate(kinds[i], capacity);
+        }
+    }
+
+    private static byte kind(Class<?> type) {
+        if (type == Integer.class || type == int.class) {
+            return INT;
+        } else if (type == Long.class || type == long.class) {
+            return LONG;
+        } else if (type == Double.class || type == double.class) {
+            return DOUBLE;
+        } else if (type == Boolean.class || type == boolean.class) {
+            return BOOLEAN;
+        }
+        return OBJECT;
+    }
+
+    private static Object allocate(byte kind, int length) {
+        return switch (kind) {
+            case INT -> new int[length];
+            case LONG -> new long[length];
+            case DOUBLE -> new double[length];
+            case BOOLEAN -> new boolean[length];
+            default -> new Object[length];
+        };
+    }
+
+    private static Object grow(byte kind, Object column, int length) {
+        return switch (kind) {
+            case INT -> Arrays.copyOf((int[]) column, length);
+            case LONG -> Arrays.copyOf((long[]) column, length);
+            case DOUBLE -> Arrays.copyOf((double[]) column, length);
+            case BOOLEAN -> Arrays.copyOf((boolean[]) column, length);
+            default -> Arrays.copyOf((Object[]) column, length);
+        };
+    }
+
+    /**
+     * Method returns type of table components.
+     *
+     * @return component type
+     */
+    public ComponentType<C> type() {
+        return type;
+    }
+
+    /**
+     * Method returns names of table columns, which are the properties of the table type.
+     *
+     * @return list of property names
+     */
+    public List<String> properties() {
+        return List.of(names);
+    }
+
+    /**
+     * Method returns number of rows.
+     *
+     * @return number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Method appends new row with default values of the table type.
+     *
+     * @return added row
+     */
+    public Row add() {
+        int row = append();
+        for (int i = 0; i < names.length; i++) {
+            write(row, i, prototype.get(names[i]));
+        }
+        return new Row(this, row);
+    }
+
+    /**
+     * Method appends new row with property values and children of given component.
+     * Values are copied, so later changes of the component do not affect the table.
+     *
+     * @param component component
+     * @return added row
+     */
+    public Row add(C component) {
+        Objects.requireNonNull(component, "component");
+        int row = append();
+        for (int i = 0; i < names.length; i++) {
+            write(row, i, keys[i] != null ? component.get(keys[i]) : component.get(names[i]));
+        }
+        if (component.children().size() > 0) {
+            children()[row] = component.children().clone();
+        }
+        return new Row(this, row);
+    }
+
+    /**
+     * Method appends rows with property values and children of given components.
+     *
+     * @param components components
+     */
+    public void addAll(Collection<? extends C> components) {
+        reserve(size + components.size());
+        for (C component : components) {
+            add(component);
+        }
+    }
+
+    private int append() {
+        if (size == capacity) {
+            reserve(Math.max(16, capacity + (capacity >> 1)));
+        }
+        return size++;
+    }
+
+    private void reserve(int rows) {
+        if (rows <= capacity) {
+            return;
+        }
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = grow(kinds[i], columns[i], rows);
+        }
+        if (children != null) {
+            children = Arrays.copyOf(children, rows);
+        }
+        capacity = rows;
+    }
+
+    private ComponentList[] children() {
+        if (children == null) {
+            children = new ComponentList[capacity];
+        }
+        return children;
+    }
+
+    /**
+     * Method removes all rows. Rows returned before are no longer valid.
+     */
+    public void clear() {
+        for (int i = 0; i < columns.length; i++) {
+            if (kinds[i] == OBJECT) {
+                Arrays.fill((Object[]) columns[i], 0, size, null);
+            }
+            if (nulls[i] != null) {
+                nulls[i].clear();
+            }
+        }
+        if (children != null) {
+            Arrays.fill(children, 0, size, null);
+        }
+        size = 0;
+    }
+
+    /**
+     * Method returns row at given index. Rows are views, so each call returns new
+     * object that reads and writes the same values.
+     *
+     * @param index index of the row
+     * @return row
+     *
+     * @throws IndexOutOfBoundsException if index is out of bounds
+     */
+    public Row row(int index) {
+        Objects.checkIndex(index, size);
+        return new Row(this, index);
+    }
+
+    /**
+     * Method creates detached component of the table type with property values and
+     * children of the row at given index. Read-only properties keep values set by the
+     * initializer.
+     *
+     * @param index index of the row
+     * @return new component
+     *
+     * @throws IndexOutOfBoundsException if index is out of bounds
+     */
+    public C materialize(int index) {
+        Objects.checkIndex(index, size);
+        Initializer<C> initializer = type.initialize();
+        for (int i = 0; i < names.length; i++) {
+            if (!readOnly[i]) {
+                initializer.set(names[i], read(index, i));
+            }
+        }
+        C component = initializer.get();
+        if (children != null && children[index] != null) {
+            children[index].copyInto(component.children());
+        }
+        return component;
+    }
+
+    @Override
+    public Iterator<Row> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Row next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return new Row(ComponentTable.this, next++);
+            }
+        };
+    }
+
+    /**
+     * Method returns column of an {@code int} property. Array is the storage of the
+     * table and is valid until next row is added.
+     *
+     * @param property name of the property
+     * @return column array, which may be longer than number of rows
+     *
+     * @throws NoSuchElementException if table does not have the property
+     * @throws ClassCastException if property is not stored in {@code int} array
+     */
+    public int[] intColumn(String property) {
+        return (int[]) columns[column(property)];
+    }
+
+    /**
+     * Method returns column of a {@code long} property. Array is the storage of the
+     * table and is valid until next row is added.
+     *
+     * @param property name of the property
+     * @return column array, which may be longer than number of rows
+     *
+     * @throws NoSuchElementException if table does not have the property
+     * @throws ClassCastException if property is not stored in {@code long} array
+     */
+    public long[] longColumn(String property) {
+        return (long[]) columns[column(property)];
+    }
+
+    /**
+     * Method returns column of a {@code double} property. Array is the storage of the
+     * table and is valid until next row is added.
+     *
+     * @param property name of the property
+     * @return column array, which may be longer than number of rows
+     *
+     * @throws NoSuchElementException if table does not have the property
+     * @throws ClassCastException if property is not stored in {@code double} array
+     */
+    public double[] doubleColumn(String property) {
+        return (double[]) columns[column(property)];
+    }
+
+    /**
+     * Method returns column of a {@code boolean} property. Array is the storage of the
+     * table and is valid until next row is added.
+     *
+     * @param property name of the property
+     * @return column array, which may be longer than number of rows
+     *
+     * @throws NoSuchElementException if table does not have the property
+     * @throws ClassCastException if property is not stored in {@code boolean} array
+     */
+    public boolean[] booleanColumn(String property) {
+        return (boolean[]) columns[column(property)];
+    }
+
+    /**
+     * Method returns column of a property that is not stored in primitive array.
+     * Array is the storage of the table and is valid until next row is added.
+     *
+     * @param property name of the property
+     * @return column array, which may be longer than number of rows
+     *
+     * @throws NoSuchElementException if table does not have the property
+     * @throws ClassCastException if property is stored in primitive array
+     */
+    public Object[] objectColumn(String property) {
+        return (Object[]) columns[column(property)];
+    }
+
+    private int column(String property) {
+        Integer column = indices.get(property);
+        if (column == null) {
+            throw new NoSuchElementException("No column '" + property + "'");
+        }
+        return column;
+    }
+
+    private Object read(int row, int column) {
+        BitSet nulls = this.nulls[column];
+        if (nulls != null && nulls.get(row)) {
+            return null;
+        }
+        Object array = columns[column];
+        return switch (kinds[column]) {
+            case INT -> ((int[]) array)[row];
+            case LONG -> ((long[]) array)[row];
+            case DOUBLE -> ((double[]) array)[row];
+            case BOOLEAN -> ((boolean[]) array)[row];
+            default -> ((Object[]) array)[row];
+        };
+    }
+
+    private void write(int row, int column, Object value) {
+        Object array = columns[column];
+        byte kind = kinds[column];
+        if (kind == OBJECT) {
+            ((Object[]) array)[row] = types[column].cast(value);
+            return;
+        }
+        //primitive columns of boxed properties remember nulls separately
+        if (value == null) {
+            if (nulls[column] == null) {
+                nulls[column] = new BitSet();
+            }
+            nulls[column].set(row);
+            return;
+        }
+        switch (kind) {
+            case INT -> ((int[]) array)[row] = (Integer) value;
+            case LONG -> ((long[]) array)[row] = (Long) value;
+            case DOUBLE -> ((double[]) array)[row] = (Double) value;
+            default -> ((boolean[]) array)[row] = (Boolean) value;
+        }
+        if (nulls[column] != null) {
+            nulls[column].clear(row);
+        }
+    }
+
+    private int column(Component row, String property) {
+        Integer column = indices.get(property);
+        if (column == null) {
+            throw new NoSuchPropertyException(row, property);
+        }
+        return column;
+    }
+
+    private int column(Component row, PropertyKey<?> key) {
+        int index = key.index();
+        if (key.owner() == type && index >= 0 && index < keys.length && keys[index] != null
+                && keys[index].name().equals(key.name())) {
+            return index;
+        }
+        return column(row, key.name());
+    }
+
+    /**
+     * Class is a component view of one table row. Row reads and writes values in the
+     * columns of the table, so it is valid as long as the table has the row.
+     */
+    public static final class Row implements Component {
+        private final ComponentTable<?> table;
+        private final int index;
+
+        Row(ComponentTable<?> table, int index) {
+            this.table = table;
+            this.index = index;
+        }
+
+        /**
+         * Method returns table of this row.
+         *
+         * @return table
+         */
+        public ComponentTable<?> table() {
+            return table;
+        }
+
+        /**
+         * Method returns index of this row in the table.
+         *
+         * @return row index
+         */
+        public int index() {
+            return index;
+        }
+
+        /**
+         * Method returns type of the table. Row is not an instance of the type, see
+         * {@link ComponentTable} for details.
+         *
+         * @return table type
+         */
+        @Override
+        public ComponentType<?> type() {
+            return table.type;
+        }
+
+        /**
+         * Method returns detached component of the table type with property values and
+         * children of this row.
+         *
+         * @return new component
+         */
+        @Override
+        public Component clone() {
+            return table.materialize(index);
+        }
+
+        @Override
+        public Object get(String property) {
+            return table.read(index, table.column(this, property));
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T, R> R get(String property, Function<T, R> mapper) {
+            return mapper.apply((T) get(property));
+        }
+
+        @Override
+        public <T> T get(PropertyKey<T> key) {
+            return key.type().cast(table.read(index, table.column(this, key)));
+        }
+
+        @Override
+        public <T> void set(PropertyKey<T> key, T value) {
+            set(table.column(this, key), value);
+        }
+
+        @Override
+        public void set(String property, Object value) {
+            set(table.column(this, property), value);
+        }
+
+        private void set(int column, Object value) {
+            if (table.readOnly[column]) {
+                throw new UnsupportedOperationException("unmodifiable property");
+            }
+            table.write(index, column, value);
+        }
+
+        @Override
+        public Optional<Property<?>> property(String property) {
+            Integer column = table.indices.get(property);
+            return column == null ? Optional.empty() : Optional.of(new Cell<>(this, table.types[column], column));
+        }
+
+        @Override
+        public ActionContext<?> invoke(String action) {
+            throw new NoSuchActionException(this, action);
+        }
+
+        @Override
+        public Optional<Action<?>> action(String action) {
+            return Optional.empty();
+        }
+
+        @Override
+        public <T extends Component> T as(ComponentType<T> type) {
+            return clone().as(type);
+        }
+
+        @Override
+        public ComponentList children() {
+            ComponentList[] children = table.children();
+            ComponentList list = children[index];
+            if (list == null) {
+                //children are copied only when they are accessed through the row
+                list = children[index] = table.prototype.children().lazyClone();
+            }
+            return list;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Row row && row.table == table && row.index == index;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(table) * 31 + index;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(table.type.getTypeName()).append('[');
+            for (int i = 0; i < table.names.length; i++) {
+                if (i > 0) builder.append(", ");
+                builder.append(table.names[i]).append('=').append(table.read(index, i));
+            }
+            return builder.append(']').toString();
+        }
+    }
+
+    private record Cell<T>(Row row, Class<T> type, int column) implements Property<T> {
+        @Override
+        public String name() {
+            return row.table.names[column];
+        }
+
+        @Override
+        public T get() {
+            return type.cast(row.table.read(row.index, column));
+        }
+
+        @Override
+        public boolean isReadOnly() {
+            return row.table.readOnly[column];
+        }
+
+        @Override
+        public void set(Object value) {
+            row.set(column, value);
+        }
+
+        @Override
+        public Property<T> clone() {
+            return new SimpleProperty<>(type, name(), get());
+        }
+    }
+}
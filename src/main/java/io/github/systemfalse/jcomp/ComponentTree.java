@@ -0,0 +1,324 @@
+package io.github.systemfalse.jcomp;
+
+import java.io.Serial;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Class contains methods that traverse a component with all its descendants, which
+ * are reached through {@link Component#children()}.
+ * <p>
+ * Streams returned by {@link #stream(Component, Order)} visit components in given order
+ * when sequential and split the tree into subtrees or levels when parallel. Methods
+ * {@link #forEach(Component, Consumer)} and {@link #reduce(Component, Object, BiFunction, BinaryOperator)}
+ * run a fork-join task per subtree as long as there are idle workers, and traverse
+ * smaller subtrees on the current worker.
+ * </p>
+ * <p>
+ * Traversal does not lock components, so the tree must not be modified while it is
+ * traversed.
+ * </p>
+ */
+public final class ComponentTree {
+    /**
+     * Order of visiting components.
+     */
+    public enum Order {
+        /**
+         * Component is visited before its children, and children in list order.
+         */
+        DEPTH_FIRST,
+        /**
+         * Components are visited level by level, starting with the root.
+         */
+        BREADTH_FIRST
+    }
+
+    private ComponentTree() {
+    }
+
+    /**
+     * Method returns sequential stream of given component and all its descendants in
+     * depth-first order.
+     *
+     * @param root root component
+     * @return stream of components
+     */
+    public static Stream<Component> stream(Component root) {
+        return stream(root, Order.DEPTH_FIRST);
+    }
+
+    /**
+     * Method returns sequential stream of given component and all its descendants in
+     * given order. Stream can be made parallel with {@link Stream#parallel()}.
+     *
+     * @param root root component
+     * @param order order of components
+     * @return stream of components
+     */
+    public static Stream<Component> stream(Component root, Order order) {
+        Objects.requireNonNull(root, "root");
+        Objects.requireNonNull(order, "order");
+        Spliterator<Component> spliterator = order == Order.DEPTH_FIRST
+                ? new DepthFirstSpliterator(root)
+                : new BreadthFirstSpliterator(new Component[] {root});
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * Method calls visitor for given component and all its descendants in parallel.
+     * Visitor may be called concurrently from several threads and in any order.
+     *
+     * @param root root component
+     * @param visitor visitor
+     */
+    public static void forEach(Component root, Consumer<? super Component> visitor) {
+        Objects.requireNonNull(visitor, "visitor");
+        reduce(root, null, (result, component) -> {
+            visitor.accept(component);
+            return null;
+        }, (a, b) -> null);
+    }
+
+    /**
+     * Method reduces given component and all its descendants in parallel. Each fork-join
+     * task starts with {@code identity} and accumulates components of its subtrees, and
+     * results of tasks are combined. Components are accumulated in no particular order,
+     * so accumulator and combiner must be associative and commutative, and identity must
+     * be an identity for combiner.
+     * <p>
+     * Method runs in the fork-join pool of the calling thread or in the
+     * {@link ForkJoinPool#commonPool() common pool}.
+     * </p>
+     *
+     * @param root root component
+     * @param identity initial result
+     * @param accumulator function that adds a component to a result
+     * @param combiner function that combines two results
+     * @return result
+     * @param <R> result type
+     */
+    public static <R> R reduce(Component root, R identity, BiFunction<R, ? super Component, R> accumulator,
+                               BinaryOperator<R> combiner) {
+        Objects.requireNonNull(root, "root");
+        Objects.requireNonNull(accumulator, "accumulator");
+        Objects.requireNonNull(combiner, "combiner");
+        ReduceTask<R> task = new ReduceTask<>(root, identity, accumulator, combiner);
+        return ForkJoinTask.inForkJoinPool() ? task.invoke() : ForkJoinPool.commonPool().invoke(task);
+    }
+
+    private static final class ReduceTask<R> extends RecursiveTask<R> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Number of queued tasks above which subtrees are traversed without forking.
+         */
+        private static final int SURPLUS = 3;
+
+        private final Component root;
+        private final R identity;
+        private final BiFunction<R, ? super Component, R> accumulator;
+        private final BinaryOperator<R> combiner;
+
+        ReduceTask(Component root, R identity, BiFunction<R, ? super Component, R> accumulator,
+                   BinaryOperator<R> combiner) {
+            this.root = root;
+            this.identity = identity;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected R compute() {
+            R result = identity;
+            List<ReduceTask<R>> forked = null;
+            Component component = root;
+            //last child is visited by the same task, so chains of components do not nest tasks
+            while (component != null) {
+                result = accumulator.apply(result, component);
+                Component last = null;
+                for (Component child : component.children()) {
+                    if (last == null) {
+                        last = child;
+                        continue;
+                    }
+                    if (getSurplusQueuedTaskCount() < SURPLUS) {
+                        ReduceTask<R> task = new ReduceTask<>(last, identity, accumulator, combiner);
+                        task.fork();
+                        if (forked == null) {
+                            forked = new ArrayList<>();
+                        }
+                        forked.add(task);
+                    } else {
+                        result = traverse(result, last);
+                    }
+                    last = child;
+                }
+                component = last;
+            }
+            if (forked != null) {
+                for (int i = forked.size() - 1; i >= 0; i--) {
+                    result = combiner.apply(result, forked.get(i).join());
+                }
+            }
+            return result;
+        }
+
+        private R traverse(R result, Component subtree) {
+            ArrayDeque<Component> stack = new ArrayDeque<>();
+            stack.push(subtree);
+            while (!stack.isEmpty()) {
+                Component component = stack.pop();
+                result = accumulator.apply(result, component);
+                for (Component child : component.children()) {
+                    stack.push(child);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Spliterator keeps stack of components whose subtrees are not visited yet, with the
+     * next one at the head. Split takes the head half of the stack, or the only component
+     * without its children when one is left. Size of the tree is unknown, so estimate is
+     * halved by each split of the stack to stop splitting when parts are small enough.
+     */
+    private static final class DepthFirstSpliterator implements Spliterator<Component> {
+        private final ArrayDeque<Component> stack;
+        private long estimate;
+
+        DepthFirstSpliterator(Component root) {
+            stack = new ArrayDeque<>();
+            stack.push(root);
+            estimate = Long.MAX_VALUE;
+        }
+
+        private DepthFirstSpliterator(ArrayDeque<Component> stack, long estimate) {
+            this.stack = stack;
+            this.estimate = estimate;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Component> action) {
+            Component component = stack.poll();
+            if (component == null) {
+                return false;
+            }
+            push(component.children());
+            action.accept(component);
+            return true;
+        }
+
+        private void push(ComponentList children) {
+            int size = children.size();
+            if (size == 1) {
+                stack.push(children.get(0));
+            } else if (size > 1) {
+                Component[] array = new Component[size];
+                int i = 0;
+                for (Component child : children) {
+                    array[i++] = child;
+                }
+                for (i = size - 1; i >= 0; i--) {
+                    stack.push(array[i]);
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<Component> trySplit() {
+            int size = stack.size();
+            if (size > 1) {
+                ArrayDeque<Component> prefix = new ArrayDeque<>(size / 2);
+                for (int i = 0; i < size / 2; i++) {
+                    prefix.addLast(stack.poll());
+                }
+                estimate >>>= 1;
+                return new DepthFirstSpliterator(prefix, estimate);
+            }
+            Component component = stack.peek();
+            if (component == null || component.children().size() == 0) {
+                return null;
+            }
+            stack.poll();
+            push(component.children());
+            return Spliterators.spliterator(new Component[] {component}, ORDERED | NONNULL);
+        }
+
+        @Override
+        public long estimateSize() {
+            return stack.isEmpty() ? 0 : estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+
+    /**
+     * Spliterator keeps current level of components and position of the next one to
+     * visit. Split takes components of the current level without their children, which
+     * remain with this spliterator and form the next level.
+     */
+    private static final class BreadthFirstSpliterator implements Spliterator<Component> {
+        private Component[] level;
+        private int position;
+
+        BreadthFirstSpliterator(Component[] level) {
+            this.level = level;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Component> action) {
+            if (position == level.length && !nextLevel()) {
+                return false;
+            }
+            action.accept(level[position++]);
+            return true;
+        }
+
+        private boolean nextLevel() {
+            List<Component> next = new ArrayList<>();
+            for (Component component : level) {
+                for (Component child : component.children()) {
+                    next.add(child);
+                }
+            }
+            level = next.toArray(Component[]::new);
+            position = 0;
+            return level.length > 0;
+        }
+
+        @Override
+        public Spliterator<Component> trySplit() {
+            if (position == level.length && !nextLevel()) {
+                return null;
+            }
+            int remaining = level.length - position;
+            int end = remaining > 1 ? position + remaining / 2 : level.length;
+            Spliterator<Component> prefix = Spliterators.spliterator(level, position, end, ORDERED | NONNULL);
+            position = end;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return position == level.length && level.length == 0 ? 0 : Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package io.github.systemfalse.jcomp;
 
+import com.google.common.primitives.Primitives;
+
 import java.lang.reflect.Type;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -32,6 +35,18 @@ public interface ComponentType<T extends Component> extends Type {
      */
     boolean isInstance(Component comp);
 
+    /**
+     * Method returns class of components of this type if {@link #isInstance(Component)}
+     * returns {@code true} exactly for instances of the class, as it does for generated
+     * types. Collections use it to match components by their class instead of checking
+     * each of them. By default, method returns {@code null}, so each component is checked.
+     *
+     * @return class of components or {@code null} if instances are not determined by class
+     */
+    default Class<? extends T> componentClass() {
+        return null;
+    }
+
     /**
      * Method returns set of component property names.
      *
@@ -39,6 +54,49 @@ public interface ComponentType<T extends Component> extends Type {
      */
     Set<String> properties();
 
+    /**
+     * Method returns key of the property with the given name. By default, key has
+     * {@code Object} type and no index, so components access it by name, and it
+     * describes writable property.
+     *
+     * @param property name of the property
+     * @return property key
+     */
+    default Optional<PropertyKey<?>> key(String property) {
+        if (!properties().contains(property)) {
+            return Optional.empty();
+        }
+        return Optional.of(new PropertyKey<>(this, property, Object.class, -1));
+    }
+
+    /**
+     * Method returns typed key of the property with the given name. Key should be
+     * resolved once and reused for accessing the property of components of this type.
+     * Primitive classes are replaced with their wrappers, so returned key has the class
+     * of values returned by the property.
+     *
+     * @param property name of the property
+     * @param type class of the property value
+     * @return property key
+     * @param <V> type of the property
+     *
+     * @throws IllegalArgumentException if property with given name was not found
+     * @throws ClassCastException if property has different type
+     */
+    @SuppressWarnings("unchecked")
+    default <V> PropertyKey<V> key(String property, Class<V> type) {
+        PropertyKey<?> key = key(property).orElseThrow(() ->
+                new IllegalArgumentException("No such property: \"" + property + "\" in type " + getTypeName()));
+        Class<V> wrapped = Primitives.wrap(type);
+        if (key.type() == wrapped) {
+            return (PropertyKey<V>) key;
+        }
+        if (key.type() != Object.class) {
+            throw new ClassCastException("property \"" + property + "\" has type " + key.type().getCanonicalName());
+        }
+        return new PropertyKey<>(this, property, wrapped, key.index(), key.readOnly());
+    }
+
     /**
      * Method returns set of component action names.
      *
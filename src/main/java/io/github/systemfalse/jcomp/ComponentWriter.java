@@ -0,0 +1,341 @@
+package io.github.systemfalse.jcomp;
+
+import io.github.systemfalse.jcomp.spi.IndexedComponent;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Class writes components and component lists to a channel in compact binary format
+ * that can be read with {@link ComponentReader}.
+ * <p>
+ * Each component is written as its type, values of its writable properties and its
+ * children with their names, recursively. Type name and property names are written
+ * only once per stream. Primitive values, strings, byte arrays and components are
+ * encoded directly, other values must be {@link Serializable}. Children that were not
+ * created yet are written as their factories create them, but are not created in the
+ * list, and children shared with lazy clones are not copied. Trees deeper than
+ * {@value BinaryFormat#MAX_DEPTH} components, including trees that contain themselves,
+ * can not be written.
+ * </p>
+ * <p>
+ * Writer encodes into a fixed-size buffer that is written to the channel every time it
+ * is full, so trees of any size are streamed without building them in memory. Several
+ * components and lists may be written to the same stream one after another.
+ * </p>
+ */
+public final class ComponentWriter implements Closeable, Flushable {
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final HashMap<ComponentType<?>, Schema> schemas = new HashMap<>();
+    private boolean started;
+    private long written;
+    private int depth;
+
+    private record Schema(int id, String[] names, int[] slots) {
+    }
+
+    /**
+     * Constructor creates new writer with default buffer size.
+     *
+     * @param channel target channel
+     */
+    public ComponentWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor creates new writer with given buffer size.
+     *
+     * @param channel target channel
+     * @param bufferSize size of the buffer in bytes
+     *
+     * @throws IllegalArgumentException if buffer size is less than 64 bytes
+     */
+    public ComponentWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = Objects.requireNonNull(channel, "channel");
+        if (bufferSize < 64) {
+            throw new IllegalArgumentException("buffer size must be at least 64 bytes");
+        }
+        buffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * Method creates new writer that writes to given stream.
+     *
+     * @param stream target stream
+     * @return new writer
+     */
+    public static ComponentWriter of(OutputStream stream) {
+        return new ComponentWriter(Channels.newChannel(Objects.requireNonNull(stream, "stream")));
+    }
+
+    /**
+     * Method writes given component with all its children.
+     *
+     * @param component component
+     * @throws IOException if an I/O error occurs or a property value can not be written
+     */
+    public void write(Component component) throws IOException {
+        Objects.requireNonNull(component, "component");
+        start();
+        writeByte(BinaryFormat.RECORD_COMPONENT);
+        writeComponent(component);
+    }
+
+    /**
+     * Method writes names and components of given list.
+     *
+     * @param list component list
+     * @throws IOException if an I/O error occurs or a property value can not be written
+     */
+    public void write(ComponentList list) throws IOException {
+        Objects.requireNonNull(list, "list");
+        start();
+        writeByte(BinaryFormat.RECORD_LIST);
+        writeList(list);
+    }
+
+    /**
+     * Method writes buffered data to the channel.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Method flushes buffered data and closes the channel.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    long position() {
+        return written + buffer.position();
+    }
+
+    void writeEntry(Component component) throws IOException {
+        writeComponent(component);
+    }
+
+    int typeId(ComponentType<?> type) {
+        return schemas.get(type).id();
+    }
+
+    void writeTypes() throws IOException {
+        Schema[] byId = new Schema[schemas.size()];
+        String[] typeNames = new String[byId.length];
+        for (var entry : schemas.entrySet()) {
+            byId[entry.getValue().id()] = entry.getValue();
+            typeNames[entry.getValue().id()] = entry.getKey().getTypeName();
+        }
+        writeVarInt(byId.length);
+        for (int i = 0; i < byId.length; i++) {
+            writeString(typeNames[i]);
+            writeVarInt(byId[i].names().length);
+            for (String name : byId[i].names()) {
+                writeString(name);
+            }
+        }
+    }
+
+    void writeInt(int value) throws IOException {
+        ensure(4);
+        buffer.putInt(value);
+    }
+
+    void writeLong(long value) throws IOException {
+        ensure(8);
+        buffer.putLong(value);
+    }
+
+    private void start() throws IOException {
+        if (!started) {
+            started = true;
+            ensure(5);
+            buffer.putInt(BinaryFormat.MAGIC);
+            buffer.put(BinaryFormat.VERSION);
+        }
+    }
+
+    private void writeComponent(Component component) throws IOException {
+        if (depth == BinaryFormat.MAX_DEPTH) {
+            throw new IOException("component tree is deeper than " + BinaryFormat.MAX_DEPTH
+                    + " components or contains itself");
+        }
+        depth++;
+        try {
+            writeFields(component);
+        } finally {
+            depth--;
+        }
+    }
+
+    private void writeFields(Component component) throws IOException {
+        ComponentType<?> type = component.type();
+        Schema schema = schemas.get(type);
+        if (schema == null) {
+            schema = schema(component, type);
+            writeVarInt(0);
+            writeString(type.getTypeName());
+            writeVarInt(schema.names().length);
+            for (String name : schema.names()) {
+                writeString(name);
+            }
+        } else {
+            writeVarInt(schema.id() + 1);
+        }
+        String[] names = schema.names();
+        int[] slots = schema.slots();
+        if (slots != null && component instanceof IndexedComponent indexed) {
+            for (int slot : slots) {
+                writeValue(indexed.get(slot));
+            }
+        } else {
+            for (String name : names) {
+                writeValue(component.get(name));
+            }
+        }
+        writeList(component.children());
+    }
+
+    private Schema schema(Component component, ComponentType<?> type) {
+        List<String> names = new ArrayList<>();
+        for (String name : type.properties()) {
+            if (component.property(name).map(p -> !p.isReadOnly()).orElse(false)) {
+                names.add(name);
+            }
+        }
+        String[] array = names.toArray(String[]::new);
+        int[] slots = null;
+        if (component instanceof IndexedComponent indexed) {
+            slots = new int[array.length];
+            for (int i = 0; i < array.length; i++) {
+                slots[i] = indexed.slot(array[i]);
+            }
+        }
+        Schema schema = new Schema(schemas.size(), array, slots);
+        schemas.put(type, schema);
+        return schema;
+    }
+
+    private void writeList(ComponentList list) throws IOException {
+        int size = list.size();
+        writeVarInt(size);
+        for (int i = 0; i < size; i++) {
+            writeString(list.name(i));
+            writeComponent(list.peek(i));
+        }
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            writeByte(BinaryFormat.NULL);
+        } else if (value instanceof Integer v) {
+            writeByte(BinaryFormat.INT);
+            writeVarLong(BinaryFormat.zigZag(v));
+        } else if (value instanceof Long v) {
+            writeByte(BinaryFormat.LONG);
+            writeVarLong(BinaryFormat.zigZag(v));
+        } else if (value instanceof Double v) {
+            ensure(9);
+            buffer.put(BinaryFormat.DOUBLE).putDouble(v);
+        } else if (value instanceof Boolean v) {
+            writeByte(v ? BinaryFormat.TRUE : BinaryFormat.FALSE);
+        } else if (value instanceof String v) {
+            writeByte(BinaryFormat.STRING);
+            writeString(v);
+        } else if (value instanceof Float v) {
+            ensure(5);
+            buffer.put(BinaryFormat.FLOAT).putFloat(v);
+        } else if (value instanceof Byte v) {
+            ensure(2);
+            buffer.put(BinaryFormat.BYTE).put(v);
+        } else if (value instanceof Short v) {
+            ensure(3);
+            buffer.put(BinaryFormat.SHORT).putShort(v);
+        } else if (value instanceof Character v) {
+            ensure(3);
+            buffer.put(BinaryFormat.CHAR).putChar(v);
+        } else if (value instanceof byte[] v) {
+            writeByte(BinaryFormat.BYTES);
+            writeBytes(v);
+        } else if (value instanceof Component v) {
+            writeByte(BinaryFormat.COMPONENT);
+            writeComponent(v);
+        } else if (value instanceof Serializable) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream stream = new ObjectOutputStream(bytes)) {
+                stream.writeObject(value);
+            }
+            writeByte(BinaryFormat.SERIALIZED);
+            writeBytes(bytes.toByteArray());
+        } else {
+            throw new NotSerializableException(value.getClass().getName());
+        }
+    }
+
+    void writeString(String value) throws IOException {
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        writeVarInt(bytes.length);
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private void writeByte(byte value) throws IOException {
+        ensure(1);
+        buffer.put(value);
+    }
+
+    void writeVarInt(int value) throws IOException {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
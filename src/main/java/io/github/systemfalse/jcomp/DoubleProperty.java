@@ -0,0 +1,32 @@
+package io.github.systemfalse.jcomp;
+
+/**
+ * Property that holds {@code double} value. Its value can be read and written
+ * without boxing using {@link #getDouble()} and {@link #setDouble(double)}.
+ */
+public interface DoubleProperty extends Property<Double> {
+    /**
+     * Method returns value of this property without boxing.
+     *
+     * @return value of the property
+     */
+    double getDouble();
+
+    /**
+     * Method sets value of this property without boxing. If this property is
+     * read-only, an {@code UnsupportedOperationException} is thrown.
+     *
+     * @param value value to set
+     *
+     * @throws UnsupportedOperationException if this property is read-only
+     */
+    void setDouble(double value);
+
+    /**
+     * Method returns a copy of this property.
+     *
+     * @return a copy of this property
+     */
+    @Override
+    DoubleProperty clone();
+}
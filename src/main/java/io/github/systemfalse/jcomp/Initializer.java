@@ -1,5 +1,7 @@
 package io.github.systemfalse.jcomp;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Supplier;
 
 /**
@@ -18,4 +20,43 @@ public interface Initializer<C extends Component> extends Supplier<C> {
      * @return this object
      */
     Initializer<C> set(String property, Object value);
+
+    /**
+     * Method creates given number of components with properties set by this initializer.
+     *
+     * @param count number of components
+     * @return new list of components
+     *
+     * @throws IllegalArgumentException if count is negative
+     */
+    default List<C> createBatch(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+        List<C> components = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            components.add(get());
+        }
+        return components;
+    }
+
+    /**
+     * Method returns initializer that creates components from columns of values of given
+     * properties. Properties set by this initializer are set for every created component
+     * before values from columns. Changes of this initializer after the method returns
+     * also affect created components.
+     * <p>
+     * Default implementation does not create components in advance, so it checks that
+     * properties exist in the type of the first created component.
+     * </p>
+     *
+     * @param properties names of properties in column order
+     * @return column initializer
+     *
+     * @throws IllegalArgumentException if a property does not exist in the type known to
+     * this initializer
+     */
+    default ColumnInitializer<C> columns(String... properties) {
+        return new NamedColumnInitializer<>(this, properties);
+    }
 }
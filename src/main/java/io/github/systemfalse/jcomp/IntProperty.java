@@ -0,0 +1,32 @@
+package io.github.systemfalse.jcomp;
+
+/**
+ * Property that holds {@code int} value. Its value can be read and written
+ * without boxing using {@link #getInt()} and {@link #setInt(int)}.
+ */
+public interface IntProperty extends Property<Integer> {
+    /**
+     * Method returns value of this property without boxing.
+     *
+     * @return value of the property
+     */
+    int getInt();
+
+    /**
+     * Method sets value of this property without boxing. If this property is
+     * read-only, an {@code UnsupportedOperationException} is thrown.
+     *
+     * @param value value to set
+     *
+     * @throws UnsupportedOperationException if this property is read-only
+     */
+    void setInt(int value);
+
+    /**
+     * Method returns a copy of this property.
+     *
+     * @return a copy of this property
+     */
+    @Override
+    IntProperty clone();
+}
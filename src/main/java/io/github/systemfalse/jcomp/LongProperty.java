@@ -0,0 +1,32 @@
+package io.github.systemfalse.jcomp;
+
+/**
+ * Property that holds {@code long} value. Its value can be read and written
+ * without boxing using {@link #getLong()} and {@link #setLong(long)}.
+ */
+public interface LongProperty extends Property<Long> {
+    /**
+     * Method returns value of this property without boxing.
+     *
+     * @return value of the property
+     */
+    long getLong();
+
+    /**
+     * Method sets value of this property without boxing. If this property is
+     * read-only, an {@code UnsupportedOperationException} is thrown.
+     *
+     * @param value value to set
+     *
+     * @throws UnsupportedOperationException if this property is read-only
+     */
+    void setLong(long value);
+
+    /**
+     * Method returns a copy of this property.
+     *
+     * @return a copy of this property
+     */
+    @Override
+    LongProperty clone();
+}
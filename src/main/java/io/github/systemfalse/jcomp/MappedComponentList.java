@@ -0,0 +1,651 @@
+package io.github.systemfalse.jcomp;
+
+import java.io.*;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Class represents read-only component list backed by a memory-mapped file written
+ * with {@link #write(ComponentList, Path)}. Names, offsets and types of components are
+ * indexed in the file, so opening the list does not read its components, and looking
+ * up a component by name does not create any objects for other entries. Component is
+ * decoded only when it is returned by the list for the first time.
+ * <p>
+ * Decoded components are kept according to {@link Eviction} policy given when the list
+ * is opened. Components are decoded from the file again after they are evicted, so
+ * modifications of decoded components are not written to the file and are lost on
+ * eviction. Use {@link Eviction#never()} to keep modified components.
+ * </p>
+ * <p>
+ * All methods of the list are synchronized. Modification methods throw
+ * {@code UnsupportedOperationException}.
+ * </p>
+ */
+public final class MappedComponentList extends ComponentList implements Closeable {
+    /**
+     * Class represents policy of keeping decoded components in memory.
+     */
+    public static final class Eviction {
+        private final IntFunction<Cache> factory;
+
+        private Eviction(IntFunction<Cache> factory) {
+            this.factory = factory;
+        }
+
+        /**
+         * Method returns policy that keeps all decoded components until the list is closed.
+         *
+         * @return policy
+         */
+        public static Eviction never() {
+            return new Eviction(StrongCache::new);
+        }
+
+        /**
+         * Method returns policy that keeps no decoded components, so every access decodes
+         * the component again.
+         *
+         * @return policy
+         */
+        public static Eviction always() {
+            return new Eviction(size -> new NoCache());
+        }
+
+        /**
+         * Method returns policy that keeps given number of recently accessed components.
+         *
+         * @param maximumSize maximum number of kept components
+         * @return policy
+         *
+         * @throws IllegalArgumentException if maximum size is not positive
+         */
+        public static Eviction lru(int maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("maximum size must be positive");
+            }
+            return new Eviction(size -> new LruCache(maximumSize));
+        }
+
+        /**
+         * Method returns policy that keeps decoded components until garbage collector needs
+         * memory they occupy.
+         *
+         * @return policy
+         */
+        public static Eviction soft() {
+            return new Eviction(SoftCache::new);
+        }
+    }
+
+    private static final int MAGIC = 0x4A434D4C;
+    private static final int VERSION = 1;
+    private static final int HEADER = 8;
+    private static final int FOOTER = 48;
+    private static final int ENTRY = 24;
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK = 1L << CHUNK_SHIFT;
+    private static final long MAX_ITEM = Integer.MAX_VALUE - CHUNK;
+
+    private ByteBuffer[] chunks;
+    private final int size;
+    private final long entries;
+    private final long hash;
+    private final int hashMask;
+    private final String[][] types;
+    private final ComponentReader reader;
+    private final Cache cache;
+
+    private MappedComponentList(Path file, Eviction eviction, Function<String, ComponentType<?>> resolver)
+            throws IOException {
+        super(ArrayList::new);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER + FOOTER) {
+                throw new StreamCorruptedException("not a mapped component list");
+            }
+            ByteBuffer footer = ByteBuffer.allocate(FOOTER);
+            while (footer.hasRemaining()) {
+                if (channel.read(footer, length - FOOTER + footer.position()) < 0) {
+                    throw new EOFException();
+                }
+            }
+            footer.flip();
+            long count = footer.getLong();
+            long typesOffset = footer.getLong();
+            entries = footer.getLong();
+            hash = footer.getLong();
+            int capacity = footer.getInt();
+            int maxItem = footer.getInt();
+            int version = footer.getInt();
+            if (footer.getInt() != MAGIC || version != VERSION || count < 0 || count > Integer.MAX_VALUE
+                    || Integer.bitCount(capacity) != 1 || maxItem < 0 || maxItem > MAX_ITEM) {
+                throw new StreamCorruptedException("not a mapped component list");
+            }
+            size = (int) count;
+            hashMask = capacity - 1;
+            chunks = new ByteBuffer[(int) ((length - 1) >>> CHUNK_SHIFT) + 1];
+            for (int i = 0; i < chunks.length; i++) {
+                long start = i * CHUNK;
+                long end = Math.min(length, start + CHUNK + maxItem);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            }
+            if (chunks[0].getInt(0) != MAGIC) {
+                throw new StreamCorruptedException("not a mapped component list");
+            }
+            types = new ComponentReader(slice(typesOffset, (int) Math.min(maxItem, entries - typesOffset)),
+                    resolver, new String[0][]).readTypes();
+        }
+        reader = new ComponentReader(ByteBuffer.allocate(0), resolver, types);
+        cache = eviction.factory.apply(size);
+    }
+
+    /**
+     * Method writes given list to a file that can be opened as mapped list. Components
+     * are written in the format of {@link ComponentWriter}.
+     *
+     * @param list component list
+     * @param file target file, existing file is replaced
+     * @throws IOException if an I/O error occurs, a property value can not be written
+     * or a single component takes more than 1 GB
+     */
+    public static void write(ComponentList list, Path file) throws IOException {
+        Objects.requireNonNull(list, "list");
+        Objects.requireNonNull(file, "file");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ComponentWriter writer = new ComponentWriter(channel);
+            int size = list.size();
+            long maxItem = FOOTER;
+            writer.writeInt(MAGIC);
+            writer.writeInt(VERSION);
+            long[] data = new long[size];
+            int[] lengths = new int[size], typeIds = new int[size];
+            for (int i = 0; i < size; i++) {
+                //components are only read, so lazy components are not created in the list
+                Component component = list.peek(i);
+                data[i] = writer.position();
+                writer.writeEntry(component);
+                long length = writer.position() - data[i];
+                if (length > MAX_ITEM) {
+                    throw new IOException("component \"" + list.name(i) + "\" is too large");
+                }
+                lengths[i] = (int) length;
+                typeIds[i] = writer.typeId(component.type());
+                maxItem = Math.max(maxItem, length);
+            }
+            long[] names = new long[size];
+            for (int i = 0; i < size; i++) {
+                names[i] = writer.position();
+                writer.writeString(list.name(i));
+                maxItem = Math.max(maxItem, writer.position() - names[i]);
+            }
+            long typesOffset = writer.position();
+            writer.writeTypes();
+            maxItem = Math.max(maxItem, writer.position() - typesOffset);
+            if (maxItem > MAX_ITEM) {
+                throw new IOException("too many component types");
+            }
+
+            long entriesOffset = writer.position();
+            for (int i = 0; i < size; i++) {
+                writer.writeLong(data[i]);
+                writer.writeLong(names[i]);
+                writer.writeInt(typeIds[i]);
+                writer.writeInt(lengths[i]);
+            }
+            int capacity = 2;
+            while (capacity < size + size / 3 + 1) {
+                capacity <<= 1;
+            }
+            int[] table = new int[capacity * 2];
+            for (int i = 0; i < size; i++) {
+                int h = list.name(i).hashCode();
+                int slot = mix(h) & (capacity - 1);
+                while (table[slot * 2 + 1] != 0) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                table[slot * 2] = h;
+                table[slot * 2 + 1] = i + 1;
+            }
+            long hashOffset = writer.position();
+            for (int value : table) {
+                writer.writeInt(value);
+            }
+
+            writer.writeLong(size);
+            writer.writeLong(typesOffset);
+            writer.writeLong(entriesOffset);
+            writer.writeLong(hashOffset);
+            writer.writeInt(capacity);
+            writer.writeInt((int) maxItem);
+            writer.writeInt(VERSION);
+            writer.writeInt(MAGIC);
+            writer.flush();
+        }
+    }
+
+    /**
+     * Method opens file written by {@link #write(ComponentList, Path)} as mapped list.
+     *
+     * @param file file
+     * @param eviction policy of keeping decoded components
+     * @param types component types that may be found in the file
+     * @return new mapped list
+     * @throws IOException if an I/O error occurs or the file is not a mapped list
+     */
+    public static MappedComponentList open(Path file, Eviction eviction, ComponentType<?>... types)
+            throws IOException {
+        return open(file, eviction, ComponentReader.registry(types));
+    }
+
+    /**
+     * Method opens file written by {@link #write(ComponentList, Path)} as mapped list.
+     * Resolver must return {@code null} for unknown type names.
+     *
+     * @param file file
+     * @param eviction policy of keeping decoded components
+     * @param resolver function that returns component type by its name
+     * @return new mapped list
+     * @throws IOException if an I/O error occurs or the file is not a mapped list
+     */
+    public static MappedComponentList open(Path file, Eviction eviction, Function<String, ComponentType<?>> resolver)
+            throws IOException {
+        Objects.requireNonNull(file, "file");
+        Objects.requireNonNull(eviction, "eviction");
+        Objects.requireNonNull(resolver, "resolver");
+        return new MappedComponentList(file, eviction, resolver);
+    }
+
+    @Override
+    public synchronized Set<String> names() {
+        checkOpen();
+        List<String> names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add(name(i));
+        }
+        return Set.copyOf(names);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized Component get(int index) {
+        Objects.checkIndex(index, size);
+        checkOpen();
+        Component component = cache.get(index);
+        if (component == null) {
+            component = decode(index);
+            cache.put(index, component);
+        }
+        return component;
+    }
+
+    @Override
+    Component peek(int index) {
+        //decoded components are only cached, so reading them does not change the list
+        return get(index);
+    }
+
+    @Override
+    public synchronized String name(int index) {
+        Objects.checkIndex(index, size);
+        checkOpen();
+        long position = getLong(entries + (long) index * ENTRY + 8);
+        ByteBuffer chunk = chunk(position);
+        int local = local(position);
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = chunk.get(local++);
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+        byte[] bytes = new byte[length];
+        chunk.get(local, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public synchronized boolean contains(String name) {
+        return indexOf(name) >= 0;
+    }
+
+    @Override
+    public synchronized Component get(String name) {
+        int index = indexOf(name);
+        if (index < 0) {
+            throw new NoSuchElementException("No component with name '" + name + "'");
+        }
+        return get(index);
+    }
+
+    /**
+     * Method returns list of components of given type. Only components written with
+     * type of the same {@link ComponentType#getTypeName() name} are decoded and checked.
+     *
+     * @param type component type
+     * @return list of components
+     * @param <T> component type
+     */
+    @Override
+    public synchronized <T extends Component> List<T> get(ComponentType<T> type) {
+        checkOpen();
+        boolean[] candidates = new boolean[types.length];
+        boolean any = false;
+        for (int i = 0; i < types.length; i++) {
+            any |= candidates[i] = types[i][0].equals(type.getTypeName());
+        }
+        if (!any) {
+            return List.of();
+        }
+        List<T> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (candidates[getInt(entries + (long) i * ENTRY + 16)]) {
+                Component component = get(i);
+                if (type.isInstance(component)) {
+                    result.add(type.cast(component));
+                }
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public <T extends Component> List<T> view(ComponentType<T> type) {
+        //list can not be modified, so its components of given type never change
+        return get(type);
+    }
+
+    @Override
+    public void add(String name, Component component) {
+        throw new UnsupportedOperationException("mapped component list is read-only");
+    }
+
+    @Override
+    public void addLazy(String name, Supplier<? extends Component> factory) {
+        throw new UnsupportedOperationException("mapped component list is read-only");
+    }
+
+    @Override
+    public void addLazy(String name, ComponentType<?> type, Supplier<? extends Component> factory) {
+        throw new UnsupportedOperationException("mapped component list is read-only");
+    }
+
+    @Override
+    public boolean replaceFactory(String name, Supplier<? extends Component> factory) {
+        return false;
+    }
+
+    @Override
+    public Component replace(String name, Component component) {
+        throw new UnsupportedOperationException("mapped component list is read-only");
+    }
+
+    @Override
+    public Component set(int index, Component component) {
+        throw new UnsupportedOperationException("mapped component list is read-only");
+    }
+
+    @Override
+    public Component remove(int index) {
+        throw new UnsupportedOperationException("mapped component list is read-only");
+    }
+
+    @Override
+    public Component remove(String name) {
+        throw new UnsupportedOperationException("mapped component list is read-only");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("mapped component list is read-only");
+    }
+
+    @Override
+    public Iterator<Component> iterator() {
+        return new Iterator<>() {
+            private int cursor;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            public Component next() {
+                if (cursor >= size) {
+                    throw new NoSuchElementException();
+                }
+                return get(cursor++);
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<Component> spliterator() {
+        return IntStream.range(0, size).mapToObj(this::get).spliterator();
+    }
+
+    /**
+     * Method returns modifiable copy of the list that is kept in memory. Components
+     * kept by the list are cloned and other components are decoded.
+     *
+     * @return copy
+     */
+    @Override
+    public synchronized ComponentList clone() {
+        checkOpen();
+        ComponentList clone = new ComponentList();
+        for (int i = 0; i < size; i++) {
+            Component component = cache.get(i);
+            clone.add(name(i), component != null ? component.clone() : decode(i));
+        }
+        return clone;
+    }
+
+    @Override
+    public ComponentList lazyClone() {
+        //components are decoded on access anyway, so copy can not share them
+        return clone();
+    }
+
+    /**
+     * Method releases decoded components and references to the mapping. The list can
+     * not be used after it is closed. Mapped buffers can not be unmapped explicitly, so
+     * the file stays mapped until garbage collector collects them, and on some platforms
+     * it can not be deleted until then.
+     */
+    @Override
+    public synchronized void close() {
+        chunks = null;
+        cache.clear();
+    }
+
+    private void checkOpen() {
+        if (chunks == null) {
+            throw new IllegalStateException("mapped component list is closed");
+        }
+    }
+
+    private Component decode(int index) {
+        long position = entries + (long) index * ENTRY;
+        reader.reset(slice(getLong(position), getInt(position + 20)));
+        try {
+            return reader.readEntry();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int indexOf(String name) {
+        Objects.requireNonNull(name, "name");
+        checkOpen();
+        int h = name.hashCode();
+        byte[] key = null;
+        for (int slot = mix(h) & hashMask; ; slot = (slot + 1) & hashMask) {
+            long position = hash + (long) slot * 8;
+            int index = getInt(position + 4);
+            if (index == 0) {
+                return -1;
+            }
+            if (getInt(position) == h) {
+                if (key == null) {
+                    key = name.getBytes(StandardCharsets.UTF_8);
+                }
+                if (nameEquals(index - 1, key)) {
+                    return index - 1;
+                }
+            }
+        }
+    }
+
+    private boolean nameEquals(int index, byte[] key) {
+        long position = getLong(entries + (long) index * ENTRY + 8);
+        ByteBuffer chunk = chunk(position);
+        int local = local(position);
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = chunk.get(local++);
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+        return length == key.length && chunk.slice(local, length).equals(ByteBuffer.wrap(key));
+    }
+
+    private ByteBuffer slice(long position, int length) {
+        return chunk(position).slice(local(position), length);
+    }
+
+    private ByteBuffer chunk(long position) {
+        return chunks[(int) (position >>> CHUNK_SHIFT)];
+    }
+
+    private static int local(long position) {
+        return (int) (position & (CHUNK - 1));
+    }
+
+    private long getLong(long position) {
+        return chunk(position).getLong(local(position));
+    }
+
+    private int getInt(long position) {
+        return chunk(position).getInt(local(position));
+    }
+
+    private static int mix(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    abstract static class Cache {
+        abstract Component get(int index);
+
+        abstract void put(int index, Component component);
+
+        abstract void clear();
+    }
+
+    private static final class StrongCache extends Cache {
+        private Component[] components;
+
+        StrongCache(int size) {
+            components = new Component[size];
+        }
+
+        @Override
+        Component get(int index) {
+            return components[index];
+        }
+
+        @Override
+        void put(int index, Component component) {
+            components[index] = component;
+        }
+
+        @Override
+        void clear() {
+            Arrays.fill(components, null);
+        }
+    }
+
+    private static final class NoCache extends Cache {
+        @Override
+        Component get(int index) {
+            return null;
+        }
+
+        @Override
+        void put(int index, Component component) {
+        }
+
+        @Override
+        void clear() {
+        }
+    }
+
+    private static final class LruCache extends Cache {
+        private final LinkedHashMap<Integer, Component> components;
+
+        LruCache(int maximumSize) {
+            components = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Component> eldest) {
+                    return size() > maximumSize;
+                }
+            };
+        }
+
+        @Override
+        Component get(int index) {
+            return components.get(index);
+        }
+
+        @Override
+        void put(int index, Component component) {
+            components.put(index, component);
+        }
+
+        @Override
+        void clear() {
+            components.clear();
+        }
+    }
+
+    private static final class SoftCache extends Cache {
+        private final SoftReference<?>[] components;
+
+        SoftCache(int size) {
+            components = new SoftReference<?>[size];
+        }
+
+        @Override
+        Component get(int index) {
+            SoftReference<?> reference = components[index];
+            return reference != null ? (Component) reference.get() : null;
+        }
+
+        @Override
+        void put(int index, Component component) {
+            components[index] = new SoftReference<>(component);
+        }
+
+        @Override
+        void clear() {
+            Arrays.fill(components, null);
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package io.github.systemfalse.jcomp;
 
-import java.util.Objects;
-import java.util.Optional;
+import io.github.systemfalse.jcomp.spi.Instrumentation;
+
+import java.util.*;
 import java.util.function.Function;
 
 /**
@@ -28,11 +29,66 @@ public interface Mapper<C1 extends Component, C2 extends Component> extends Func
      */
     ComponentType<C2> to();
 
+    /**
+     * Method maps all components of the source type contained in the given list.
+     * Mapped components keep their names and order, components of other types are
+     * skipped. The list must not be modified while it is mapped.
+     *
+     * @param list source components
+     * @return new list of mapped components
+     */
+    default ComponentList mapAll(ComponentList list) {
+        Objects.requireNonNull(list, "list");
+        ComponentType<C1> from = from();
+        ComponentList mapped = new ComponentList();
+        for (int i = 0; i < list.size(); i++) {
+            Component component = list.get(i);
+            if (from.isInstance(component)) {
+                mapped.add(list.name(i), apply(from.cast(component)));
+            }
+        }
+        return mapped;
+    }
+
+    /**
+     * Method maps given source component and pairs it with the result, so the result
+     * can be updated with {@link ComponentPair#sync()} copying only properties changed
+     * since the previous sync. Default implementation throws
+     * {@code UnsupportedOperationException}.
+     *
+     * @param source source component
+     * @return new pair
+     *
+     * @throws UnsupportedOperationException if this mapper does not support incremental mapping
+     */
+    default ComponentPair<C1, C2> pair(C1 source) {
+        throw new UnsupportedOperationException("mapper does not support incremental mapping");
+    }
+
+    /**
+     * Method pairs given source and target components, so the target can be updated with
+     * {@link ComponentPair#sync()} copying only properties changed since the previous
+     * sync. The first sync copies all mapped properties. Default implementation throws
+     * {@code UnsupportedOperationException}.
+     *
+     * @param source source component
+     * @param target target component
+     * @return new pair
+     *
+     * @throws UnsupportedOperationException if this mapper does not support incremental mapping
+     */
+    default ComponentPair<C1, C2> pair(C1 source, C2 target) {
+        throw new UnsupportedOperationException("mapper does not support incremental mapping");
+    }
+
     /**
      * Method creates default mapper.
      * <p>
      * Default mapper creates new instance of target type and setts its properties from
      * the source component only if they are of the same type and have the same name.
+     * Matching properties are resolved once per pair of component types and the
+     * resulting plan is shared by all default mappers of this pair. Default mapper
+     * supports incremental mapping with {@link #pair(Component, Component)}.
      * </p>
      *
      * @param from source component type
@@ -49,20 +105,132 @@ public interface Mapper<C1 extends Component, C2 extends Component> extends Func
     }
 }
 
-record DefaultMapper<C1 extends Component, C2 extends Component>(ComponentType<C1> from,
-                                                                 ComponentType<C2> to) implements Mapper<C1, C2> {
+final class DefaultMapper<C1 extends Component, C2 extends Component> implements Mapper<C1, C2> {
+    /**
+     * Plans by source and target types. Types are held weakly, so plans do not keep
+     * types and their class loaders reachable. Access is synchronized on the map.
+     */
+    private static final Map<ComponentType<?>, Map<ComponentType<?>, MappingPlan>> PLANS = new WeakHashMap<>();
+
+    private final ComponentType<C1> from;
+    private final ComponentType<C2> to;
+    private MappingPlan plan;
+
+    DefaultMapper(ComponentType<C1> from, ComponentType<C2> to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public ComponentType<C1> from() {
+        return from;
+    }
+
+    @Override
+    public ComponentType<C2> to() {
+        return to;
+    }
+
     @Override
     public C2 apply(C1 comp) {
+        if (!Instrumentation.ENABLED) {
+            return map(comp);
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            C2 mapped = map(comp);
+            failed = false;
+            return mapped;
+        } finally {
+            stats().record(start, failed);
+        }
+    }
+
+    private C2 map(C1 comp) {
         var mapped = to.initialize().get();
-        for (var property : to.properties()) {
-            Optional<Property<?>> o1 = comp.property(property), o2 = mapped.property(property);
-            if (o1.isPresent() && o2.isPresent()) {
-                Property<?> p1 = o1.get(), p2 = o2.get();
-                if (p2.type().isAssignableFrom(p1.type())) {
-                    p2.set(p1.get());
+        plan().apply(comp, mapped);
+        return mapped;
+    }
+
+    private Instrumentation.Stats stats() {
+        return Instrumentation.stats(from, MetricsSnapshot.Kind.MAP, to.getTypeName());
+    }
+
+    @Override
+    public ComponentList mapAll(ComponentList list) {
+        Objects.requireNonNull(list, "list");
+        ComponentList result = new ComponentList();
+        for (int i = 0; i < list.size(); i++) {
+            Component component = list.get(i);
+            if (from.isInstance(component)) {
+                //plan is resolved once by the first mapping and then read from the field
+                result.add(list.name(i), apply(from.cast(component)));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public ComponentPair<C1, C2> pair(C1 source) {
+        Objects.requireNonNull(source, "source");
+        long start = Instrumentation.ENABLED ? System.nanoTime() : 0;
+        //pair observes the source before the first copy, so no change is missed in between
+        var pair = new ComponentPair<>(source, to.initialize().get(), plan());
+        pair.sync();
+        if (Instrumentation.ENABLED) {
+            stats().record(start, false);
+        }
+        return pair;
+    }
+
+    @Override
+    public ComponentPair<C1, C2> pair(C1 source, C2 target) {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(target, "target");
+        return new ComponentPair<>(source, target, plan());
+    }
+
+    /**
+     * Method returns mapping plan of this pair of types. Plan is compiled from the
+     * types once and then shared through the registry.
+     *
+     * @return mapping plan
+     */
+    private MappingPlan plan() {
+        MappingPlan plan = this.plan;
+        if (plan == null) {
+            synchronized (PLANS) {
+                Map<ComponentType<?>, MappingPlan> plans = PLANS.get(from);
+                plan = plans != null ? plans.get(to) : null;
+            }
+            if (plan == null) {
+                //plan is compiled outside the lock, because types run code of components
+                MappingPlan compiled = MappingPlan.compile(from, to);
+                synchronized (PLANS) {
+                    plan = PLANS.computeIfAbsent(from, k -> new WeakHashMap<>()).putIfAbsent(to, compiled);
+                }
+                if (plan == null) {
+                    plan = compiled;
                 }
             }
+            this.plan = plan;
         }
-        return mapped;
+        return plan;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DefaultMapper<?, ?> m && from.equals(m.from) && to.equals(m.to);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * from.hashCode() + to.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "DefaultMapper[from=" + from + ", to=" + to + "]";
     }
 }
@@ -0,0 +1,113 @@
+package io.github.systemfalse.jcomp;
+
+import io.github.systemfalse.jcomp.spi.IndexedComponent;
+
+import java.util.*;
+
+/**
+ * Precompiled list of properties copied by {@link DefaultMapper}. Only properties
+ * that exist in both types, are writable in the target and have assignable types
+ * are included. If components of both types are {@link IndexedComponent}, properties
+ * are copied by slots, otherwise by names.
+ */
+final class MappingPlan {
+    private final String[] names;
+    private final int[] sourceSlots;
+    private final int[] targetSlots;
+    private final Map<String, Integer> positions;
+
+    private MappingPlan(String[] names, int[] sourceSlots, int[] targetSlots) {
+        this.names = names;
+        this.sourceSlots = sourceSlots;
+        this.targetSlots = targetSlots;
+        positions = new HashMap<>(Math.max(16, names.length * 4 / 3 + 1));
+        for (int i = 0; i < names.length; i++) {
+            positions.put(names[i], i);
+        }
+    }
+
+    /**
+     * Method compiles plan of given types. Properties are resolved from the keys of the
+     * types, so no component is created and the plan does not depend on the components
+     * that are mapped. Properties of types whose keys have {@code Object} type are copied
+     * only to properties with {@code Object} type.
+     *
+     * @param from source type
+     * @param to target type
+     * @return mapping plan
+     */
+    static MappingPlan compile(ComponentType<?> from, ComponentType<?> to) {
+        List<PropertyKey<?>> sources = new ArrayList<>(), targets = new ArrayList<>();
+        for (var property : to.properties()) {
+            if (!from.properties().contains(property)) {
+                continue;
+            }
+            Optional<PropertyKey<?>> o1 = from.key(property), o2 = to.key(property);
+            if (o1.isPresent() && o2.isPresent()) {
+                PropertyKey<?> k1 = o1.get(), k2 = o2.get();
+                if (!k2.readOnly() && k2.type().isAssignableFrom(k1.type())) {
+                    sources.add(k1);
+                    targets.add(k2);
+                }
+            }
+        }
+        String[] names = sources.stream().map(PropertyKey::name).toArray(String[]::new);
+        if (indexed(from) && indexed(to)) {
+            int[] sourceSlots = new int[names.length], targetSlots = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                sourceSlots[i] = sources.get(i).index();
+                targetSlots[i] = targets.get(i).index();
+            }
+            return new MappingPlan(names, sourceSlots, targetSlots);
+        }
+        return new MappingPlan(names, null, null);
+    }
+
+    /**
+     * Method checks whether components of given type are {@link IndexedComponent}, so
+     * indices of their keys are their slots.
+     *
+     * @param type component type
+     * @return {@code true} if components of the type are indexed
+     */
+    private static boolean indexed(ComponentType<?> type) {
+        Class<?> component = type.componentClass();
+        return component != null && IndexedComponent.class.isAssignableFrom(component);
+    }
+
+    void apply(Component source, Component target) {
+        if (sourceSlots != null && source instanceof IndexedComponent s && target instanceof IndexedComponent t) {
+            for (int i = 0; i < sourceSlots.length; i++) {
+                t.set(targetSlots[i], s.get(sourceSlots[i]));
+            }
+        } else {
+            for (String name : names) {
+                target.set(name, source.get(name));
+            }
+        }
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    int indexOf(String name) {
+        Integer position = positions.get(name);
+        return position != null ? position : -1;
+    }
+
+    Object read(Component source, int position) {
+        if (sourceSlots != null && source instanceof IndexedComponent s) {
+            return s.get(sourceSlots[position]);
+        }
+        return source.get(names[position]);
+    }
+
+    void write(Component target, int position, Object value) {
+        if (targetSlots != null && target instanceof IndexedComponent t) {
+            t.set(targetSlots[position], value);
+        } else {
+            target.set(names[position], value);
+        }
+    }
+}
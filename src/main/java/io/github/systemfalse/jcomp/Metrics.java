@@ -0,0 +1,107 @@
+package io.github.systemfalse.jcomp;
+
+import io.github.systemfalse.jcomp.spi.Instrumentation;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Class contains methods that read metrics of actions, properties and mappings. Metrics
+ * are recorded only when system property {@code jcomp.metrics} is {@code true} at
+ * startup. When it is not set, instrumented code checks a constant, which the JIT
+ * compiler removes, so recording costs nothing.
+ * <p>
+ * Metrics are kept per {@link ComponentType} and name of an action or property:
+ * </p>
+ * <ul>
+ *     <li>actions of generated components and of {@link ComponentFactory} count calls,
+ *     failures with {@link ActionException} and latency;</li>
+ *     <li>writes of properties of generated components count calls and time of change
+ *     notification, reads are only counted;</li>
+ *     <li>{@link Mapper#defaultMapper(ComponentType, ComponentType) default mappers} count
+ *     mapped components and latency, keyed by source type and target type name.</li>
+ * </ul>
+ * <p>
+ * Counters are striped, so recording from many threads does not contend.
+ * </p>
+ *
+ * @see MetricsSnapshot
+ * @see MetricsExporter
+ */
+public final class Metrics {
+    private static final List<MetricsExporter> EXPORTERS = new CopyOnWriteArrayList<>();
+
+    private Metrics() {
+    }
+
+    private static final class Loaded {
+        static final List<MetricsExporter> INSTANCE = ServiceLoader.load(MetricsExporter.class).stream()
+                .map(ServiceLoader.Provider::get).toList();
+    }
+
+    /**
+     * Method checks whether metrics are recorded.
+     *
+     * @return {@code true} if metrics are recorded, {@code false} otherwise
+     */
+    public static boolean isEnabled() {
+        return Instrumentation.ENABLED;
+    }
+
+    /**
+     * Method returns snapshots of metrics recorded since start or last reset. Counters
+     * keep changing while snapshots are taken, so a snapshot may be slightly behind.
+     *
+     * @return list of snapshots, empty if metrics are not recorded
+     */
+    public static List<MetricsSnapshot> snapshot() {
+        return Instrumentation.ENABLED ? List.copyOf(Instrumentation.snapshot()) : List.of();
+    }
+
+    /**
+     * Method resets all recorded metrics to zero.
+     */
+    public static void reset() {
+        if (Instrumentation.ENABLED) {
+            Instrumentation.reset();
+        }
+    }
+
+    /**
+     * Method adds exporter that receives snapshots on {@link #export()}.
+     *
+     * @param exporter exporter
+     */
+    public static void addExporter(MetricsExporter exporter) {
+        EXPORTERS.add(Objects.requireNonNull(exporter, "exporter"));
+    }
+
+    /**
+     * Method removes exporter added with {@link #addExporter(MetricsExporter)}.
+     *
+     * @param exporter exporter
+     */
+    public static void removeExporter(MetricsExporter exporter) {
+        EXPORTERS.remove(exporter);
+    }
+
+    /**
+     * Method takes snapshot of metrics and passes it to exporters found with
+     * {@link ServiceLoader} and to added exporters. Nothing is exported if metrics are
+     * not recorded.
+     */
+    public static void export() {
+        if (!Instrumentation.ENABLED) {
+            return;
+        }
+        List<MetricsSnapshot> snapshots = snapshot();
+        for (MetricsExporter exporter : Loaded.INSTANCE) {
+            exporter.export(snapshots);
+        }
+        for (MetricsExporter exporter : EXPORTERS) {
+            exporter.export(snapshots);
+        }
+    }
+}
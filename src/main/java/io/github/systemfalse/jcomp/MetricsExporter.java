@@ -0,0 +1,19 @@
+package io.github.systemfalse.jcomp;
+
+import java.util.List;
+
+/**
+ * This interface represents exporter of collected metrics, for example to a logging or
+ * monitoring system. Exporters are found with {@link java.util.ServiceLoader} or added
+ * with {@link Metrics#addExporter(MetricsExporter)}, and receive snapshots on each call
+ * of {@link Metrics#export()}.
+ */
+@FunctionalInterface
+public interface MetricsExporter {
+    /**
+     * Method exports snapshots of all recorded metrics.
+     *
+     * @param snapshots metrics snapshots
+     */
+    void export(List<MetricsSnapshot> snapshots);
+}
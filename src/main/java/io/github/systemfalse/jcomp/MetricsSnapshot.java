@@ -0,0 +1,127 @@
+package io.github.systemfalse.jcomp;
+
+import java.util.Objects;
+
+/**
+ * Record contains metrics of one action, property or mapping of a component type
+ * collected since start or last {@link Metrics#reset()}.
+ * <p>
+ * Latency histogram has {@value #BUCKETS} buckets. Bucket {@code i} counts calls that
+ * took less than {@code 2^i} nanoseconds and at least {@code 2^(i-1)}, last bucket
+ * counts all longer calls. Property reads are only counted and have empty histogram.
+ * </p>
+ *
+ * @param type component type
+ * @param kind kind of the operation
+ * @param name name of the action or property, or type name of mapping target
+ * @param count number of calls
+ * @param failures number of calls that threw an exception
+ * @param totalNanos total time of calls in nanoseconds
+ * @param histogram latency histogram
+ */
+public record MetricsSnapshot(ComponentType<?> type, Kind kind, String name, long count, long failures,
+                              long totalNanos, long[] histogram) {
+    /**
+     * Number of buckets of latency histogram.
+     */
+    public static final int BUCKETS = 40;
+
+    /**
+     * Kind of the measured operation.
+     */
+    public enum Kind {
+        /**
+         * Read of a property by name, slot or key.
+         */
+        GET,
+        /**
+         * Write of a property, including notification of change observers.
+         */
+        SET,
+        /**
+         * Action performed directly or through {@link ActionContext}.
+         */
+        ACTION,
+        /**
+         * Mapping of a component by {@link Mapper#defaultMapper(ComponentType, ComponentType) default mapper}.
+         */
+        MAP
+    }
+
+    /**
+     * Canonical constructor checks arguments.
+     *
+     * @param type component type
+     * @param kind kind of the operation
+     * @param name name of the action or property, or type name of mapping target
+     * @param count number of calls
+     * @param failures number of calls that threw an exception
+     * @param totalNanos total time of calls in nanoseconds
+     * @param histogram latency histogram
+     */
+    public MetricsSnapshot {
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(kind, "kind");
+        Objects.requireNonNull(name, "name");
+        histogram = Objects.requireNonNull(histogram, "histogram").clone();
+    }
+
+    /**
+     * Method returns copy of latency histogram.
+     *
+     * @return latency histogram
+     */
+    @Override
+    public long[] histogram() {
+        return histogram.clone();
+    }
+
+    /**
+     * Method returns part of calls that threw an exception.
+     *
+     * @return failure rate from 0 to 1
+     */
+    public double failureRate() {
+        return count == 0 ? 0 : (double) failures / count;
+    }
+
+    /**
+     * Method returns mean latency of calls.
+     *
+     * @return mean latency in nanoseconds
+     */
+    public double meanNanos() {
+        return count == 0 ? 0 : (double) totalNanos / count;
+    }
+
+    /**
+     * Method returns upper bound of latency of given part of calls, estimated from the
+     * histogram.
+     *
+     * @param quantile quantile from 0 to 1
+     * @return latency in nanoseconds, {@code Long.MAX_VALUE} if it is beyond the last bucket
+     * or {@code 0} if there are no timed calls
+     *
+     * @throws IllegalArgumentException if quantile is out of range
+     */
+    public long percentileNanos(double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) {
+            throw new IllegalArgumentException("quantile must be from 0 to 1");
+        }
+        long total = 0;
+        for (long bucket : histogram) {
+            total += bucket;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total)), seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return i == histogram.length - 1 ? Long.MAX_VALUE : 1L << i;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
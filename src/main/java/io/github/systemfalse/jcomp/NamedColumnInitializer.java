@@ -0,0 +1,63 @@
+package io.github.systemfalse.jcomp;
+
+import io.github.systemfalse.jcomp.internal.Columns;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Column initializer that sets properties by their names. Initializer does not know
+ * the type of its components, so properties are checked against the type of the first
+ * created component.
+ *
+ * @param <C> component type
+ */
+final class NamedColumnInitializer<C extends Component> implements ColumnInitializer<C> {
+    private final Initializer<C> initializer;
+    private final String[] properties;
+    private ComponentType<?> checked;
+
+    NamedColumnInitializer(Initializer<C> initializer, String... properties) {
+        this.initializer = Objects.requireNonNull(initializer, "initializer");
+        this.properties = properties.clone();
+        for (String property : this.properties) {
+            Objects.requireNonNull(property, "property");
+        }
+    }
+
+    @Override
+    public List<String> properties() {
+        return List.of(properties);
+    }
+
+    @Override
+    public List<C> create(Object... columns) {
+        int rows = Columns.rows(properties.length, columns);
+        Columns.Accessor[] accessors = Columns.accessors(columns);
+        List<C> components = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            C component = initializer.get();
+            check(component.type());
+            for (int i = 0; i < properties.length; i++) {
+                component.set(properties[i], accessors[i].get(row));
+            }
+            components.add(component);
+        }
+        return components;
+    }
+
+    private void check(ComponentType<?> type) {
+        if (type == checked) {
+            return;
+        }
+        Set<String> names = type.properties();
+        for (String property : properties) {
+            if (!names.contains(property)) {
+                throw new IllegalArgumentException("No such property: \"" + property + "\"");
+            }
+        }
+        checked = type;
+    }
+}
@@ -48,6 +48,40 @@ public interface Property<T> extends Cloneable {
      */
     boolean isReadOnly();
 
+    /**
+     * Method returns version of the value of this property. Version is changed every time
+     * the value is set, so equal versions mean that the value was not changed between
+     * two reads. Properties that can not track their changes return {@code -1}.
+     * Default implementation returns {@code -1}.
+     *
+     * @return version of the value or {@code -1} if version is not tracked
+     */
+    default long version() {
+        return -1;
+    }
+
+    /**
+     * Method registers observer that is called every time value of this property is set.
+     * Default implementation throws {@code UnsupportedOperationException}.
+     *
+     * @param observer observer
+     *
+     * @throws UnsupportedOperationException if this property can not be observed
+     * @see ChangeDispatcher
+     */
+    default void observe(ChangeObserver observer) {
+        throw new UnsupportedOperationException("property can not be observed");
+    }
+
+    /**
+     * Method removes observer registered with {@link #observe(ChangeObserver)}. Default
+     * implementation does nothing.
+     *
+     * @param observer observer
+     */
+    default void unobserve(ChangeObserver observer) {
+    }
+
     /**
      * Method sets value of this property. If this property is read-only, an
      * {@code UnsupportedOperationException} is thrown.
@@ -90,6 +124,43 @@ public interface Property<T> extends Cloneable {
         return new WritableMappedProperty<>(type, this, forward, backward);
     }
 
+    /**
+     * Method returns new read-only property that is mapped to the given type and
+     * remembers converted value. Converter is applied again only when {@link #version()}
+     * of this property changes, or on every read if this property does not track its
+     * version. Mapping of another memoized property is merged with it, so reading
+     * a chain of memoized mappings checks version of the original property once.
+     *
+     * @param type target type
+     * @param converter converter
+     * @return memoized mapped property
+     * @param <R> target type
+     */
+    default <R> Property<R> mapMemoized(Class<R> type, Function<T, R> converter) {
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(converter, "converter");
+        return ReadOnlyMappedProperty.memoized(type, this, converter);
+    }
+
+    /**
+     * Method returns new property that is mapped to the given type and remembers
+     * converted value. Forward converter is applied again only when {@link #version()}
+     * of this property changes, or on every read if this property does not track its
+     * version. Mapping of another writable memoized property is merged with it.
+     *
+     * @param type target type
+     * @param forward converter from the original type to the new type
+     * @param backward converter from the new type to the original type
+     * @return memoized mapped property
+     * @param <R> target type
+     */
+    default <R> Property<R> mapMemoized(Class<R> type, Function<T, R> forward, Function<R, T> backward) {
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(forward, "forward");
+        Objects.requireNonNull(backward, "backward");
+        return WritableMappedProperty.memoized(type, this, forward, backward);
+    }
+
     /**
      * Method returns a copy of this property. New property has the same value as original,
      * but it is but not linked with the original property.
@@ -98,6 +169,18 @@ public interface Property<T> extends Cloneable {
      */
     Property<T> clone();
 
+    /**
+     * Method returns a copy of this property that shares the value with this property
+     * instead of copying it. Setting new value of either property never affects the
+     * other one, but the value object itself is shared, so mutable values should be
+     * copied with {@link #clone()} instead. Default implementation returns {@link #clone()}.
+     *
+     * @return a lazy copy of this property
+     */
+    default Property<T> lazyClone() {
+        return clone();
+    }
+
     /**
      * Method returns read-only version of this property. If property is already
      * read-only, it is returned as is.
@@ -142,6 +225,21 @@ class ReadOnlyProperty<T> implements Property<T> {
         return true;
     }
 
+    @Override
+    public long version() {
+        return property.version();
+    }
+
+    @Override
+    public void observe(ChangeObserver observer) {
+        property.observe(observer);
+    }
+
+    @Override
+    public void unobserve(ChangeObserver observer) {
+        property.unobserve(observer);
+    }
+
     @Override
     public void set(Object value) {
         throw new UnsupportedOperationException("unmodifiable property");
@@ -166,11 +264,32 @@ class ReadOnlyMappedProperty<T1, T2> implements Property<T2> {
     final Class<T2> type;
     Property<T1> property;
     final Function<T1, T2> forward;
+    final boolean memoize;
+    Memo<T2> memo;
+
+    record Memo<T>(long version, T value) {}
 
     ReadOnlyMappedProperty(Class<T2> type, Property<T1> property, Function<T1, T2> forward) {
+        this(type, property, forward, false);
+    }
+
+    ReadOnlyMappedProperty(Class<T2> type, Property<T1> property, Function<T1, T2> forward, boolean memoize) {
         this.type = type;
         this.property = property;
         this.forward = forward;
+        this.memoize = memoize;
+    }
+
+    static <T1, T2> Property<T2> memoized(Class<T2> type, Property<T1> property, Function<T1, T2> forward) {
+        if (property instanceof ReadOnlyMappedProperty<?, T1> mapped && mapped.memoize) {
+            return merge(type, mapped, forward);
+        }
+        return new ReadOnlyMappedProperty<>(type, property, forward, true);
+    }
+
+    private static <T0, T1, T2> Property<T2> merge(Class<T2> type, ReadOnlyMappedProperty<T0, T1> mapped,
+                                                   Function<T1, T2> forward) {
+        return new ReadOnlyMappedProperty<>(type, mapped.property, mapped.forward.andThen(forward), true);
     }
 
     @Override
@@ -185,7 +304,32 @@ class ReadOnlyMappedProperty<T1, T2> implements Property<T2> {
 
     @Override
     public T2 get() {
-        return forward.apply(property.get());
+        if (!memoize) {
+            return forward.apply(property.get());
+        }
+        //version is read before the value, so concurrent change is noticed on next read
+        long version = property.version();
+        Memo<T2> memo = this.memo;
+        if (version < 0 || memo == null || memo.version() != version) {
+            memo = new Memo<>(version, forward.apply(property.get()));
+            this.memo = memo;
+        }
+        return memo.value();
+    }
+
+    @Override
+    public long version() {
+        return property.version();
+    }
+
+    @Override
+    public void observe(ChangeObserver observer) {
+        property.observe(observer);
+    }
+
+    @Override
+    public void unobserve(ChangeObserver observer) {
+        property.unobserve(observer);
     }
 
     @Override
@@ -209,6 +353,7 @@ class ReadOnlyMappedProperty<T1, T2> implements Property<T2> {
             throw new RuntimeException(e);
         }
         clone.property = property.clone();
+        clone.memo = null;
         return clone;
     }
 }
@@ -217,10 +362,29 @@ class WritableMappedProperty<T1, T2> extends ReadOnlyMappedProperty<T1, T2> {
     final Function<T2, T1> backward;
 
     WritableMappedProperty(Class<T2> type, Property<T1> property, Function<T1, T2> forward, Function<T2, T1> backward) {
-        super(type, property, forward);
+        this(type, property, forward, backward, false);
+    }
+
+    WritableMappedProperty(Class<T2> type, Property<T1> property, Function<T1, T2> forward, Function<T2, T1> backward,
+                           boolean memoize) {
+        super(type, property, forward, memoize);
         this.backward = backward;
     }
 
+    static <T1, T2> Property<T2> memoized(Class<T2> type, Property<T1> property, Function<T1, T2> forward,
+                                          Function<T2, T1> backward) {
+        if (property instanceof WritableMappedProperty<?, T1> mapped && mapped.memoize) {
+            return merge(type, mapped, forward, backward);
+        }
+        return new WritableMappedProperty<>(type, property, forward, backward, true);
+    }
+
+    private static <T0, T1, T2> Property<T2> merge(Class<T2> type, WritableMappedProperty<T0, T1> mapped,
+                                                   Function<T1, T2> forward, Function<T2, T1> backward) {
+        return new WritableMappedProperty<>(type, mapped.property, mapped.forward.andThen(forward),
+                backward.andThen(mapped.backward), true);
+    }
+
     @Override
     public boolean isReadOnly() {
         return false;
@@ -0,0 +1,47 @@
+package io.github.systemfalse.jcomp;
+
+import java.util.Objects;
+
+/**
+ * Handle of a component property resolved once from a {@link ComponentType} with
+ * {@link ComponentType#key(String, Class)}. Keys are used with
+ * {@link Component#get(PropertyKey)} and {@link Component#set(PropertyKey, Object)}
+ * to access properties without resolving their names on every access.
+ * <p>
+ * Components of the owner type may access the property directly by its index.
+ * Keys with negative index or keys of other types are resolved by name.
+ * </p>
+ *
+ * @param owner type that resolved this key
+ * @param name name of the property
+ * @param type class of the property value
+ * @param index index of the property in the owner type or {@code -1}
+ * @param readOnly whether the property of components of the owner type can not be set
+ * @param <T> type of the property
+ */
+public record PropertyKey<T>(ComponentType<?> owner, String name, Class<T> type, int index, boolean readOnly) {
+    /**
+     * Constructor that checks given values.
+     *
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public PropertyKey {
+        Objects.requireNonNull(owner, "owner");
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(type, "type");
+    }
+
+    /**
+     * Constructor that creates key of a writable property.
+     *
+     * @param owner type that resolved this key
+     * @param name name of the property
+     * @param type class of the property value
+     * @param index index of the property in the owner type or {@code -1}
+     *
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public PropertyKey(ComponentType<?> owner, String name, Class<T> type, int index) {
+        this(owner, name, type, index, false);
+    }
+}
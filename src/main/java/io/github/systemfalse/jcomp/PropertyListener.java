@@ -0,0 +1,18 @@
+package io.github.systemfalse.jcomp;
+
+/**
+ * This interface represents listener of property changes registered with
+ * {@link ChangeDispatcher}. Listener is notified once per flush no matter how many
+ * times the property was set since the previous flush.
+ *
+ * @param <T> type of the property
+ */
+@FunctionalInterface
+public interface PropertyListener<T> {
+    /**
+     * Method is called when the property was changed since the previous flush.
+     *
+     * @param property changed property
+     */
+    void changed(Property<T> property);
+}
@@ -12,9 +12,30 @@ import java.lang.annotation.*;
 public @interface ChildRef {
     /**
      * Defines type of child component. If field has common type (like {@code
-     * Component}), this value is used to initialize child component.
+     * Component}), this value is used to initialize child component. Value is
+     * qualified name of component class with static field {@code TYPE}, like
+     * classes generated by {@link ComponentProcessor}.
      *
      * @return child component type
      */
     String type() default "";
+
+    /**
+     * Defines whether child component is created when it is accessed through
+     * {@link io.github.systemfalse.jcomp.Component#children()} for the first time
+     * instead of when the parent is created. Lazy child must define {@link #type()},
+     * and queries of children by this type do not create it.
+     * <p>
+     * Generated component has public method without parameters named like the field,
+     * which returns the child from the children list, creating it if necessary, and can
+     * be called from any thread. The method stores the child in the field, so the field
+     * is {@code null} until the method is called for the first time.
+     * If the definition class declares such method, it must be overridable and return
+     * type of the field, and the generated method overrides it, so the definition class
+     * can use it instead of the field.
+     * </p>
+     *
+     * @return {@code true} if child is created lazily
+     */
+    boolean lazy() default false;
 }
@@ -0,0 +1,605 @@
+package io.github.systemfalse.jcomp.annotations;
+
+import io.github.systemfalse.jcomp.annotations.ComponentModel.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes sources of component and component type classes from {@link ComponentModel}.
+ * Generated code uses only fully qualified names, so it does not clash with names
+ * declared in the component definition.
+ */
+final class ComponentGenerator {
+    private static final String JCOMP = "io.github.systemfalse.jcomp.";
+    private static final String SPI = JCOMP + "spi.";
+
+    private final StringBuilder out = new StringBuilder();
+    private int indent;
+
+    private ComponentGenerator() {
+
+    }
+
+    static String component(ComponentModel model) {
+        ComponentGenerator g = new ComponentGenerator();
+        g.header(model);
+        String name = model.componentName();
+        g.line("public class " + name + " extends " + model.definition() + " implements " + SPI + "IndexedComponent {");
+        g.line("public static final " + model.typeName() + " TYPE = new " + model.typeName() + "();");
+        g.line();
+        g.componentFields(model);
+        g.line();
+        g.line("public " + name + "() {");
+        g.line("super();");
+        for (ChildModel child : model.children()) {
+            if (child.initializer() != null && !child.lazy()) {
+                g.line("if (this." + child.name() + " == null) this." + child.name() + " = " + cast(child)
+                        + child.initializer() + ";");
+            }
+        }
+        g.line("children$ = new " + JCOMP + "ComponentList();");
+        for (ChildModel child : model.children()) {
+            g.line("if (this." + child.name() + " != null) children$.add(\"" + child.name() + "\", this." + child.name() + ");");
+            if (child.lazy()) {
+                g.line("else children$.addLazy(\"" + child.name() + "\", " + child.type() + ".TYPE, this::create$"
+                        + child.name() + ");");
+            }
+        }
+        g.line("}");
+        g.line();
+        g.line("@Override");
+        g.line("public " + model.typeName() + " type() {");
+        g.line("return TYPE;");
+        g.line("}");
+        g.line();
+        g.clone(model, "clone");
+        g.clone(model, "lazyClone");
+        g.lazyChildren(model);
+        g.properties(model);
+        g.actions(model);
+        g.line("@Override");
+        g.line("public <C extends " + JCOMP + "Component> C as(" + JCOMP + "ComponentType<C> type) {");
+        g.line("return " + JCOMP + "Mapper.defaultMapper(TYPE, type).apply(this);");
+        g.line("}");
+        g.line();
+        g.line("@Override");
+        g.line("public " + JCOMP + "ComponentList children() {");
+        g.line("return children$;");
+        g.line("}");
+        g.line("}");
+        return g.out.toString();
+    }
+
+    static String type(ComponentModel model) {
+        ComponentGenerator g = new ComponentGenerator();
+        g.header(model);
+        String name = model.componentName(), qualified = qualified(model, name);
+        g.line("public final class " + model.typeName() + " implements " + JCOMP + "ComponentType<" + name + "> {");
+        g.line("private static final java.util.Set<String> PROPERTIES = " + set(model.properties().stream()
+                .map(PropertyModel::name).toList()) + ";");
+        g.line("private static final java.util.Set<String> ACTIONS = " + set(model.actions().stream()
+                .map(ActionModel::name).toList()) + ";");
+        g.line();
+        g.line("private final " + JCOMP + "PropertyKey<?>[] keys = {" + keys(model) + "};");
+        g.line();
+        g.line(model.typeName() + "() {");
+        g.line();
+        g.line("}");
+        g.line();
+        g.line("static int slot(String property) {");
+        g.line("switch (property) {");
+        for (int i = 0; i < model.properties().size(); i++) {
+            g.line("case \"" + model.properties().get(i).name() + "\": return " + i + ";");
+        }
+        g.line("default: return -1;");
+        g.line("}");
+        g.line("}");
+        g.line();
+        g.line("@Override");
+        g.line("public boolean isInstance(" + JCOMP + "Component comp) {");
+        g.line("return comp instanceof " + name + ";");
+        g.line("}");
+        g.line();
+        g.line("@Override");
+        g.line("public Class<" + name + "> componentClass() {");
+        g.line("return " + name + ".class;");
+        g.line("}");
+        g.line();
+        g.line("@Override");
+        g.line("public java.util.Set<String> properties() {");
+        g.line("return PROPERTIES;");
+        g.line("}");
+        g.line();
+        g.line("@Override");
+        g.line("public java.util.Optional<" + JCOMP + "PropertyKey<?>> key(String property) {");
+        g.line("int slot = slot(property);");
+        g.line("return slot >= 0 ? java.util.Optional.of(keys[slot]) : java.util.Optional.empty();");
+        g.line("}");
+        g.line();
+        g.line("@Override");
+        g.line("public java.util.Set<String> actions() {");
+        g.line("return ACTIONS;");
+        g.line("}");
+        g.line();
+        g.line("@Override");
+        g.line("public " + name + " cast(" + JCOMP + "Component comp) {");
+        g.line("return (" + name + ") comp;");
+        g.line("}");
+        g.line();
+        g.line("@Override");
+        g.line("public " + JCOMP + "Initializer<" + name + "> initialize() {");
+        g.line("return new " + SPI + "SlotInitializer<>(" + name + "::new, " + model.typeName() + "::slot);");
+        g.line("}");
+        g.line();
+        g.line("@Override");
+        g.line("public String getTypeName() {");
+        g.line("return \"" + qualified + "\";");
+        g.line("}");
+        g.line();
+        g.line("@Override");
+        g.line("public String toString() {");
+        g.line("return getTypeName();");
+        g.line("}");
+        g.line("}");
+        return g.out.toString();
+    }
+
+    private void header(ComponentModel model) {
+        line("// Generated by " + ComponentProcessor.class.getName() + " from " + model.definition() + ". Do not edit.");
+        if (!model.packageName().isEmpty()) {
+            line("package " + model.packageName() + ";");
+        }
+        line();
+    }
+
+    private void componentFields(ComponentModel model) {
+        line("private static final String[] PROPERTY_NAMES$ = {" + model.properties().stream()
+                .map(p -> "\"" + p.name() + "\"").collect(Collectors.joining(", ")) + "};");
+        line("private static final Class<?>[] PROPERTY_TYPES$ = {" + model.properties().stream()
+                .map(PropertyModel::classLiteral).collect(Collectors.joining(", ")) + "};");
+        line("private static final boolean[] PROPERTY_READ_ONLY$ = {" + model.properties().stream()
+                .map(p -> String.valueOf(p.readOnly())).collect(Collectors.joining(", ")) + "};");
+        for (int i = 0; i < model.actions().size(); i++) {
+            ActionModel action = model.actions().get(i);
+            if (action.shared()) {
+                line("private static final " + SPI + "ParameterBinder BINDER$" + i + " = " + binder(action) + ";");
+            }
+        }
+        line();
+        line("private transient " + JCOMP + "Property<?>[] properties$;");
+        line("private transient " + JCOMP + "Action<?>[] actions$;");
+        line("private transient " + JCOMP + "ComponentList children$;");
+        line("private transient " + JCOMP + "ChangeObserver[] observers$;");
+        line("private transient long version$;");
+        if (model.children().stream().anyMatch(ChildModel::lazy)) {
+            line();
+            childHandles(model);
+        }
+    }
+
+    private void childHandles(ComponentModel model) {
+        for (ChildModel child : model.children()) {
+            if (child.lazy()) {
+                line("private static final java.lang.invoke.VarHandle CHILD$" + child.name() + ";");
+            }
+        }
+        line();
+        line("static {");
+        line("try {");
+        line("java.lang.invoke.MethodHandles.Lookup lookup = java.lang.invoke.MethodHandles.lookup();");
+        for (ChildModel child : model.children()) {
+            if (child.lazy()) {
+                line("CHILD$" + child.name() + " = lookup.findVarHandle(" + model.componentName() + ".class, \""
+                        + child.name() + "\", " + child.castType() + ".class);");
+            }
+        }
+        line("} catch (ReflectiveOperationException e) {");
+        line("throw new ExceptionInInitializerError(e);");
+        line("}");
+        line("}");
+    }
+
+    /**
+     * Method generates factories and accessors of lazy children. Factory publishes the
+     * child to its field with release semantics, and accessor reads the field with
+     * acquire semantics, so it can be called from any thread.
+     *
+     * @param model component model
+     */
+    private void lazyChildren(ComponentModel model) {
+        for (ChildModel child : model.children()) {
+            if (!child.lazy()) {
+                continue;
+            }
+            String handle = "CHILD$" + child.name();
+            //factory does not publish the child, because the list may create it without storing it
+            line("private " + child.castType() + " create$" + child.name() + "() {");
+            line("return " + cast(child) + child.initializer() + ";");
+            line("}");
+            line();
+            if (child.overrides()) {
+                line("@Override");
+            }
+            line("public " + child.castType() + " " + child.name() + "() {");
+            line(child.castType() + " child = (" + child.castType() + ") " + handle + ".getAcquire(this);");
+            line("if (child == null && children$.contains(\"" + child.name() + "\")) {");
+            line("child = " + cast(child) + "children$.get(\"" + child.name() + "\");");
+            line(handle + ".setRelease(this, child);");
+            line("}");
+            line("return child;");
+            line("}");
+            line();
+        }
+    }
+
+    private static String binder(ActionModel action) {
+        return SPI + "ParameterBinder.of(java.util.List.of(" + action.presets().stream()
+                .map(ComponentGenerator::preset).collect(Collectors.joining(", ")) + "))";
+    }
+
+    private static String preset(PresetModel preset) {
+        return "java.util.List.<" + JCOMP + "Parameter>of(" + preset.parameters().stream()
+                .map(ComponentGenerator::parameter).collect(Collectors.joining(", ")) + ")";
+    }
+
+    private static String parameter(ParameterModel p) {
+        String prefix = p.classLiteral() + ", \"" + p.name() + "\", ";
+        if (p.defaultValue() == null) {
+            return "new " + SPI + "SimpleParameter(" + prefix + p.required() + ", null)";
+        } else if (p.computed()) {
+            return "new " + SPI + "SimpleParameter(" + prefix + "false, args -> " + p.defaultValue() + ")";
+        }
+        return SPI + "SimpleParameter.optional(" + prefix + p.defaultValue() + ")";
+    }
+
+    private void clone(ComponentModel model, String method) {
+        String name = model.componentName();
+        line("@Override");
+        line("public " + name + " " + method + "() {");
+        line(name + " clone;");
+        if (model.cloneThrows()) {
+            line("try {");
+            line("clone = (" + name + ") super.clone();");
+            line("} catch (Exception e) {");
+            line("//should never happen");
+            line("throw new RuntimeException(e);");
+            line("}");
+        } else {
+            line("clone = (" + name + ") super.clone();");
+        }
+        line("clone.properties$ = null;");
+        line("clone.actions$ = null;");
+        line("clone.observers$ = null;");
+        line("clone.children$ = " + (method.equals("lazyClone") ? "children$.lazyClone()"
+                : "children$.clone()") + ";");
+        for (ChildModel child : model.children()) {
+            if (child.lazy()) {
+                line("if (clone.children$.replaceFactory(\"" + child.name() + "\", clone::create$" + child.name()
+                        + ")) clone." + child.name() + " = null;");
+                line("else");
+            }
+            line("clone." + child.name() + " = clone.children$.contains(\"" + child.name() + "\") ? " + cast(child)
+                    + "clone.children$.get(\"" + child.name() + "\") : null;");
+        }
+        line("return clone;");
+        line("}");
+        line();
+    }
+
+    private void properties(ComponentModel model) {
+        List<PropertyModel> properties = model.properties();
+        line("@Override");
+        line("public Object get(String property) {");
+        line("if (" + SPI + "Instrumentation.ENABLED) " + SPI + "Instrumentation.get(TYPE, "
+                + model.typeName() + ".slot(property), PROPERTY_NAMES$);");
+        line("switch (property) {");
+        for (PropertyModel property : properties) {
+            line("case \"" + property.name() + "\": return this." + property.name() + ";");
+        }
+        line("default: throw new " + JCOMP + "NoSuchPropertyException(this, property);");
+        line("}");
+        line("}");
+        line();
+        line("@Override");
+        line("public int slot(String property) {");
+        line("return " + model.typeName() + ".slot(property);");
+        line("}");
+        line();
+        line("@Override");
+        line("public Object get(int slot) {");
+        line("if (" + SPI + "Instrumentation.ENABLED) " + SPI + "Instrumentation.get(TYPE, slot, "
+                + "PROPERTY_NAMES$);");
+        line("switch (slot) {");
+        for (int i = 0; i < properties.size(); i++) {
+            line("case " + i + ": return this." + properties.get(i).name() + ";");
+        }
+        line("default: throw new IndexOutOfBoundsException(slot);");
+        line("}");
+        line("}");
+        line();
+        line("@SuppressWarnings(\"unchecked\")");
+        line("@Override");
+        line("public <T> T get(" + JCOMP + "PropertyKey<T> key) {");
+        line("if (key.owner() == TYPE && key.index() >= 0) return (T) get(key.index());");
+        line("return key.type().cast(get(key.name()));");
+        line("}");
+        line();
+        line("@Override");
+        line("public <T> void set(" + JCOMP + "PropertyKey<T> key, T value) {");
+        line("if (key.owner() == TYPE && key.index() >= 0) set(key.index(), value);");
+        line("else set(key.name(), value);");
+        line("}");
+        line();
+        line("@SuppressWarnings(\"unchecked\")");
+        line("@Override");
+        line("public <T, R> R get(String property, java.util.function.Function<T, R> mapper) {");
+        line("return mapper.apply((T) get(property));");
+        line("}");
+        line();
+        line("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+        line("@Override");
+        line("public void set(String property, Object value) {");
+        line("switch (property) {");
+        for (PropertyModel property : properties) {
+            line("case \"" + property.name() + "\": " + assignment(property));
+        }
+        line("default: throw new " + JCOMP + "NoSuchPropertyException(this, property);");
+        line("}");
+        line("}");
+        line();
+        line("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+        line("@Override");
+        line("public void set(int slot, Object value) {");
+        line("switch (slot) {");
+        for (int i = 0; i < properties.size(); i++) {
+            line("case " + i + ": " + assignment(properties.get(i)));
+        }
+        line("default: throw new IndexOutOfBoundsException(slot);");
+        line("}");
+        line("}");
+        line();
+        for (String primitive : List.of("Int", "Long", "Double", "Boolean")) {
+            primitiveAccessors(properties, primitive);
+        }
+        line("@Override");
+        line("public java.util.Optional<" + JCOMP + "Property<?>> property(String property) {");
+        line("switch (property) {");
+        for (int i = 0; i < properties.size(); i++) {
+            line("case \"" + properties.get(i).name() + "\": return java.util.Optional.of(property$(" + i + "));");
+        }
+        line("default: return java.util.Optional.empty();");
+        line("}");
+        line("}");
+        line();
+        line("@Override");
+        line("public synchronized void observe(" + JCOMP + "ChangeObserver observer) {");
+        line("observers$ = " + SPI + "Observers.add(observers$, observer);");
+        line("}");
+        line();
+        line("@Override");
+        line("public synchronized void unobserve(" + JCOMP + "ChangeObserver observer) {");
+        line("observers$ = " + SPI + "Observers.remove(observers$, observer);");
+        line("}");
+        line();
+        line("@Override");
+        line("public long propertyVersion() {");
+        line("return version$;");
+        line("}");
+        line();
+        line("private void changed$(String property) {");
+        line("version$++;");
+        line(JCOMP + "ChangeObserver[] observers = observers$;");
+        line("if (" + SPI + "Instrumentation.ENABLED) " + SPI
+                + "Instrumentation.changed(TYPE, property, observers, this);");
+        line("else if (observers != null) " + SPI + "Observers.changed(observers, this, property);");
+        line("}");
+        line();
+        line("private " + JCOMP + "Property<?> property$(int slot) {");
+        line(JCOMP + "Property<?>[] properties = properties$;");
+        line("if (properties == null) properties = properties$ = new " + JCOMP + "Property<?>[" + properties.size() + "];");
+        line(JCOMP + "Property<?> property = properties[slot];");
+        line("if (property == null) {");
+        line("switch (slot) {");
+        for (int i = 0; i < properties.size(); i++) {
+            PropertyModel property = properties.get(i);
+            if (property.primitive() != null) {
+                line("case " + i + ": property = new " + SPI + property.primitive() + "SlotProperty(this, \""
+                        + property.name() + "\", " + i + ", " + property.readOnly() + "); break;");
+            }
+        }
+        line("default: property = new " + SPI + "SlotProperty<>(this, PROPERTY_TYPES$[slot], "
+                + "PROPERTY_NAMES$[slot], slot, PROPERTY_READ_ONLY$[slot]);");
+        line("}");
+        line("properties[slot] = property;");
+        line("}");
+        line("return property;");
+        line("}");
+        line();
+    }
+
+    /**
+     * Method writes overrides of primitive slot accessors for properties of the given
+     * primitive type, so their properties are read and written without boxing.
+     *
+     * @param properties properties of the component
+     * @param primitive suffix of the accessors
+     */
+    private void primitiveAccessors(List<PropertyModel> properties, String primitive) {
+        List<Integer> slots = new java.util.ArrayList<>();
+        for (int i = 0; i < properties.size(); i++) {
+            if (primitive.equals(properties.get(i).primitive())) {
+                slots.add(i);
+            }
+        }
+        if (slots.isEmpty()) {
+            return;
+        }
+        String type = properties.get(slots.get(0)).castType();
+        line("@Override");
+        line("public " + type + " get" + primitive + "(int slot) {");
+        line("if (" + SPI + "Instrumentation.ENABLED) " + SPI + "Instrumentation.get(TYPE, slot, "
+                + "PROPERTY_NAMES$);");
+        line("switch (slot) {");
+        for (int slot : slots) {
+            line("case " + slot + ": return this." + properties.get(slot).name() + ";");
+        }
+        line("default: return (" + properties.get(slots.get(0)).classLiteral().replace(".class", "") + ") get(slot);");
+        line("}");
+        line("}");
+        line();
+        line("@Override");
+        line("public void set" + primitive + "(int slot, " + type + " value) {");
+        line("switch (slot) {");
+        for (int slot : slots) {
+            PropertyModel property = properties.get(slot);
+            if (property.readOnly()) {
+                line("case " + slot + ": throw new UnsupportedOperationException(\"property \\\"" + property.name()
+                        + "\\\" is read-only\");");
+            } else {
+                line("case " + slot + ": this." + property.name() + " = value; changed$(\"" + property.name()
+                        + "\"); return;");
+            }
+        }
+        line("default: set(slot, (Object) value);");
+        line("}");
+        line("}");
+        line();
+    }
+
+    private static String assignment(PropertyModel property) {
+        if (property.readOnly()) {
+            return "throw new UnsupportedOperationException(\"property \\\"" + property.name() + "\\\" is read-only\");";
+        }
+        return "this." + property.name() + " = (" + property.castType() + ") value; changed$(\"" + property.name()
+                + "\"); return;";
+    }
+
+    private void actions(ComponentModel model) {
+        List<ActionModel> actions = model.actions();
+        line("@Override");
+        line("public " + JCOMP + "ActionContext<?> invoke(String action) {");
+        line("switch (action) {");
+        for (int i = 0; i < actions.size(); i++) {
+            line("case \"" + actions.get(i).name() + "\": return action$(" + i + ").createContext();");
+        }
+        line("default: throw new " + JCOMP + "NoSuchActionException(this, action);");
+        line("}");
+        line("}");
+        line();
+        line("@Override");
+        line("public java.util.Optional<" + JCOMP + "Action<?>> action(String action) {");
+        line("switch (action) {");
+        for (int i = 0; i < actions.size(); i++) {
+            line("case \"" + actions.get(i).name() + "\": return java.util.Optional.of(action$(" + i + "));");
+        }
+        line("default: return java.util.Optional.empty();");
+        line("}");
+        line("}");
+        line();
+        if (actions.isEmpty()) {
+            return;
+        }
+        line("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+        line("private " + JCOMP + "Action<?> action$(int index) {");
+        line(JCOMP + "Action<?>[] actions = actions$;");
+        line("if (actions == null) actions = actions$ = new " + JCOMP + "Action<?>[" + actions.size() + "];");
+        line(JCOMP + "Action<?> action = actions[index];");
+        line("if (action == null) {");
+        line("switch (index) {");
+        for (int i = 0; i < actions.size(); i++) {
+            ActionModel action = actions.get(i);
+            line("case " + i + ": action = new " + SPI + "SimpleAction(this, \"" + action.name() + "\", "
+                    + action.returnType() + ", " + (action.shared() ? "BINDER$" + i : binder(action))
+                    + ", this::invoke$" + i + "); break;");
+        }
+        line("default: throw new IndexOutOfBoundsException(index);");
+        line("}");
+        line("actions[index] = action;");
+        line("}");
+        line("return action;");
+        line("}");
+        line();
+        for (int i = 0; i < actions.size(); i++) {
+            invoker(model, actions.get(i), i);
+        }
+    }
+
+    private void invoker(ComponentModel model, ActionModel action, int index) {
+        line("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+        line("private Object invoke$" + index + "(int preset, Object[] args, int count) throws Throwable {");
+        //actions may assign fields directly, so their properties are treated as changed
+        line("try {");
+        line("switch (preset) {");
+        for (int p = 0; p < action.presets().size(); p++) {
+            PresetModel preset = action.presets().get(p);
+            line("case " + p + ":");
+            line("switch (count) {");
+            for (MethodModel method : preset.methods()) {
+                StringBuilder call = new StringBuilder(method.isStatic() ? model.definition() : "super")
+                        .append('.').append(action.name()).append('(');
+                for (int a = 0; a < method.arity(); a++) {
+                    if (a > 0) call.append(", ");
+                    call.append('(').append(preset.parameters().get(a).castType()).append(") args[").append(a).append(']');
+                }
+                call.append(')');
+                if (method.isVoid()) {
+                    line("case " + method.arity() + ": " + call + "; return null;");
+                } else {
+                    line("case " + method.arity() + ": return " + call + ";");
+                }
+            }
+            line("}");
+            line("break;");
+        }
+        line("}");
+        line("throw new IllegalArgumentException(\"action \\\"" + action.name()
+                + "\\\" has no method for \" + count + \" arguments\");");
+        line("} finally {");
+        line("version$++;");
+        line("}");
+        line("}");
+        line();
+    }
+
+    private static String keys(ComponentModel model) {
+        StringBuilder keys = new StringBuilder();
+        for (int i = 0; i < model.properties().size(); i++) {
+            PropertyModel property = model.properties().get(i);
+            if (i > 0) keys.append(", ");
+            keys.append("new ").append(JCOMP).append("PropertyKey<>(this, \"").append(property.name()).append("\", ")
+                    .append(property.classLiteral()).append(", ").append(i).append(", ").append(property.readOnly())
+                    .append(")");
+        }
+        return keys.toString();
+    }
+
+    private static String cast(ChildModel child) {
+        return child.castType().equals(JCOMP + "Component") ? "" : "(" + child.castType() + ") ";
+    }
+
+    private static String qualified(ComponentModel model, String name) {
+        return model.packageName().isEmpty() ? name : model.packageName() + "." + name;
+    }
+
+    private static String set(List<String> names) {
+        return "java.util.Collections.unmodifiableSet(new java.util.LinkedHashSet<>(java.util.Arrays.asList("
+                + names.stream().map(n -> "\"" + n + "\"").collect(Collectors.joining(", ")) + ")))";
+    }
+
+    private void line() {
+        out.append('\n');
+    }
+
+    private void line(String line) {
+        if (line.startsWith("}")) {
+            indent--;
+        }
+        out.append("    ".repeat(indent)).append(line).append('\n');
+        if (line.endsWith("{") || line.endsWith(":")) {
+            indent++;
+        } else if (line.equals("break;")) {
+            indent--;
+        }
+    }
+}
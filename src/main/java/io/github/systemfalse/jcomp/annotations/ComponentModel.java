@@ -0,0 +1,119 @@
+package io.github.systemfalse.jcomp.annotations;
+
+import java.util.List;
+
+/**
+ * Description of a component definition collected by {@link ComponentProcessor}
+ * and used by {@link ComponentGenerator}. All type strings are valid Java source
+ * fragments.
+ */
+record ComponentModel(String definition,
+                      String packageName,
+                      String componentName,
+                      String typeName,
+                      List<PropertyModel> properties,
+                      List<ChildModel> children,
+                      List<ActionModel> actions,
+                      boolean cloneThrows) {
+
+    /**
+     * Property backed by a field of the definition class.
+     *
+     * @param name property and field name
+     * @param castType type used for casting assigned values
+     * @param classLiteral class returned by {@code Property.type()}
+     * @param readOnly whether field is final
+     */
+    record PropertyModel(String name, String castType, String classLiteral, boolean readOnly) {
+        /**
+         * Method returns suffix of primitive accessors of the property, such as {@code Int}
+         * for {@code getInt}, or {@code null} if the property has no primitive property type.
+         *
+         * @return suffix of primitive accessors or {@code null}
+         */
+        String primitive() {
+            return switch (castType) {
+                case "int" -> "Int";
+                case "long" -> "Long";
+                case "double" -> "Double";
+                case "boolean" -> "Boolean";
+                default -> null;
+            };
+        }
+    }
+
+    /**
+     * Child component backed by a field of the definition class.
+     *
+     * @param name child and field name
+     * @param castType erasure of the field type
+     * @param type qualified name of the child component class or {@code null} if it is not defined
+     * @param lazy whether child is created on first access
+     * @param overrides whether accessor of lazy child overrides method of the definition class
+     */
+    record ChildModel(String name, String castType, String type, boolean lazy, boolean overrides) {
+        /**
+         * Method returns expression that creates child if field is {@code null}.
+         *
+         * @return initializer expression or {@code null} if child type is not defined
+         */
+        String initializer() {
+            return type == null ? null : type + ".TYPE.initialize().get()";
+        }
+    }
+
+    /**
+     * Action composed of all annotated methods with the same name.
+     *
+     * @param name action and method name
+     * @param returnType class literal of the common return type
+     * @param presets presets ordered by their index
+     */
+    record ActionModel(String name, String returnType, List<PresetModel> presets) {
+        /**
+         * Method checks whether parameters of the action can be shared by all
+         * components, which is not possible when a default is computed by an instance
+         * method.
+         *
+         * @return {@code true} if parameters can be shared, {@code false} otherwise
+         */
+        boolean shared() {
+            return presets.stream().flatMap(p -> p.parameters().stream()).noneMatch(ParameterModel::instance);
+        }
+    }
+
+    /**
+     * Set of overloaded methods which differ only in the number of trailing
+     * parameters.
+     *
+     * @param parameters parameters of the longest method
+     * @param methods methods ordered by their arity
+     */
+    record PresetModel(List<ParameterModel> parameters, List<MethodModel> methods) {
+    }
+
+    /**
+     * Action parameter.
+     *
+     * @param name parameter name
+     * @param castType type used for casting arguments
+     * @param classLiteral class returned by {@code Parameter.type()}
+     * @param required whether argument must be passed
+     * @param defaultValue default value expression of optional parameter or {@code null}
+     * @param computed whether default value is computed from preceding arguments named {@code args}
+     * @param instance whether default value is computed by an instance method of the component
+     */
+    record ParameterModel(String name, String castType, String classLiteral, boolean required, String defaultValue,
+                          boolean computed, boolean instance) {
+    }
+
+    /**
+     * Annotated method.
+     *
+     * @param arity number of parameters
+     * @param isStatic whether method is static
+     * @param isVoid whether method returns nothing
+     */
+    record MethodModel(int arity, boolean isStatic, boolean isVoid) {
+    }
+}
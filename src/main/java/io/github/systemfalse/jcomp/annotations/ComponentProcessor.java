@@ -1,31 +1,560 @@
 package io.github.systemfalse.jcomp.annotations;
 
-import com.sun.source.util.Trees;
+import io.github.systemfalse.jcomp.annotations.ComponentModel.*;
 
 import javax.annotation.processing.*;
 import javax.lang.model.SourceVersion;
-import javax.lang.model.element.TypeElement;
-import java.util.Set;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
- * {@code ComponentProcessor} is annotation processor that can generate new classes
- * (components and component types) and edit existing classes for optimizing
- * component usage. Example: {@code component.get("name")} will be transformed into
- * {@code component.getName()}.
+ * {@code ComponentProcessor} is annotation processor that generates new classes
+ * (components and component types) from component definitions.
+ * <p>
+ * For each class annotated with {@link ComponentRef} processor generates component
+ * class that extends the annotated class and component type class named
+ * {@code <component>Type}. Generated classes access fields marked with
+ * {@link PropertyRef} and {@link ChildRef} and call methods marked with
+ * {@link ActionRef} directly, so no reflection is used at runtime. Annotated members
+ * must not be private, and the definition must not implement
+ * {@link io.github.systemfalse.jcomp.Component} itself.
+ * </p>
  */
 @SupportedAnnotationTypes("io.github.systemfalse.jcomp.annotations.ComponentRef")
 @SupportedSourceVersion(SourceVersion.RELEASE_17)
 public class ComponentProcessor extends AbstractProcessor {
-    private Trees trees;
+    private static final Pattern DEFAULT_NAME = Pattern.compile("(?<component>[a-zA-Z_$][\\w$]*)Component");
+    private static final Pattern QUALIFIED_NAME = Pattern.compile("([a-zA-Z_$][\\w$]*\\.)*[a-zA-Z_$][\\w$]*");
+
+    private Elements elements;
+    private Types types;
+    private Messager messager;
 
     @Override
     public synchronized void init(ProcessingEnvironment processingEnv) {
         super.init(processingEnv);
-        trees = Trees.instance(processingEnv);
+        elements = processingEnv.getElementUtils();
+        types = processingEnv.getTypeUtils();
+        messager = processingEnv.getMessager();
     }
 
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(ComponentRef.class))) {
+            ComponentModel model = analyze(type);
+            if (model != null) {
+                write(model, type);
+            }
+        }
         return true;
     }
+
+    private void write(ComponentModel model, TypeElement origin) {
+        String prefix = model.packageName().isEmpty() ? "" : model.packageName() + ".";
+        try {
+            JavaFileObject component = processingEnv.getFiler().createSourceFile(prefix + model.componentName(), origin);
+            try (Writer writer = component.openWriter()) {
+                writer.write(ComponentGenerator.component(model));
+            }
+            JavaFileObject type = processingEnv.getFiler().createSourceFile(prefix + model.typeName(), origin);
+            try (Writer writer = type.openWriter()) {
+                writer.write(ComponentGenerator.type(model));
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Could not write component: " + e.getMessage(), origin);
+        }
+    }
+
+    private ComponentModel analyze(TypeElement type) {
+        if (!isDirectlyAnnotated(type)) {
+            //generated component inherits @ComponentRef from its definition
+            return null;
+        }
+        TypeMirror component = elements.getTypeElement("io.github.systemfalse.jcomp.Component").asType();
+        if (types.isAssignable(type.asType(), component)) {
+            return error(type, "component definition must not implement io.github.systemfalse.jcomp.Component");
+        }
+        if (type.getKind() != ElementKind.CLASS) {
+            return error(type, "component definition must be a class");
+        }
+        Set<Modifier> modifiers = type.getModifiers();
+        if (modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.PRIVATE)) {
+            return error(type, "component definition must not be final or private");
+        }
+        if (type.getNestingKind().isNested() && !modifiers.contains(Modifier.STATIC)) {
+            return error(type, "nested component definition must be static");
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            return error(type, "component definition must not be generic");
+        }
+
+        String definitionPackage = elements.getPackageOf(type).getQualifiedName().toString();
+        String name = type.getAnnotation(ComponentRef.class).component();
+        String packageName = definitionPackage, componentName;
+        if (name.isEmpty()) {
+            Matcher matcher = DEFAULT_NAME.matcher(type.getSimpleName());
+            if (!matcher.matches()) {
+                return error(type, "can not derive component name, set ComponentRef.component()");
+            }
+            componentName = matcher.group("component");
+        } else if (QUALIFIED_NAME.matcher(name).matches()) {
+            int dot = name.lastIndexOf('.');
+            if (dot >= 0) {
+                packageName = name.substring(0, dot);
+                componentName = name.substring(dot + 1);
+            } else {
+                componentName = name;
+            }
+        } else {
+            return error(type, "invalid component name \"" + name + "\"");
+        }
+        boolean samePackage = packageName.equals(definitionPackage);
+
+        boolean valid = true;
+        boolean hasConstructor = false;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && isAccessible(constructor, samePackage)) {
+                hasConstructor = true;
+            }
+        }
+        if (!hasConstructor) {
+            return error(type, "component definition must have accessible constructor without parameters");
+        }
+
+        List<PropertyModel> properties = new ArrayList<>();
+        List<ChildModel> children = new ArrayList<>();
+        Map<String, List<ExecutableElement>> methods = new LinkedHashMap<>();
+        Set<String> names = new HashSet<>();
+        boolean cloneThrows = true;
+        for (Element member : elements.getAllMembers(type)) {
+            if (member.getKind() == ElementKind.METHOD && member.getSimpleName().contentEquals("clone")
+                    && ((ExecutableElement) member).getParameters().isEmpty()) {
+                cloneThrows = !((ExecutableElement) member).getThrownTypes().isEmpty();
+            }
+            boolean property = member.getAnnotation(PropertyRef.class) != null;
+            boolean child = member.getAnnotation(ChildRef.class) != null;
+            boolean action = member.getAnnotation(ActionRef.class) != null;
+            if (!property && !child && !action) {
+                continue;
+            }
+            if (!isAccessible(member, samePackage) || member.getModifiers().contains(Modifier.STATIC) && !action) {
+                valid = false;
+                error(member, "annotated member must be accessible from generated component and not static");
+                continue;
+            }
+            String memberName = member.getSimpleName().toString();
+            if (property && child) {
+                valid = false;
+                error(member, "field can not be both property and child");
+            } else if (property) {
+                if (!names.add(memberName)) {
+                    valid = false;
+                    error(member, "duplicate property \"" + memberName + "\"");
+                    continue;
+                }
+                properties.add(property((VariableElement) member));
+            } else if (child) {
+                ChildModel model = child(type, (VariableElement) member, samePackage);
+                if (model == null) {
+                    valid = false;
+                } else {
+                    children.add(model);
+                }
+            } else {
+                methods.computeIfAbsent(memberName, k -> new ArrayList<>()).add((ExecutableElement) member);
+            }
+        }
+
+        List<ActionModel> actions = new ArrayList<>();
+        for (var entry : methods.entrySet()) {
+            ActionModel model = action(type, packageName, entry.getKey(), entry.getValue());
+            if (model == null) {
+                valid = false;
+            } else {
+                actions.add(model);
+            }
+        }
+        if (!valid) {
+            return null;
+        }
+        return new ComponentModel(type.getQualifiedName().toString(), packageName, componentName,
+                componentName + "Type", properties, children, actions, cloneThrows);
+    }
+
+    private boolean isDirectlyAnnotated(TypeElement type) {
+        //annotation mirrors do not include inherited annotations
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName()
+                    .contentEquals(ComponentRef.class.getCanonicalName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private PropertyModel property(VariableElement field) {
+        TypeMirror type = field.asType();
+        return new PropertyModel(field.getSimpleName().toString(), castType(type), classLiteral(boxed(type)),
+                field.getModifiers().contains(Modifier.FINAL));
+    }
+
+    private ChildModel child(TypeElement definition, VariableElement field, boolean samePackage) {
+        TypeMirror type = field.asType();
+        if (field.getModifiers().contains(Modifier.FINAL)) {
+            error(field, "child field must not be final");
+            return null;
+        }
+        TypeMirror component = elements.getTypeElement("io.github.systemfalse.jcomp.Component").asType();
+        if (type.getKind() != TypeKind.ERROR && !types.isAssignable(type, component)) {
+            error(field, "child field must have type of io.github.systemfalse.jcomp.Component or its subtype");
+            return null;
+        }
+        ChildRef annotation = field.getAnnotation(ChildRef.class);
+        String childType = annotation.type();
+        if (annotation.lazy() && childType.isEmpty()) {
+            error(field, "lazy child must define type");
+            return null;
+        }
+        if (!childType.isEmpty()) {
+            if (!QUALIFIED_NAME.matcher(childType).matches()) {
+                error(field, "invalid child type \"" + childType + "\"");
+                return null;
+            }
+        }
+        String name = field.getSimpleName().toString();
+        boolean overrides = false;
+        if (annotation.lazy()) {
+            //accessor of lazy child must not change methods of components
+            for (String reserved : List.of("io.github.systemfalse.jcomp.spi.IndexedComponent", "java.lang.Object")) {
+                if (accessor(elements.getTypeElement(reserved), name) != null) {
+                    error(field, "lazy child \"" + name + "\" clashes with method of component");
+                    return null;
+                }
+            }
+            ExecutableElement method = accessor(definition, name);
+            if (method != null) {
+                Set<Modifier> modifiers = method.getModifiers();
+                if (!isAccessible(method, samePackage) || modifiers.contains(Modifier.STATIC)
+                        || modifiers.contains(Modifier.FINAL) || !types.isAssignable(type, method.getReturnType())) {
+                    error(method, "method of lazy child \"" + name + "\" must be overridable and return type of the field");
+                    return null;
+                }
+                overrides = true;
+            }
+        }
+        return new ChildModel(name, castType(type), childType.isEmpty() ? null : childType, annotation.lazy(),
+                overrides);
+    }
+
+    private ExecutableElement accessor(TypeElement type, String name) {
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            if (method.getSimpleName().contentEquals(name) && method.getParameters().isEmpty()) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private ActionModel action(TypeElement definition, String packageName, String name,
+                               List<ExecutableElement> methods) {
+        TreeMap<Integer, List<ExecutableElement>> presets = new TreeMap<>();
+        Set<String> returnTypes = new HashSet<>();
+        for (ExecutableElement method : methods) {
+            presets.computeIfAbsent(method.getAnnotation(ActionRef.class).preset(), k -> new ArrayList<>())
+                    .add(method);
+            returnTypes.add(classLiteral(method.getReturnType()));
+        }
+        String returnType = returnTypes.size() == 1 ? returnTypes.iterator().next() : "java.lang.Object.class";
+
+        List<PresetModel> models = new ArrayList<>();
+        for (var entry : presets.entrySet()) {
+            List<ExecutableElement> overloads = entry.getValue();
+            overloads.sort(Comparator.comparingInt(m -> m.getParameters().size()));
+            ExecutableElement longest = overloads.get(overloads.size() - 1);
+            int minArity = overloads.get(0).getParameters().size();
+            List<MethodModel> methodModels = new ArrayList<>();
+            int previous = -1;
+            for (ExecutableElement method : overloads) {
+                int arity = method.getParameters().size();
+                if (arity == previous) {
+                    error(method, "preset " + entry.getKey() + " of action \"" + name + "\" already has method with "
+                            + arity + " parameters, use different preset");
+                    return null;
+                }
+                for (int i = 0; i < arity; i++) {
+                    if (!types.isSameType(types.erasure(method.getParameters().get(i).asType()),
+                            types.erasure(longest.getParameters().get(i).asType()))) {
+                        error(method, "methods of preset " + entry.getKey() + " of action \"" + name
+                                + "\" must differ only in trailing parameters");
+                        return null;
+                    }
+                }
+                previous = arity;
+                methodModels.add(new MethodModel(arity, method.getModifiers().contains(Modifier.STATIC),
+                        method.getReturnType().getKind() == TypeKind.VOID));
+            }
+            List<ParameterModel> parameters = new ArrayList<>();
+            List<? extends VariableElement> elements = longest.getParameters();
+            for (int i = 0; i < elements.size(); i++) {
+                VariableElement parameter = elements.get(i);
+                TypeMirror type = parameter.asType();
+                ParameterRef ref = parameter.getAnnotation(ParameterRef.class);
+                boolean required = i < minArity && (ref == null || ref.required());
+                boolean hasDefault = ref != null && (!ref.defaultValue().isEmpty()
+                        || !ref.defaultValueConstant().isEmpty() || !ref.defaultComputedValue().isEmpty());
+                String defaultValue = null;
+                if (i < minArity && !required) {
+                    defaultValue = hasDefault ? defaultValue(definition, packageName, parameter, ref)
+                            : defaultLiteral(type);
+                    if (defaultValue == null) {
+                        return null;
+                    }
+                } else if (hasDefault) {
+                    return error(parameter, "only optional parameters of the shortest method can have default value");
+                }
+                boolean computed = hasDefault && !ref.defaultComputedValue().isEmpty();
+                parameters.add(new ParameterModel(parameter.getSimpleName().toString(), castType(type),
+                        classLiteral(types.erasure(type)), required, defaultValue, computed,
+                        computed && defaultValue.startsWith(cast(parameter) + "super.")));
+            }
+            models.add(new PresetModel(parameters, methodModels));
+        }
+        return new ActionModel(name, returnType, models);
+    }
+
+    //literals are parsed and members are resolved here, so invalid defaults are compile errors
+    private String defaultValue(TypeElement definition, String packageName, VariableElement parameter,
+                                ParameterRef ref) {
+        int count = (ref.defaultValue().isEmpty() ? 0 : 1) + (ref.defaultValueConstant().isEmpty() ? 0 : 1)
+                + (ref.defaultComputedValue().isEmpty() ? 0 : 1);
+        if (count > 1) {
+            return error(parameter, "only one of defaultValue, defaultValueConstant and defaultComputedValue "
+                    + "can be set");
+        }
+        if (!ref.defaultValue().isEmpty()) {
+            return literal(parameter, ref.defaultValue());
+        } else if (!ref.defaultValueConstant().isEmpty()) {
+            return constant(definition, packageName, parameter, ref.defaultValueConstant());
+        }
+        return computed(definition, packageName, parameter, ref.defaultComputedValue());
+    }
+
+    private String literal(VariableElement parameter, String value) {
+        TypeMirror type = parameter.asType();
+        TypeMirror unboxed = unboxed(type);
+        Object constant;
+        try {
+            switch (unboxed.getKind()) {
+                case BOOLEAN -> {
+                    if (!value.equals("true") && !value.equals("false")) {
+                        throw new IllegalArgumentException();
+                    }
+                    constant = Boolean.valueOf(value);
+                }
+                case CHAR -> {
+                    if (value.length() != 1) {
+                        throw new IllegalArgumentException();
+                    }
+                    constant = value.charAt(0);
+                }
+                case BYTE -> constant = Byte.decode(value);
+                case SHORT -> constant = Short.decode(value);
+                case INT -> constant = Integer.decode(value);
+                case LONG -> constant = Long.decode(value);
+                case FLOAT -> constant = Float.valueOf(value);
+                case DOUBLE -> constant = Double.valueOf(value);
+                default -> {
+                    TypeElement element = (TypeElement) types.asElement(type);
+                    if (element != null && element.getKind() == ElementKind.ENUM) {
+                        for (Element member : element.getEnclosedElements()) {
+                            if (member.getKind() == ElementKind.ENUM_CONSTANT
+                                    && member.getSimpleName().contentEquals(value)) {
+                                return element.getQualifiedName() + "." + value;
+                            }
+                        }
+                        return error(parameter, "enum " + element.getQualifiedName() + " has no constant \""
+                                + value + "\"");
+                    }
+                    if (!types.isAssignable(elements.getTypeElement("java.lang.String").asType(), type)) {
+                        return error(parameter, "default value can not be set for parameter of type " + type
+                                + ", use defaultValueConstant or defaultComputedValue");
+                    }
+                    constant = value;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return error(parameter, "invalid default value \"" + value + "\" for parameter of type " + type);
+        }
+        return elements.getConstantExpression(constant);
+    }
+
+    private String constant(TypeElement definition, String packageName, VariableElement parameter, String name) {
+        Element owner = owner(definition, parameter, name);
+        if (owner == null) {
+            return null;
+        }
+        String member = name.substring(name.lastIndexOf('.') + 1);
+        for (VariableElement field : ElementFilter.fieldsIn(elements.getAllMembers((TypeElement) owner))) {
+            if (!field.getSimpleName().contentEquals(member)) {
+                continue;
+            }
+            Set<Modifier> modifiers = field.getModifiers();
+            if (!modifiers.contains(Modifier.STATIC) || !modifiers.contains(Modifier.FINAL)
+                    || !isVisible(field, owner == definition, packageName)) {
+                return error(parameter, "default constant \"" + name + "\" must be accessible static final field");
+            }
+            if (!types.isAssignable(field.asType(), parameter.asType())) {
+                return error(parameter, "default constant \"" + name + "\" of type " + field.asType()
+                        + " is not applicable to parameter of type " + parameter.asType());
+            }
+            return cast(parameter) + qualified(field);
+        }
+        return error(parameter, "default constant \"" + name + "\" was not found");
+    }
+
+    private String computed(TypeElement definition, String packageName, VariableElement parameter, String name) {
+        Element owner = owner(definition, parameter, name);
+        if (owner == null) {
+            return null;
+        }
+        String member = name.substring(name.lastIndexOf('.') + 1);
+        TypeMirror arguments = types.getDeclaredType(elements.getTypeElement("java.util.List"),
+                elements.getTypeElement("java.lang.Object").asType());
+        boolean found = false;
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers((TypeElement) owner))) {
+            if (!method.getSimpleName().contentEquals(member)) {
+                continue;
+            }
+            found = true;
+            if (method.getParameters().size() != 1
+                    || !types.isAssignable(arguments, method.getParameters().get(0).asType())) {
+                continue;
+            }
+            //instance methods of the definition are called on the component that performs action
+            boolean instance = !method.getModifiers().contains(Modifier.STATIC);
+            if (instance && (owner != definition || method.getModifiers().contains(Modifier.ABSTRACT))) {
+                return error(parameter, "default method \"" + name + "\" must be static or implemented by "
+                        + "component definition");
+            }
+            if (!isVisible(method, owner == definition, packageName)) {
+                return error(parameter, "default method \"" + name + "\" must be accessible");
+            }
+            if (!types.isAssignable(method.getReturnType(), parameter.asType())) {
+                return error(parameter, "default method \"" + name + "\" returns " + method.getReturnType()
+                        + ", which is not applicable to parameter of type " + parameter.asType());
+            }
+            return cast(parameter) + (instance ? "super." + member : qualified(method)) + "(args)";
+        }
+        return error(parameter, found ? "default method \"" + name + "\" must accept java.util.List<Object>"
+                : "default method \"" + name + "\" was not found");
+    }
+
+    //member is named THIS_CLASS_MEMBER, package.Class.MEMBER or module/package.Class.MEMBER
+    private Element owner(TypeElement definition, VariableElement parameter, String name) {
+        int slash = name.indexOf('/');
+        String path = name.substring(slash + 1);
+        int dot = path.lastIndexOf('.');
+        if (dot < 0) {
+            return slash < 0 ? definition : error(parameter, "class of \"" + name + "\" is not set");
+        }
+        String className = path.substring(0, dot);
+        TypeElement owner;
+        if (slash >= 0) {
+            ModuleElement module = elements.getModuleElement(name.substring(0, slash));
+            if (module == null) {
+                return error(parameter, "module \"" + name.substring(0, slash) + "\" was not found");
+            }
+            owner = elements.getTypeElement(module, className);
+        } else {
+            owner = elements.getTypeElement(className);
+        }
+        if (owner == null) {
+            return error(parameter, "class \"" + className + "\" was not found");
+        }
+        return owner;
+    }
+
+    private boolean isVisible(Element member, boolean definition, String packageName) {
+        if (definition) {
+            TypeElement owner = (TypeElement) member.getEnclosingElement();
+            return isAccessible(member, elements.getPackageOf(owner).getQualifiedName().contentEquals(packageName));
+        }
+        for (Element e = member; e != null && e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            if (!e.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String qualified(Element member) {
+        return ((TypeElement) member.getEnclosingElement()).getQualifiedName() + "." + member.getSimpleName();
+    }
+
+    private String cast(VariableElement parameter) {
+        //primitive parameters must receive wrappers of exactly their type
+        TypeMirror type = parameter.asType();
+        return type.getKind().isPrimitive() ? "(" + type + ") " : "";
+    }
+
+    private TypeMirror unboxed(TypeMirror type) {
+        try {
+            return types.unboxedType(type);
+        } catch (IllegalArgumentException e) {
+            return type;
+        }
+    }
+
+    private boolean isAccessible(Element element, boolean samePackage) {
+        Set<Modifier> modifiers = element.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        return samePackage || modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.PROTECTED);
+    }
+
+    private TypeMirror boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return types.boxedClass(types.getPrimitiveType(type.getKind())).asType();
+        }
+        return type;
+    }
+
+    private String castType(TypeMirror type) {
+        return types.erasure(type).toString();
+    }
+
+    private String classLiteral(TypeMirror type) {
+        return types.erasure(type) + ".class";
+    }
+
+    private static String defaultLiteral(TypeMirror type) {
+        return switch (type.getKind()) {
+            case BOOLEAN -> "false";
+            case CHAR -> "'\\0'";
+            case BYTE -> "(byte) 0";
+            case SHORT -> "(short) 0";
+            case INT -> "0";
+            case LONG -> "0L";
+            case FLOAT -> "0.0f";
+            case DOUBLE -> "0.0d";
+            default -> "null";
+        };
+    }
+
+    private <T> T error(Element element, String message) {
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+        return null;
+    }
 }
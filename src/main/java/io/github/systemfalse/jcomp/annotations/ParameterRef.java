@@ -19,7 +19,8 @@ public @interface ParameterRef {
 
     /**
      * Sets default value of the parameter. Only optional parameters can
-     * have default value.
+     * have default value. Value is parsed at compile time as a literal of primitive
+     * or wrapper type, string or name of enum constant.
      *
      * @return default value
      */
@@ -34,6 +35,8 @@ public @interface ParameterRef {
      *     <li>{@code package_name.ClassName.FIELD_NAME}</li>
      *     <li>{@code module_name/package_name.ClassName.FIELD_NAME}</li>
      * </ul>
+     * Field is resolved and its type is checked at compile time.
+     *
      * @return constant name
      */
     String defaultValueConstant() default "";
@@ -44,10 +47,16 @@ public @interface ParameterRef {
      * values before current parameter.
      * Following string are supported:
      * <ul>
-     *     <li>{@code thisClassMethodName} - if method is not static, it will be copied to the component class</li>
+     *     <li>{@code thisClassMethodName} - if method is not static, generated component calls it
+     *     on itself</li>
      *     <li>{@code package_name.ClassName.methodName} - expects only {@code public static} methods</li>
      *     <li>{@code module_name/package_name.ClassName.methodName} - expects only {@code public static} methods</li>
      * </ul>
+     * Method is resolved and its types are checked at compile time, and generated component
+     * calls it directly. Parameters of actions with defaults computed by instance methods
+     * are created for each component instead of being shared by all components of the
+     * type. Actions bound by reflection accept only {@code static} methods.
+     *
      * @return computed value
      */
     String defaultComputedValue() default "";
@@ -1,7 +1,9 @@
 package io.github.systemfalse.jcomp.builders;
 
+import com.google.common.base.Defaults;
+import com.google.common.primitives.Primitives;
 import io.github.systemfalse.jcomp.Property;
-import io.github.systemfalse.jcomp.internal.SimpleProperty;
+import io.github.systemfalse.jcomp.internal.*;
 
 import java.util.Objects;
 import java.util.function.UnaryOperator;
@@ -66,12 +68,34 @@ public class PropertyBuilder<T> {
             if (name == null) {
                 throw new IllegalStateException("property name was not set");
             }
-            if (initialValue != null && !type.isInstance(initialValue)) {
+            Class<T> wrapped = Primitives.wrap(type);
+            if (initialValue != null && !wrapped.isInstance(initialValue)) {
                 throw new IllegalStateException("default value is not instance of class " + type.getCanonicalName());
             }
-            instance = new SimpleProperty<>(type, name, initialValue, cloneFunction);
+            instance = type.isPrimitive() ? specialize() : new SimpleProperty<>(wrapped, name, initialValue, cloneFunction);
             built = true;
         }
         return instance;
     }
+
+    /**
+     * Method creates property for the primitive value class, which stores values without
+     * boxing. Properties of wrapper classes are not specialized, so they can hold {@code null}.
+     *
+     * @return new property
+     */
+    @SuppressWarnings("unchecked")
+    private Property<T> specialize() {
+        Object value = initialValue;
+        if (type == int.class) {
+            return (Property<T>) new SimpleIntProperty(name, value != null ? (Integer) value : 0);
+        } else if (type == long.class) {
+            return (Property<T>) new SimpleLongProperty(name, value != null ? (Long) value : 0L);
+        } else if (type == double.class) {
+            return (Property<T>) new SimpleDoubleProperty(name, value != null ? (Double) value : 0.0);
+        } else if (type == boolean.class) {
+            return (Property<T>) new SimpleBooleanProperty(name, value != null && (Boolean) value);
+        }
+        return new SimpleProperty<>(Primitives.wrap(type), name, value != null ? value : Defaults.defaultValue(type), cloneFunction);
+    }
 }
@@ -0,0 +1,450 @@
+package io.github.systemfalse.jcomp.internal;
+
+import com.google.common.base.Defaults;
+import com.google.common.primitives.Primitives;
+import io.github.systemfalse.jcomp.Action;
+import io.github.systemfalse.jcomp.Component;
+import io.github.systemfalse.jcomp.Parameter;
+import io.github.systemfalse.jcomp.annotations.ActionRef;
+import io.github.systemfalse.jcomp.annotations.ParameterRef;
+import io.github.systemfalse.jcomp.spi.ParameterBinder;
+import io.github.systemfalse.jcomp.spi.SimpleAction;
+import io.github.systemfalse.jcomp.spi.SimpleParameter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Actions declared by {@link ActionRef} methods of a class. Methods are discovered
+ * once per class and combined into one method handle per action, which selects the
+ * method by preset and number of arguments. Binding an action to an object binds the
+ * object to that handle, so invoking the action does not use reflection and all
+ * handles of the action are constants of the bound handle.
+ * Presets, overloads and {@link ParameterRef} defaults are resolved by the same rules
+ * as in {@link io.github.systemfalse.jcomp.annotations.ComponentProcessor}, but
+ * invalid declarations are reported when the class is bound for the first time.
+ * <p>
+ * Annotated methods must be accessible to this module. Parameter names are known only
+ * if the class was compiled with {@code -parameters}.
+ * </p>
+ */
+public final class ActionBinding {
+    private static final ClassValue<ActionBinding> BINDINGS = new ClassValue<>() {
+        @Override
+        protected ActionBinding computeValue(Class<?> type) {
+            return new ActionBinding(type);
+        }
+    };
+    private static final MethodHandle ELEMENT = MethodHandles.arrayElementGetter(Object[].class);
+    private static final MethodType INVOKER = MethodType.methodType(Object.class, Object.class, Object[].class);
+    /**
+     * Type of the action handle: target, preset, arguments and number of arguments.
+     */
+    private static final MethodType DISPATCH = MethodType.methodType(Object.class, Object.class, int.class,
+            Object[].class, int.class);
+    private static final MethodHandle MATCHES, MISSING;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MATCHES = lookup.findStatic(ActionBinding.class, "matches", MethodType.methodType(boolean.class,
+                    int.class, int.class, int.class, int.class));
+            MISSING = lookup.findStatic(ActionBinding.class, "missing", MethodType.methodType(Object.class,
+                    String.class, int.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Description of one action.
+     *
+     * @param returnType common return type of methods
+     * @param binder compiled parameters of presets
+     * @param handle handle of type {@link #DISPATCH} that calls the method of given preset and arity
+     */
+    private record Spec(Class<?> returnType, ParameterBinder binder, MethodHandle handle) {
+    }
+
+    private final Class<?> type;
+    private final Map<String, Spec> actions;
+
+    private ActionBinding(Class<?> type) {
+        this.type = type;
+        Map<String, TreeMap<Integer, List<Method>>> methods = new LinkedHashMap<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                ActionRef ref = method.getAnnotation(ActionRef.class);
+                if (ref == null || method.isBridge() || isOverridden(method, methods)) {
+                    continue;
+                }
+                methods.computeIfAbsent(method.getName(), k -> new TreeMap<>())
+                        .computeIfAbsent(ref.preset(), k -> new ArrayList<>()).add(method);
+            }
+        }
+        Map<String, Spec> actions = new LinkedHashMap<>();
+        for (var entry : methods.entrySet()) {
+            actions.put(entry.getKey(), spec(entry.getKey(), entry.getValue()));
+        }
+        this.actions = Collections.unmodifiableMap(actions);
+    }
+
+    /**
+     * Method returns binding of the given class.
+     *
+     * @param type class with annotated methods
+     * @return action binding
+     *
+     * @throws IllegalArgumentException if annotated methods are not accessible or presets are invalid
+     */
+    public static ActionBinding of(Class<?> type) {
+        return BINDINGS.get(Objects.requireNonNull(type, "type"));
+    }
+
+    /**
+     * Method returns names of actions in declaration order.
+     *
+     * @return action names
+     */
+    public Set<String> names() {
+        return actions.keySet();
+    }
+
+    /**
+     * Method creates action that invokes methods of the given target.
+     *
+     * @param name action name
+     * @param handler component that owns the action
+     * @param target object whose methods are invoked
+     * @return action or {@code null} if there is no action with given name
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Action<?> bind(String name, Component handler, Object target) {
+        Spec spec = actions.get(name);
+        if (spec == null) {
+            return null;
+        }
+        if (!type.isInstance(target)) {
+            throw new ClassCastException("target is not instance of " + type.getCanonicalName());
+        }
+        //target is bound to the handle, so the lambda holds only one constant handle
+        MethodHandle handle = spec.handle().bindTo(target);
+        return new SimpleAction(handler, name, spec.returnType(), spec.binder(),
+                (preset, args, count) -> (Object) handle.invokeExact(preset, args, count));
+    }
+
+    /**
+     * Method creates all actions of the given target.
+     *
+     * @param handler component that owns the actions
+     * @param target object whose methods are invoked
+     * @return map from action name to action
+     */
+    public Map<String, Action<?>> bindAll(Component handler, Object target) {
+        Map<String, Action<?>> bound = new LinkedHashMap<>();
+        for (String name : actions.keySet()) {
+            bound.put(name, bind(name, handler, target));
+        }
+        return Collections.unmodifiableMap(bound);
+    }
+
+    private static boolean isOverridden(Method method, Map<String, TreeMap<Integer, List<Method>>> methods) {
+        TreeMap<Integer, List<Method>> presets = methods.get(method.getName());
+        if (presets == null) {
+            return false;
+        }
+        for (List<Method> preset : presets.values()) {
+            for (Method m : preset) {
+                if (Arrays.equals(m.getParameterTypes(), method.getParameterTypes())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Spec spec(String name, TreeMap<Integer, List<Method>> presets) {
+        Set<Class<?>> returnTypes = new HashSet<>();
+        List<List<Parameter>> parameters = new ArrayList<>();
+        MethodHandle handle = MethodHandles.dropArguments(MethodHandles.insertArguments(MISSING, 0, name),
+                0, Object.class, int.class, Object[].class);
+        int p = presets.size() - 1;
+        for (var entry : presets.descendingMap().entrySet()) {
+            List<Method> overloads = entry.getValue();
+            overloads.sort(Comparator.comparingInt(Method::getParameterCount));
+            Method longest = overloads.get(overloads.size() - 1);
+            int minArity = overloads.get(0).getParameterCount();
+            int previous = -1;
+            for (Method method : overloads) {
+                int arity = method.getParameterCount();
+                if (arity == previous) {
+                    throw new IllegalArgumentException("preset " + entry.getKey() + " of action \"" + name
+                            + "\" already has method with " + arity + " parameters");
+                }
+                Class<?>[] types = method.getParameterTypes();
+                if (!Arrays.equals(types, 0, arity, longest.getParameterTypes(), 0, arity)) {
+                    throw new IllegalArgumentException("methods of preset " + entry.getKey() + " of action \"" + name
+                            + "\" must differ only in trailing parameters");
+                }
+                previous = arity;
+                //tests of the same preset are chained, so the handle checks only arity after preset
+                MethodHandle test = MethodHandles.permuteArguments(
+                        MethodHandles.insertArguments(MATCHES, 0, p, arity),
+                        DISPATCH.changeReturnType(boolean.class), 1, 3);
+                MethodHandle call = MethodHandles.permuteArguments(invoker(method), DISPATCH, 0, 2);
+                handle = MethodHandles.guardWithTest(test, call, handle);
+                returnTypes.add(method.getReturnType());
+            }
+            List<Parameter> list = new ArrayList<>();
+            java.lang.reflect.Parameter[] reflected = longest.getParameters();
+            for (int i = 0; i < reflected.length; i++) {
+                ParameterRef ref = reflected[i].getAnnotation(ParameterRef.class);
+                boolean required = i < minArity && (ref == null || ref.required());
+                boolean hasDefault = ref != null && (!ref.defaultValue().isEmpty()
+                        || !ref.defaultValueConstant().isEmpty() || !ref.defaultComputedValue().isEmpty());
+                Class<?> type = reflected[i].getType();
+                String parameter = reflected[i].getName();
+                if (i < minArity && !required) {
+                    list.add(hasDefault ? defaultParameter(parameter, type, ref)
+                            : SimpleParameter.optional(type, parameter, Defaults.defaultValue(type)));
+                } else if (hasDefault) {
+                    throw new IllegalArgumentException("parameter \"" + parameter + "\" of action \"" + name
+                            + "\": only optional parameters of the shortest method can have default value");
+                } else {
+                    list.add(new SimpleParameter(type, parameter, required, null));
+                }
+            }
+            parameters.add(0, List.copyOf(list));
+            p--;
+        }
+        Class<?> returnType = returnTypes.size() == 1 ? returnTypes.iterator().next() : Object.class;
+        return new Spec(returnType, ParameterBinder.of(parameters), handle);
+    }
+
+    private static boolean matches(int expectedPreset, int expectedCount, int preset, int count) {
+        return preset == expectedPreset && count == expectedCount;
+    }
+
+    private static Object missing(String name, int count) {
+        throw new IllegalArgumentException("action \"" + name + "\" has no method for " + count + " arguments");
+    }
+
+    /**
+     * Method creates optional parameter with default value declared by {@link ParameterRef}.
+     *
+     * @param name parameter name
+     * @param type parameter type
+     * @param ref parameter annotation
+     * @return optional parameter
+     *
+     * @throws IllegalArgumentException if default value is invalid or its member can not be resolved
+     */
+    private SimpleParameter defaultParameter(String name, Class<?> type, ParameterRef ref) {
+        int count = (ref.defaultValue().isEmpty() ? 0 : 1) + (ref.defaultValueConstant().isEmpty() ? 0 : 1)
+                + (ref.defaultComputedValue().isEmpty() ? 0 : 1);
+        if (count > 1) {
+            throw new IllegalArgumentException("parameter \"" + name + "\": only one of defaultValue, "
+                    + "defaultValueConstant and defaultComputedValue can be set");
+        }
+        if (!ref.defaultValue().isEmpty()) {
+            return SimpleParameter.optional(type, name, literal(name, type, ref.defaultValue()));
+        } else if (!ref.defaultValueConstant().isEmpty()) {
+            return SimpleParameter.optional(type, name, constant(name, type, ref.defaultValueConstant()));
+        }
+        return new SimpleParameter(type, name, false, computed(name, type, ref.defaultComputedValue()));
+    }
+
+    private static Object literal(String name, Class<?> type, String value) {
+        Class<?> unwrapped = Primitives.unwrap(type);
+        try {
+            if (unwrapped == boolean.class) {
+                if (!value.equals("true") && !value.equals("false")) {
+                    throw new IllegalArgumentException();
+                }
+                return Boolean.valueOf(value);
+            } else if (unwrapped == char.class) {
+                if (value.length() != 1) {
+                    throw new IllegalArgumentException();
+                }
+                return value.charAt(0);
+            } else if (unwrapped == byte.class) {
+                return Byte.decode(value);
+            } else if (unwrapped == short.class) {
+                return Short.decode(value);
+            } else if (unwrapped == int.class) {
+                return Integer.decode(value);
+            } else if (unwrapped == long.class) {
+                return Long.decode(value);
+            } else if (unwrapped == float.class) {
+                return Float.valueOf(value);
+            } else if (unwrapped == double.class) {
+                return Double.valueOf(value);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("parameter \"" + name + "\": invalid default value \"" + value
+                    + "\" for parameter of type " + type.getCanonicalName());
+        }
+        if (type.isEnum()) {
+            for (Object constant : type.getEnumConstants()) {
+                if (((Enum<?>) constant).name().equals(value)) {
+                    return constant;
+                }
+            }
+            throw new IllegalArgumentException("parameter \"" + name + "\": enum " + type.getCanonicalName()
+                    + " has no constant \"" + value + "\"");
+        }
+        if (!type.isAssignableFrom(String.class)) {
+            throw new IllegalArgumentException("parameter \"" + name + "\": default value can not be set for "
+                    + "parameter of type " + type.getCanonicalName() + ", use defaultValueConstant or "
+                    + "defaultComputedValue");
+        }
+        return value;
+    }
+
+    private Object constant(String name, Class<?> type, String constant) {
+        Class<?> owner = owner(name, constant);
+        String member = constant.substring(constant.lastIndexOf('.') + 1);
+        for (Class<?> c = owner; c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!field.getName().equals(member)) {
+                    continue;
+                }
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) || !Modifier.isFinal(modifiers) || !field.trySetAccessible()) {
+                    throw new IllegalArgumentException("parameter \"" + name + "\": default constant \"" + constant
+                            + "\" must be accessible static final field");
+                }
+                Object value;
+                try {
+                    value = field.get(null);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalArgumentException("parameter \"" + name + "\": default constant \"" + constant
+                            + "\" is not accessible", e);
+                }
+                if (!Primitives.wrap(type).isAssignableFrom(Primitives.wrap(field.getType()))
+                        || value == null && type.isPrimitive()) {
+                    throw new IllegalArgumentException("parameter \"" + name + "\": default constant \"" + constant
+                            + "\" of type " + field.getType().getCanonicalName() + " is not applicable to parameter "
+                            + "of type " + type.getCanonicalName());
+                }
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("parameter \"" + name + "\": default constant \"" + constant
+                + "\" was not found");
+    }
+
+    private Function<List<Object>, Object> computed(String name, Class<?> type, String computed) {
+        Class<?> owner = owner(name, computed);
+        String member = computed.substring(computed.lastIndexOf('.') + 1);
+        boolean found = false;
+        for (Class<?> c = owner; c != null; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                if (!method.getName().equals(member)) {
+                    continue;
+                }
+                found = true;
+                if (method.getParameterCount() != 1 || !method.getParameterTypes()[0].isAssignableFrom(List.class)) {
+                    continue;
+                }
+                if (!Modifier.isStatic(method.getModifiers()) || !method.trySetAccessible()) {
+                    throw new IllegalArgumentException("parameter \"" + name + "\": default method \"" + computed
+                            + "\" must be accessible and static");
+                }
+                if (!Primitives.wrap(type).isAssignableFrom(Primitives.wrap(method.getReturnType()))) {
+                    throw new IllegalArgumentException("parameter \"" + name + "\": default method \"" + computed
+                            + "\" returns " + method.getReturnType().getCanonicalName() + ", which is not "
+                            + "applicable to parameter of type " + type.getCanonicalName());
+                }
+                MethodHandle handle;
+                try {
+                    handle = MethodHandles.lookup().unreflect(method)
+                            .asType(MethodType.methodType(Object.class, List.class));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalArgumentException("parameter \"" + name + "\": default method \"" + computed
+                            + "\" is not accessible", e);
+                }
+                return args -> {
+                    try {
+                        return (Object) handle.invokeExact(args);
+                    } catch (RuntimeException | Error e) {
+                        throw e;
+                    } catch (Throwable e) {
+                        throw new UndeclaredThrowableException(e);
+                    }
+                };
+            }
+        }
+        throw new IllegalArgumentException("parameter \"" + name + "\": " + (found ? "default method \"" + computed
+                + "\" must accept java.util.List<Object>" : "default method \"" + computed + "\" was not found"));
+    }
+
+    //member is named THIS_CLASS_MEMBER, package.Class.MEMBER or module/package.Class.MEMBER
+    private Class<?> owner(String name, String member) {
+        int slash = member.indexOf('/');
+        String path = member.substring(slash + 1);
+        int dot = path.lastIndexOf('.');
+        if (dot < 0) {
+            if (slash >= 0) {
+                throw new IllegalArgumentException("parameter \"" + name + "\": class of \"" + member
+                        + "\" is not set");
+            }
+            return type;
+        }
+        String className = path.substring(0, dot);
+        Class<?> owner;
+        if (slash >= 0) {
+            ModuleLayer layer = type.getModule().getLayer();
+            Module module = (layer != null ? layer : ModuleLayer.boot()).findModule(member.substring(0, slash))
+                    .orElseThrow(() -> new IllegalArgumentException("parameter \"" + name + "\": module \""
+                            + member.substring(0, slash) + "\" was not found"));
+            owner = Class.forName(module, className);
+        } else {
+            try {
+                owner = Class.forName(className, false, type.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                owner = null;
+            }
+        }
+        if (owner == null) {
+            throw new IllegalArgumentException("parameter \"" + name + "\": class \"" + className
+                    + "\" was not found");
+        }
+        return owner;
+    }
+
+    /**
+     * Method adapts the given method to type {@code (Object, Object[])Object}. Arguments
+     * are read from the array by index, so the array may be longer than the arity.
+     *
+     * @param method annotated method
+     * @return method handle
+     */
+    private static MethodHandle invoker(Method method) {
+        MethodHandle handle;
+        try {
+            method.trySetAccessible();
+            handle = MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("method " + method + " is not accessible", e);
+        }
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        int arity = method.getParameterCount();
+        handle = handle.asType(MethodType.genericMethodType(arity + 1));
+        int[] reorder = new int[arity + 1];
+        for (int i = 0; i < arity; i++) {
+            handle = MethodHandles.filterArguments(handle, i + 1, MethodHandles.insertArguments(ELEMENT, 1, i));
+            reorder[i + 1] = 1;
+        }
+        return MethodHandles.permuteArguments(handle, INVOKER, reorder);
+    }
+}
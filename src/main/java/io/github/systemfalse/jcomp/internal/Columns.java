@@ -0,0 +1,60 @@
+package io.github.systemfalse.jcomp.internal;
+
+import java.lang.reflect.Array;
+import java.util.Objects;
+
+public final class Columns {
+    /**
+     * Function that reads value of a column in given row, boxing primitive values.
+     */
+    @FunctionalInterface
+    public interface Accessor {
+        Object get(int row);
+    }
+
+    private Columns() {
+    }
+
+    public static int rows(int expected, Object[] columns) {
+        Objects.requireNonNull(columns, "columns");
+        if (columns.length != expected) {
+            throw new IllegalArgumentException("expected " + expected + " columns, got " + columns.length);
+        }
+        int rows = -1;
+        for (Object column : columns) {
+            Objects.requireNonNull(column, "column");
+            if (!column.getClass().isArray()) {
+                throw new IllegalArgumentException("column must be an array");
+            }
+            int length = Array.getLength(column);
+            if (rows >= 0 && length != rows) {
+                throw new IllegalArgumentException("columns have different lengths");
+            }
+            rows = length;
+        }
+        return Math.max(rows, 0);
+    }
+
+    public static Accessor[] accessors(Object[] columns) {
+        Accessor[] accessors = new Accessor[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            accessors[i] = accessor(columns[i]);
+        }
+        return accessors;
+    }
+
+    private static Accessor accessor(Object column) {
+        if (column instanceof Object[] array) {
+            return row -> array[row];
+        } else if (column instanceof int[] array) {
+            return row -> array[row];
+        } else if (column instanceof long[] array) {
+            return row -> array[row];
+        } else if (column instanceof double[] array) {
+            return row -> array[row];
+        } else if (column instanceof boolean[] array) {
+            return row -> array[row];
+        }
+        return row -> Array.get(column, row);
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.systemfalse.jcomp.internal;
+
+import io.github.systemfalse.jcomp.ChangeObserver;
+import io.github.systemfalse.jcomp.Property;
+import io.github.systemfalse.jcomp.spi.Observers;
+
+import java.util.Objects;
+
+/**
+ * Base of the properties that hold primitive values. It keeps name, version and
+ * observers of the property, so subclasses only store the value.
+ *
+ * @param <T> boxed type of the value
+ */
+abstract class PrimitiveProperty<T> implements Property<T> {
+    private final Class<T> type;
+    private final String name;
+    private long version;
+    private ChangeObserver[] observers;
+
+    PrimitiveProperty(Class<T> type, String name) {
+        this.type = type;
+        this.name = Objects.requireNonNull(name);
+    }
+
+    @Override
+    public Class<T> type() {
+        return type;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public synchronized void observe(ChangeObserver observer) {
+        observers = Observers.add(observers, observer);
+    }
+
+    @Override
+    public synchronized void unobserve(ChangeObserver observer) {
+        observers = Observers.remove(observers, observer);
+    }
+
+    /**
+     * Method must be called by subclasses after the value is set.
+     */
+    final void changed() {
+        version++;
+        ChangeObserver[] observers = this.observers;
+        if (observers != null) {
+            Observers.changed(observers, this, name);
+        }
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public PrimitiveProperty<T> clone() {
+        PrimitiveProperty<T> clone;
+        try {
+            clone = (PrimitiveProperty<T>) super.clone();
+        } catch (CloneNotSupportedException e) {
+            //should never happen
+            throw new RuntimeException(e);
+        }
+        clone.observers = null;
+        return clone;
+    }
+}
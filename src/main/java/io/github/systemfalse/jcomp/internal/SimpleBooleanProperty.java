@@ -0,0 +1,44 @@
+package io.github.systemfalse.jcomp.internal;
+
+import io.github.systemfalse.jcomp.BooleanProperty;
+
+public class SimpleBooleanProperty extends PrimitiveProperty<Boolean> implements BooleanProperty {
+    private boolean value;
+
+    public SimpleBooleanProperty(String name) {
+        this(name, false);
+    }
+
+    public SimpleBooleanProperty(String name, boolean initialValue) {
+        super(Boolean.class, name);
+        this.value = initialValue;
+    }
+
+    @Override
+    public Boolean get() {
+        return value;
+    }
+
+    @Override
+    public boolean getBoolean() {
+        return value;
+    }
+
+    @Override
+    public void set(Object value) {
+        if (value instanceof Boolean v) {
+            setBoolean(v);
+        }
+    }
+
+    @Override
+    public void setBoolean(boolean value) {
+        this.value = value;
+        changed();
+    }
+
+    @Override
+    public SimpleBooleanProperty clone() {
+        return (SimpleBooleanProperty) super.clone();
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.systemfalse.jcomp.internal;
+
+import io.github.systemfalse.jcomp.DoubleProperty;
+
+public class SimpleDoubleProperty extends PrimitiveProperty<Double> implements DoubleProperty {
+    private double value;
+
+    public SimpleDoubleProperty(String name) {
+        this(name, 0.0);
+    }
+
+    public SimpleDoubleProperty(String name, double initialValue) {
+        super(Double.class, name);
+        this.value = initialValue;
+    }
+
+    @Override
+    public Double get() {
+        return value;
+    }
+
+    @Override
+    public double getDouble() {
+        return value;
+    }
+
+    @Override
+    public void set(Object value) {
+        if (value instanceof Double v) {
+            setDouble(v);
+        }
+    }
+
+    @Override
+    public void setDouble(double value) {
+        this.value = value;
+        changed();
+    }
+
+    @Override
+    public SimpleDoubleProperty clone() {
+        return (SimpleDoubleProperty) super.clone();
+    }
+}
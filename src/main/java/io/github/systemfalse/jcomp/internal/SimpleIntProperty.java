@@ -0,0 +1,44 @@
+package io.github.systemfalse.jcomp.internal;
+
+import io.github.systemfalse.jcomp.IntProperty;
+
+public class SimpleIntProperty extends PrimitiveProperty<Integer> implements IntProperty {
+    private int value;
+
+    public SimpleIntProperty(String name) {
+        this(name, 0);
+    }
+
+    public SimpleIntProperty(String name, int initialValue) {
+        super(Integer.class, name);
+        this.value = initialValue;
+    }
+
+    @Override
+    public Integer get() {
+        return value;
+    }
+
+    @Override
+    public int getInt() {
+        return value;
+    }
+
+    @Override
+    public void set(Object value) {
+        if (value instanceof Integer v) {
+            setInt(v);
+        }
+    }
+
+    @Override
+    public void setInt(int value) {
+        this.value = value;
+        changed();
+    }
+
+    @Override
+    public SimpleIntProperty clone() {
+        return (SimpleIntProperty) super.clone();
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.systemfalse.jcomp.internal;
+
+import io.github.systemfalse.jcomp.LongProperty;
+
+public class SimpleLongProperty extends PrimitiveProperty<Long> implements LongProperty {
+    private long value;
+
+    public SimpleLongProperty(String name) {
+        this(name, 0L);
+    }
+
+    public SimpleLongProperty(String name, long initialValue) {
+        super(Long.class, name);
+        this.value = initialValue;
+    }
+
+    @Override
+    public Long get() {
+        return value;
+    }
+
+    @Override
+    public long getLong() {
+        return value;
+    }
+
+    @Override
+    public void set(Object value) {
+        if (value instanceof Long v) {
+            setLong(v);
+        }
+    }
+
+    @Override
+    public void setLong(long value) {
+        this.value = value;
+        changed();
+    }
+
+    @Override
+    public SimpleLongProperty clone() {
+        return (SimpleLongProperty) super.clone();
+    }
+}
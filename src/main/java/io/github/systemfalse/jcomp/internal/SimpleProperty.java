@@ -1,7 +1,9 @@
 package io.github.systemfalse.jcomp.internal;
 
 import com.google.common.base.Defaults;
+import io.github.systemfalse.jcomp.ChangeObserver;
 import io.github.systemfalse.jcomp.Property;
+import io.github.systemfalse.jcomp.spi.Observers;
 
 import java.util.Objects;
 import java.util.function.UnaryOperator;
@@ -11,6 +13,8 @@ public class SimpleProperty<T> implements Property<T> {
     private final String name;
     private T value;
     private final UnaryOperator<T> cloneFunction;
+    private long version;
+    private ChangeObserver[] observers;
 
     public SimpleProperty(Class<T> type, String name) {
         this(type, name, Defaults.defaultValue(type));
@@ -23,7 +27,7 @@ public class SimpleProperty<T> implements Property<T> {
     public SimpleProperty(Class<T> type, String name, Object initialValue, UnaryOperator<T> cloneFunction) {
         this.type = Objects.requireNonNull(type);
         this.name = Objects.requireNonNull(name);
-        if (!type.isInstance(initialValue)) {
+        if (initialValue != null && !type.isInstance(initialValue)) {
             throw new IllegalArgumentException("default value is not instance of class " + type.getCanonicalName());
         }
         this.value = type.cast(initialValue);
@@ -45,6 +49,21 @@ public class SimpleProperty<T> implements Property<T> {
         return value;
     }
 
+    @Override
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public synchronized void observe(ChangeObserver observer) {
+        observers = Observers.add(observers, observer);
+    }
+
+    @Override
+    public synchronized void unobserve(ChangeObserver observer) {
+        observers = Observers.remove(observers, observer);
+    }
+
     @Override
     public boolean isReadOnly() {
         return false;
@@ -52,8 +71,13 @@ public class SimpleProperty<T> implements Property<T> {
 
     @Override
     public void set(Object value) {
-        if (type.isInstance(value)) {
+        if (value == null || type.isInstance(value)) {
             this.value = type.cast(value);
+            version++;
+            ChangeObserver[] observers = this.observers;
+            if (observers != null) {
+                Observers.changed(observers, this, name);
+            }
         }
     }
 
@@ -68,6 +92,22 @@ public class SimpleProperty<T> implements Property<T> {
             throw new RuntimeException(e);
         }
         clone.value = cloneFunction.apply(value);
+        clone.observers = null;
+        return clone;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public SimpleProperty<T> lazyClone() {
+        SimpleProperty<T> clone;
+        try {
+            clone = (SimpleProperty<T>) super.clone();
+        } catch (CloneNotSupportedException e) {
+            //should never happen
+            throw new RuntimeException(e);
+        }
+        //value is shared, so only clone() applies the clone function
+        clone.observers = null;
         return clone;
     }
 }
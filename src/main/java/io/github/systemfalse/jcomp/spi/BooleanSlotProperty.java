@@ -0,0 +1,26 @@
+package io.github.systemfalse.jcomp.spi;
+
+import io.github.systemfalse.jcomp.BooleanProperty;
+import io.github.systemfalse.jcomp.internal.SimpleBooleanProperty;
+
+public class BooleanSlotProperty extends SlotProperty<Boolean> implements BooleanProperty {
+    public BooleanSlotProperty(IndexedComponent owner, String name, int slot, boolean readOnly) {
+        super(owner, Boolean.class, name, slot, readOnly);
+    }
+
+    @Override
+    public boolean getBoolean() {
+        return owner.getBoolean(slot);
+    }
+
+    @Override
+    public void setBoolean(boolean value) {
+        checkWritable();
+        owner.setBoolean(slot, value);
+    }
+
+    @Override
+    public BooleanProperty clone() {
+        return new SimpleBooleanProperty(name(), getBoolean());
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.systemfalse.jcomp.spi;
+
+import io.github.systemfalse.jcomp.DoubleProperty;
+import io.github.systemfalse.jcomp.internal.SimpleDoubleProperty;
+
+public class DoubleSlotProperty extends SlotProperty<Double> implements DoubleProperty {
+    public DoubleSlotProperty(IndexedComponent owner, String name, int slot, boolean readOnly) {
+        super(owner, Double.class, name, slot, readOnly);
+    }
+
+    @Override
+    public double getDouble() {
+        return owner.getDouble(slot);
+    }
+
+    @Override
+    public void setDouble(double value) {
+        checkWritable();
+        owner.setDouble(slot, value);
+    }
+
+    @Override
+    public DoubleProperty clone() {
+        return new SimpleDoubleProperty(name(), getDouble());
+    }
+}
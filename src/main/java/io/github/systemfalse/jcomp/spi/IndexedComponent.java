@@ -0,0 +1,169 @@
+package io.github.systemfalse.jcomp.spi;
+
+import io.github.systemfalse.jcomp.Component;
+
+/**
+ * Component whose properties are stored in numbered slots. Slot indices are
+ * assigned in declaration order and are used by generated components for
+ * dispatching property access without resolving names.
+ */
+public interface IndexedComponent extends Component {
+    /**
+     * Method returns slot of the property with the given name.
+     *
+     * @param property name of the property
+     * @return property slot or {@code -1} if property was not found
+     */
+    int slot(String property);
+
+    /**
+     * Method returns the value of the property in the given slot.
+     *
+     * @param slot property slot
+     * @return value of the property
+     *
+     * @throws IndexOutOfBoundsException if there is no such slot
+     */
+    Object get(int slot);
+
+    /**
+     * Method sets the value of the property in the given slot.
+     *
+     * @param slot property slot
+     * @param value value of the property
+     *
+     * @throws IndexOutOfBoundsException if there is no such slot
+     * @throws ClassCastException if given value is not applicable for the property
+     * @throws UnsupportedOperationException if the property is read-only
+     */
+    void set(int slot, Object value);
+
+    /**
+     * Method returns version of the property values of this component. Version is
+     * changed every time a property is set and every time an action of the component
+     * is performed, so equal versions mean that no property was changed between two
+     * reads. Properties in slots use it as their {@link io.github.systemfalse.jcomp.Property#version()}.
+     * Default implementation returns {@code -1}, which means that version is not tracked.
+     *
+     * @return version of the property values or {@code -1}
+     */
+    default long propertyVersion() {
+        return -1;
+    }
+
+    /**
+     * Method returns the value of the {@code int} property in the given slot without
+     * boxing. Generated components override it for their {@code int} fields.
+     *
+     * @param slot property slot
+     * @return value of the property
+     *
+     * @throws IndexOutOfBoundsException if there is no such slot
+     * @throws ClassCastException if the property is not of type {@code int}
+     */
+    default int getInt(int slot) {
+        return (Integer) get(slot);
+    }
+
+    /**
+     * Method sets the value of the {@code int} property in the given slot without
+     * boxing. Generated components override it for their {@code int} fields.
+     *
+     * @param slot property slot
+     * @param value value of the property
+     *
+     * @throws IndexOutOfBoundsException if there is no such slot
+     * @throws ClassCastException if the property is not of type {@code int}
+     * @throws UnsupportedOperationException if the property is read-only
+     */
+    default void setInt(int slot, int value) {
+        set(slot, value);
+    }
+
+    /**
+     * Method returns the value of the {@code long} property in the given slot without
+     * boxing. Generated components override it for their {@code long} fields.
+     *
+     * @param slot property slot
+     * @return value of the property
+     *
+     * @throws IndexOutOfBoundsException if there is no such slot
+     * @throws ClassCastException if the property is not of type {@code long}
+     */
+    default long getLong(int slot) {
+        return (Long) get(slot);
+    }
+
+    /**
+     * Method sets the value of the {@code long} property in the given slot without
+     * boxing. Generated components override it for their {@code long} fields.
+     *
+     * @param slot property slot
+     * @param value value of the property
+     *
+     * @throws IndexOutOfBoundsException if there is no such slot
+     * @throws ClassCastException if the property is not of type {@code long}
+     * @throws UnsupportedOperationException if the property is read-only
+     */
+    default void setLong(int slot, long value) {
+        set(slot, value);
+    }
+
+    /**
+     * Method returns the value of the {@code double} property in the given slot without
+     * boxing. Generated components override it for their {@code double} fields.
+     *
+     * @param slot property slot
+     * @return value of the property
+     *
+     * @throws IndexOutOfBoundsException if there is no such slot
+     * @throws ClassCastException if the property is not of type {@code double}
+     */
+    default double getDouble(int slot) {
+        return (Double) get(slot);
+    }
+
+    /**
+     * Method sets the value of the {@code double} property in the given slot without
+     * boxing. Generated components override it for their {@code double} fields.
+     *
+     * @param slot property slot
+     * @param value value of the property
+     *
+     * @throws IndexOutOfBoundsException if there is no such slot
+     * @throws ClassCastException if the property is not of type {@code double}
+     * @throws UnsupportedOperationException if the property is read-only
+     */
+    default void setDouble(int slot, double value) {
+        set(slot, value);
+    }
+
+    /**
+     * Method returns the value of the {@code boolean} property in the given slot without
+     * boxing. Generated components override it for their {@code boolean} fields.
+     *
+     * @param slot property slot
+     * @return value of the property
+     *
+     * @throws IndexOutOfBoundsException if there is no such slot
+     * @throws ClassCastException if the property is not of type {@code boolean}
+     */
+    default boolean getBoolean(int slot) {
+        return (Boolean) get(slot);
+    }
+
+    /**
+     * Method sets the value of the {@code boolean} property in the given slot without
+     * boxing. Generated components override it for their {@code boolean} fields.
+     *
+     * @param slot property slot
+     * @param value value of the property
+     *
+     * @throws IndexOutOfBoundsException if there is no such slot
+     * @throws ClassCastException if the property is not of type {@code boolean}
+     * @throws UnsupportedOperationException if the property is read-only
+     */
+    default void setBoolean(int slot, boolean value) {
+        set(slot, value);
+    }
+}
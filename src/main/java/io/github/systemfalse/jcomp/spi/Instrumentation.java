@@ -0,0 +1,186 @@
+package io.github.systemfalse.jcomp.spi;
+
+import io.github.systemfalse.jcomp.ChangeObserver;
+import io.github.systemfalse.jcomp.ComponentType;
+import io.github.systemfalse.jcomp.MetricsSnapshot;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recorder of metrics of generated components, actions and default mappers. Recording
+ * is enabled by system property {@code jcomp.metrics} when this class is initialized.
+ * Every call site checks {@link #ENABLED} first, which is a constant for the JIT, so
+ * disabled recording costs nothing after compilation.
+ */
+public final class Instrumentation {
+    public static final boolean ENABLED = Boolean.getBoolean("jcomp.metrics");
+
+    private static final ConcurrentHashMap<ComponentType<?>, TypeMetrics> METRICS = new ConcurrentHashMap<>();
+
+    private Instrumentation() {
+    }
+
+    /**
+     * Metrics of one component type. Map of every kind is created with the holder, so
+     * the enum map is only read after that. Reads of properties are also cached by
+     * slots, so recording a read does not look up the name.
+     */
+    private static final class TypeMetrics {
+        private final EnumMap<MetricsSnapshot.Kind, ConcurrentHashMap<String, Stats>> kinds =
+                new EnumMap<>(MetricsSnapshot.Kind.class);
+        private volatile Stats[] reads;
+
+        TypeMetrics() {
+            for (MetricsSnapshot.Kind kind : MetricsSnapshot.Kind.values()) {
+                kinds.put(kind, new ConcurrentHashMap<>());
+            }
+        }
+
+        Stats[] reads(int size) {
+            Stats[] reads = this.reads;
+            if (reads == null) {
+                synchronized (this) {
+                    reads = this.reads;
+                    if (reads == null) {
+                        reads = this.reads = new Stats[size];
+                    }
+                }
+            }
+            return reads;
+        }
+    }
+
+    /**
+     * Counters of one action, property or mapping. Latencies are counted in buckets
+     * by the number of significant bits of nanoseconds.
+     */
+    public static final class Stats {
+        private final ComponentType<?> type;
+        private final MetricsSnapshot.Kind kind;
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder[] histogram;
+
+        Stats(ComponentType<?> type, MetricsSnapshot.Kind kind, String name) {
+            this.type = type;
+            this.kind = kind;
+            this.name = name;
+            this.histogram = kind == MetricsSnapshot.Kind.GET ? null : new LongAdder[MetricsSnapshot.BUCKETS];
+            if (histogram != null) {
+                for (int i = 0; i < histogram.length; i++) {
+                    histogram[i] = new LongAdder();
+                }
+            }
+        }
+
+        public void count() {
+            count.increment();
+        }
+
+        public void record(long start, boolean failed) {
+            long elapsed = Math.max(0, System.nanoTime() - start);
+            count.increment();
+            nanos.add(elapsed);
+            if (failed) {
+                failures.increment();
+            }
+            histogram[Math.min(64 - Long.numberOfLeadingZeros(elapsed), histogram.length - 1)].increment();
+        }
+
+        MetricsSnapshot snapshot() {
+            long[] buckets = new long[histogram != null ? histogram.length : 0];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = histogram[i].sum();
+            }
+            return new MetricsSnapshot(type, kind, name, count.sum(), failures.sum(), nanos.sum(), buckets);
+        }
+
+        void reset() {
+            count.reset();
+            failures.reset();
+            nanos.reset();
+            if (histogram != null) {
+                for (LongAdder bucket : histogram) {
+                    bucket.reset();
+                }
+            }
+        }
+    }
+
+    private static TypeMetrics metrics(ComponentType<?> type) {
+        TypeMetrics metrics = METRICS.get(type);
+        return metrics != null ? metrics : METRICS.computeIfAbsent(type, t -> new TypeMetrics());
+    }
+
+    public static Stats stats(ComponentType<?> type, MetricsSnapshot.Kind kind, String name) {
+        return stats(metrics(type), type, kind, name);
+    }
+
+    private static Stats stats(TypeMetrics metrics, ComponentType<?> type, MetricsSnapshot.Kind kind, String name) {
+        ConcurrentHashMap<String, Stats> stats = metrics.kinds.get(kind);
+        Stats result = stats.get(name);
+        return result != null ? result : stats.computeIfAbsent(name, n -> new Stats(type, kind, n));
+    }
+
+    /**
+     * Method records read of the property with given slot. Invalid slots, including
+     * {@code -1} of unknown names, are not recorded, so failed lookups do not grow the map.
+     *
+     * @param type component type
+     * @param slot property slot
+     * @param names property names by their slots
+     */
+    public static void get(ComponentType<?> type, int slot, String[] names) {
+        if (slot < 0 || slot >= names.length) {
+            return;
+        }
+        TypeMetrics metrics = metrics(type);
+        Stats[] reads = metrics.reads(names.length);
+        Stats stats = reads[slot];
+        if (stats == null) {
+            //racing threads store the same instance from the map, and final fields publish it safely
+            stats = reads[slot] = stats(metrics, type, MetricsSnapshot.Kind.GET, names[slot]);
+        }
+        stats.count();
+    }
+
+    public static void changed(ComponentType<?> type, String property, ChangeObserver[] observers,
+                               Object source) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            if (observers != null) {
+                Observers.changed(observers, source, property);
+            }
+            failed = false;
+        } finally {
+            stats(type, MetricsSnapshot.Kind.SET, property).record(start, failed);
+        }
+    }
+
+    public static List<MetricsSnapshot> snapshot() {
+        List<MetricsSnapshot> snapshots = new ArrayList<>();
+        for (TypeMetrics metrics : METRICS.values()) {
+            for (ConcurrentHashMap<String, Stats> stats : metrics.kinds.values()) {
+                for (Stats s : stats.values()) {
+                    snapshots.add(s.snapshot());
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    public static void reset() {
+        for (TypeMetrics metrics : METRICS.values()) {
+            for (ConcurrentHashMap<String, Stats> stats : metrics.kinds.values()) {
+                stats.values().forEach(Stats::reset);
+            }
+        }
+    }
+}
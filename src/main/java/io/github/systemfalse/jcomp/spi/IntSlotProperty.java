@@ -0,0 +1,26 @@
+package io.github.systemfalse.jcomp.spi;
+
+import io.github.systemfalse.jcomp.IntProperty;
+import io.github.systemfalse.jcomp.internal.SimpleIntProperty;
+
+public class IntSlotProperty extends SlotProperty<Integer> implements IntProperty {
+    public IntSlotProperty(IndexedComponent owner, String name, int slot, boolean readOnly) {
+        super(owner, Integer.class, name, slot, readOnly);
+    }
+
+    @Override
+    public int getInt() {
+        return owner.getInt(slot);
+    }
+
+    @Override
+    public void setInt(int value) {
+        checkWritable();
+        owner.setInt(slot, value);
+    }
+
+    @Override
+    public IntProperty clone() {
+        return new SimpleIntProperty(name(), getInt());
+    }
+}
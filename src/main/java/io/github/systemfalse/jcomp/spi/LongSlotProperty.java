@@ -0,0 +1,26 @@
+package io.github.systemfalse.jcomp.spi;
+
+import io.github.systemfalse.jcomp.LongProperty;
+import io.github.systemfalse.jcomp.internal.SimpleLongProperty;
+
+public class LongSlotProperty extends SlotProperty<Long> implements LongProperty {
+    public LongSlotProperty(IndexedComponent owner, String name, int slot, boolean readOnly) {
+        super(owner, Long.class, name, slot, readOnly);
+    }
+
+    @Override
+    public long getLong() {
+        return owner.getLong(slot);
+    }
+
+    @Override
+    public void setLong(long value) {
+        checkWritable();
+        owner.setLong(slot, value);
+    }
+
+    @Override
+    public LongProperty clone() {
+        return new SimpleLongProperty(name(), getLong());
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.systemfalse.jcomp.spi;
+
+import io.github.systemfalse.jcomp.ChangeObserver;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+public final class Observers {
+    private Observers() {
+    }
+
+    public static ChangeObserver[] add(ChangeObserver[] observers, ChangeObserver observer) {
+        Objects.requireNonNull(observer, "observer");
+        if (observers == null) {
+            return new ChangeObserver[] {observer};
+        }
+        ChangeObserver[] result = Arrays.copyOf(observers, observers.length + 1);
+        result[observers.length] = observer;
+        return result;
+    }
+
+    public static ChangeObserver[] remove(ChangeObserver[] observers, ChangeObserver observer) {
+        if (observers == null) {
+            return null;
+        }
+        for (int i = 0; i < observers.length; i++) {
+            if (observers[i].equals(observer)) {
+                if (observers.length == 1) {
+                    return null;
+                }
+                ChangeObserver[] result = new ChangeObserver[observers.length - 1];
+                System.arraycopy(observers, 0, result, 0, i);
+                System.arraycopy(observers, i + 1, result, i, result.length - i);
+                return result;
+            }
+        }
+        return observers;
+    }
+
+    public static void changed(ChangeObserver[] observers, Object source, String property) {
+        for (ChangeObserver observer : observers) {
+            observer.changed(source, property);
+        }
+    }
+}
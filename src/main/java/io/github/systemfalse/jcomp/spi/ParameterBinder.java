@@ -0,0 +1,293 @@
+package io.github.systemfalse.jcomp.spi;
+
+import com.google.common.primitives.Primitives;
+import io.github.systemfalse.jcomp.Parameter;
+
+import java.util.*;
+
+/**
+ * Parameters of all presets of an action compiled into arrays. Arguments are checked
+ * against argument classes in one loop per preset, and {@link Parameter#isValid(Object)}
+ * is called only for parameters other than {@link SimpleParameter}. Number of arguments
+ * after filling defaults is precomputed for each number of passed arguments, constant
+ * defaults are copied without calls and computed defaults receive a view of preceding
+ * arguments instead of a copied list.
+ * <p>
+ * Binder does not depend on the handler of the action, so it is created once per
+ * action declaration and shared by actions of all components.
+ * </p>
+ */
+public final class ParameterBinder {
+    private final List<List<Parameter>> presets;
+    /**
+     * Wrapped parameter classes, {@code null} for parameters validated by {@link Parameter#isValid(Object)}.
+     */
+    private final Class<?>[][] types;
+    private final boolean[][] primitive;
+    private final Parameter[][] parameters;
+    /**
+     * Number of arguments after filling defaults for given number of passed arguments,
+     * {@code -1} if preset does not accept that number.
+     */
+    private final int[][] filled;
+    private final Object[][] constants;
+    /**
+     * Whether default of the parameter is computed by {@link Parameter#defaultValue()}.
+     */
+    private final boolean[][] computed;
+    /**
+     * Positions of parameters by their names in each preset.
+     */
+    private final List<Map<String, Integer>> indices;
+    private final int capacity;
+    private final boolean cacheable;
+
+    private ParameterBinder(List<List<Parameter>> presets) {
+        this.presets = List.copyOf(presets);
+        if (this.presets.isEmpty()) {
+            throw new IllegalArgumentException("action must have at least one preset");
+        }
+        int size = this.presets.size();
+        types = new Class<?>[size][];
+        primitive = new boolean[size][];
+        parameters = new Parameter[size][];
+        filled = new int[size][];
+        constants = new Object[size][];
+        computed = new boolean[size][];
+        List<Map<String, Integer>> indices = new ArrayList<>(size);
+        int capacity = 0;
+        boolean simple = true;
+        for (int p = 0; p < size; p++) {
+            List<Parameter> preset = this.presets.get(p);
+            int count = preset.size();
+            parameters[p] = preset.toArray(Parameter[]::new);
+            types[p] = new Class<?>[count];
+            primitive[p] = new boolean[count];
+            constants[p] = new Object[count];
+            computed[p] = new boolean[count];
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                Parameter parameter = parameters[p][i];
+                if (parameter.getClass() == SimpleParameter.class) {
+                    types[p][i] = Primitives.wrap(parameter.type());
+                    primitive[p][i] = parameter.type().isPrimitive();
+                } else {
+                    simple = false;
+                }
+                if (parameter instanceof SimpleParameter s && s.hasConstantDefault()) {
+                    constants[p][i] = s.constantDefault();
+                } else {
+                    computed[p][i] = parameter.defaultValue() != null;
+                }
+                positions.putIfAbsent(parameter.name(), i);
+            }
+            indices.add(Map.copyOf(positions));
+            capacity = Math.max(capacity, count);
+            filled[p] = new int[count + 1];
+            for (int c = 0; c <= count; c++) {
+                int f = c;
+                while (f < count && hasDefault(p, f)) {
+                    f++;
+                }
+                filled[p][c] = f < count && parameters[p][f].isRequired() ? -1 : f;
+            }
+        }
+        this.indices = List.copyOf(indices);
+        this.capacity = capacity;
+        this.cacheable = simple && size > 1;
+    }
+
+    /**
+     * Method compiles parameters of given presets.
+     *
+     * @param presets parameters of presets
+     * @return binder
+     */
+    public static ParameterBinder of(List<List<Parameter>> presets) {
+        return new ParameterBinder(Objects.requireNonNull(presets, "presets"));
+    }
+
+    private boolean hasDefault(int preset, int index) {
+        return computed[preset][index] || parameters[preset][index] instanceof SimpleParameter s
+                && s.hasConstantDefault();
+    }
+
+    public List<List<Parameter>> presets() {
+        return presets;
+    }
+
+    /**
+     * Method checks whether validity of arguments depends only on their classes and
+     * there is more than one preset, so selected presets are worth remembering.
+     *
+     * @return {@code true} if selection can be cached by argument classes
+     */
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
+    /**
+     * Method returns maximal number of parameters of a preset, which is enough to bind
+     * arguments of any preset.
+     *
+     * @return maximal number of parameters
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Method checks whether any preset has parameter with the given name.
+     *
+     * @param name parameter name
+     * @return {@code true} if parameter exists, {@code false} otherwise
+     */
+    public boolean hasParameter(String name) {
+        for (Map<String, Integer> positions : indices) {
+            if (positions.containsKey(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Method returns index of the parameter with the given name in the given preset.
+     *
+     * @param preset preset index
+     * @param name parameter name
+     * @return parameter index or {@code -1}
+     */
+    public int indexOf(int preset, String name) {
+        Integer index = indices.get(preset).get(name);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Method selects the first preset that accepts given arguments.
+     *
+     * @param args argument array
+     * @param count number of passed arguments
+     * @return preset index or {@code -1}
+     */
+    public int select(Object[] args, int count) {
+        for (int p = 0; p < types.length; p++) {
+            if (accepts(p, args, count)) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Method checks whether given preset accepts given arguments.
+     *
+     * @param preset preset index
+     * @param args argument array
+     * @param count number of passed arguments
+     * @return {@code true} if preset accepts arguments, {@code false} otherwise
+     */
+    public boolean accepts(int preset, Object[] args, int count) {
+        return count < filled[preset].length && filled[preset][count] >= 0 && matches(preset, args, count);
+    }
+
+    private boolean matches(int preset, Object[] args, int count) {
+        Class<?>[] types = this.types[preset];
+        boolean[] primitive = this.primitive[preset];
+        for (int i = 0; i < count; i++) {
+            Object arg = args[i];
+            Class<?> type = types[i];
+            if (type == null) {
+                if (!parameters[preset][i].isValid(arg)) {
+                    return false;
+                }
+            } else if (arg == null ? primitive[i] : !type.isInstance(arg)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Method returns number of arguments of given preset after filling defaults.
+     *
+     * @param preset preset index
+     * @param count number of passed arguments
+     * @return number of bound arguments
+     */
+    public int filled(int preset, int count) {
+        return filled[preset][count];
+    }
+
+    /**
+     * Method fills default values of parameters following passed arguments. Given array
+     * is not modified, arguments are copied to new array if any default is filled.
+     *
+     * @param preset preset index
+     * @param args argument array
+     * @param count number of passed arguments
+     * @return array of bound arguments
+     */
+    public Object[] bind(int preset, Object[] args, int count) {
+        return bind(preset, args, count, false);
+    }
+
+    /**
+     * Method fills default values of parameters following passed arguments. If
+     * {@code reuse} is {@code true} and given array has space for all arguments,
+     * defaults are filled into it, otherwise arguments are copied to new array if any
+     * default is filled.
+     *
+     * @param preset preset index
+     * @param args argument array
+     * @param count number of passed arguments
+     * @param reuse whether elements of given array after passed arguments may be overwritten
+     * @return array of bound arguments
+     */
+    public Object[] bind(int preset, Object[] args, int count, boolean reuse) {
+        int filled = this.filled[preset][count];
+        if (filled == count) {
+            return args;
+        }
+        Object[] bound = reuse && args.length >= filled ? args : Arrays.copyOf(args, Math.max(filled, args.length));
+        Parameter[] parameters = this.parameters[preset];
+        boolean[] computed = this.computed[preset];
+        Object[] constants = this.constants[preset];
+        Prefix prefix = null;
+        for (int i = count; i < filled; i++) {
+            if (!computed[i]) {
+                bound[i] = constants[i];
+            } else {
+                if (prefix == null) {
+                    prefix = new Prefix(bound);
+                }
+                prefix.size = i;
+                bound[i] = parameters[i].defaultValue().apply(prefix);
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Read-only view of arguments preceding the parameter whose default is computed.
+     */
+    private static final class Prefix extends AbstractList<Object> implements RandomAccess {
+        private final Object[] args;
+        private int size;
+
+        Prefix(Object[] args) {
+            this.args = args;
+        }
+
+        @Override
+        public Object get(int index) {
+            Objects.checkIndex(index, size);
+            return args[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package io.github.systemfalse.jcomp.spi;
+
+import io.github.systemfalse.jcomp.*;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class SimpleAction<T> implements Action<T> {
+    /**
+     * Function that calls the method of the given preset which accepts
+     * {@code count} first arguments.
+     */
+    @FunctionalInterface
+    public interface Invoker {
+        Object invoke(int preset, Object[] args, int count) throws Throwable;
+    }
+
+    private static final Object[] EMPTY = {};
+
+    /**
+     * Preset selected for arguments of the given classes. {@code null} element
+     * stands for {@code null} argument.
+     */
+    private record Resolution(Class<?>[] shape, int preset) {
+        static Resolution of(Object[] args, int count, int preset) {
+            Class<?>[] shape = new Class<?>[count];
+            for (int i = 0; i < count; i++) {
+                shape[i] = args[i] != null ? args[i].getClass() : null;
+            }
+            return new Resolution(shape, preset);
+        }
+
+        boolean matches(Object[] args, int count) {
+            if (count != shape.length) {
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                Object arg = args[i];
+                if ((arg != null ? arg.getClass() : null) != shape[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+    private static final VarHandle IDLE;
+
+    static {
+        try {
+            IDLE = MethodHandles.lookup().findVarHandle(SimpleAction.class, "idle", SimpleActionContext.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Component handler;
+    private final String name;
+    private final Class<T> returnType;
+    private final ParameterBinder binder;
+    private final Invoker invoker;
+    private Resolution last;
+    private final ConcurrentHashMap<List<Class<?>>, Integer> resolved;
+    /**
+     * Context reused by {@code perform} overloads. It is taken atomically, so
+     * concurrent or nested calls create their own contexts.
+     */
+    @SuppressWarnings("unused")
+    private volatile SimpleActionContext<T> idle;
+    private Instrumentation.Stats stats;
+
+    public SimpleAction(Component handler, String name, Class<T> returnType, List<List<Parameter>> presets,
+                        Invoker invoker) {
+        this(handler, name, returnType, ParameterBinder.of(presets), invoker);
+    }
+
+    public SimpleAction(Component handler, String name, Class<T> returnType, ParameterBinder binder,
+                        Invoker invoker) {
+        this.handler = Objects.requireNonNull(handler);
+        this.name = Objects.requireNonNull(name);
+        this.returnType = Objects.requireNonNull(returnType);
+        this.binder = Objects.requireNonNull(binder);
+        this.invoker = Objects.requireNonNull(invoker);
+        this.resolved = binder.isCacheable() ? new ConcurrentHashMap<>() : null;
+    }
+
+    public Component handler() {
+        return handler;
+    }
+
+    @Override
+    public Class<T> returnType() {
+        return returnType;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public int parameterCount() {
+        return parameters().size();
+    }
+
+    /**
+     * Method returns parameters of the first preset.
+     *
+     * @return list of parameters
+     */
+    @Override
+    public List<Parameter> parameters() {
+        return binder.presets().get(0);
+    }
+
+    /**
+     * Method returns parameter lists of all presets of this action.
+     *
+     * @return list of presets
+     */
+    public List<List<Parameter>> presets() {
+        return binder.presets();
+    }
+
+    @Override
+    public ActionContext<T> createContext() {
+        return new SimpleActionContext<>(this);
+    }
+
+    @Override
+    public T perform(Object... args) {
+        return invoke(args, args.length);
+    }
+
+    @Override
+    public T perform() {
+        return invoke(EMPTY, 0);
+    }
+
+    @Override
+    public T perform(Object a) {
+        SimpleActionContext<T> context = acquire();
+        try {
+            return context.with(0, a).call();
+        } finally {
+            release(context);
+        }
+    }
+
+    @Override
+    public T perform(Object a, Object b) {
+        SimpleActionContext<T> context = acquire();
+        try {
+            return context.with(0, a).with(1, b).call();
+        } finally {
+            release(context);
+        }
+    }
+
+    @Override
+    public T perform(Object a, Object b, Object c) {
+        SimpleActionContext<T> context = acquire();
+        try {
+            return context.with(0, a).with(1, b).with(2, c).call();
+        } finally {
+            release(context);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private SimpleActionContext<T> acquire() {
+        SimpleActionContext<T> context = (SimpleActionContext<T>) IDLE.getAndSetAcquire(this, null);
+        return context != null ? context : new SimpleActionContext<>(this);
+    }
+
+    private void release(SimpleActionContext<T> context) {
+        context.reset();
+        IDLE.setRelease(this, context);
+    }
+
+    /**
+     * Method returns maximal number of parameters of a preset.
+     *
+     * @return maximal number of parameters
+     */
+    int capacity() {
+        return binder.capacity();
+    }
+
+    /**
+     * Method checks whether any preset has parameter with the given name.
+     *
+     * @param name parameter name
+     * @return {@code true} if parameter exists, {@code false} otherwise
+     */
+    boolean hasParameter(String name) {
+        return binder.hasParameter(name);
+    }
+
+    /**
+     * Method selects the first preset that accepts given arguments, fills
+     * default values and invokes it. Selected presets are remembered for the
+     * classes of the arguments, so preset is selected once per combination of
+     * argument classes. The last combination is checked without allocations.
+     *
+     * @param args argument array
+     * @param count number of passed arguments
+     * @return action result
+     */
+    T invoke(Object[] args, int count) {
+        return invoke(args, count, false);
+    }
+
+    /**
+     * Method works like {@link #invoke(Object[], int)}, but if {@code reuse} is
+     * {@code true}, defaults are filled into given array when it has enough space.
+     *
+     * @param args argument array
+     * @param count number of passed arguments
+     * @param reuse whether elements of given array after passed arguments may be overwritten
+     * @return action result
+     */
+    T invoke(Object[] args, int count, boolean reuse) {
+        if (!Instrumentation.ENABLED) {
+            return dispatch(args, count, reuse);
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = dispatch(args, count, reuse);
+            failed = false;
+            return result;
+        } finally {
+            stats().record(start, failed);
+        }
+    }
+
+    /**
+     * Method selects the first preset that has all parameters with given names and
+     * accepts given arguments with named arguments placed at positions of these
+     * parameters in the preset. Named arguments are placed into a copy of given array
+     * for each checked preset, so different presets may declare them at different
+     * positions.
+     *
+     * @param args argument array
+     * @param count number of passed positional arguments
+     * @param names names of named arguments
+     * @param values values of named arguments
+     * @param named number of named arguments
+     * @return action result
+     */
+    T invoke(Object[] args, int count, String[] names, Object[] values, int named) {
+        if (!Instrumentation.ENABLED) {
+            return dispatch(args, count, names, values, named);
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = dispatch(args, count, names, values, named);
+            failed = false;
+            return result;
+        } finally {
+            stats().record(start, failed);
+        }
+    }
+
+    private Instrumentation.Stats stats() {
+        Instrumentation.Stats stats = this.stats;
+        if (stats == null) {
+            stats = this.stats = Instrumentation.stats(handler.type(), MetricsSnapshot.Kind.ACTION, name);
+        }
+        return stats;
+    }
+
+    private T dispatch(Object[] args, int count, boolean reuse) {
+        Resolution resolution = last;
+        int preset;
+        if (resolution != null && resolution.matches(args, count)) {
+            preset = resolution.preset();
+        } else if (resolved != null) {
+            resolution = Resolution.of(args, count, -1);
+            preset = resolved.computeIfAbsent(Arrays.asList(resolution.shape()), k -> binder.select(args, count));
+            last = new Resolution(resolution.shape(), preset);
+        } else {
+            preset = binder.select(args, count);
+        }
+        if (preset < 0) {
+            throw new ActionException(handler, name, "no preset accepts " + count + " given arguments");
+        }
+        return invoke(preset, args, count, reuse);
+    }
+
+    private T dispatch(Object[] args, int count, String[] names, Object[] values, int named) {
+        int presets = binder.presets().size();
+        Object[] bound = new Object[binder.capacity()];
+        presets:
+        for (int p = 0; p < presets; p++) {
+            Arrays.fill(bound, null);
+            System.arraycopy(args, 0, bound, 0, Math.min(count, bound.length));
+            int total = count;
+            for (int i = 0; i < named; i++) {
+                int index = binder.indexOf(p, names[i]);
+                if (index < 0 || index < count) {
+                    continue presets;
+                }
+                bound[index] = values[i];
+                total = Math.max(total, index + 1);
+            }
+            if (total <= bound.length && binder.accepts(p, bound, total)) {
+                return invoke(p, bound, total, true);
+            }
+        }
+        throw new ActionException(handler, name, "no preset accepts given arguments");
+    }
+
+    @SuppressWarnings("unchecked")
+    private T invoke(int preset, Object[] args, int count, boolean reuse) {
+        try {
+            return (T) invoker.invoke(preset, binder.bind(preset, args, count, reuse), binder.filled(preset, count));
+        } catch (ActionException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ActionException(handler, name, e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.systemfalse.jcomp.spi;
+
+import io.github.systemfalse.jcomp.ActionContext;
+import io.github.systemfalse.jcomp.ActionException;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Context of {@link SimpleAction}. Positional arguments are stored in an array that
+ * has space for parameters of every preset, so defaults are filled into it without
+ * copying. Named arguments are kept separately and placed at positions of their
+ * parameters in the preset that is selected.
+ *
+ * @param <T> action return type
+ */
+public class SimpleActionContext<T> implements ActionContext<T> {
+    private static final String[] NO_NAMES = {};
+    private static final Object[] NO_VALUES = {};
+
+    private final SimpleAction<T> action;
+    private Object[] args;
+    private int count;
+    private String[] names = NO_NAMES;
+    private Object[] values = NO_VALUES;
+    private int named;
+
+    public SimpleActionContext(SimpleAction<T> action) {
+        this.action = Objects.requireNonNull(action);
+        this.args = new Object[action.capacity()];
+    }
+
+    @Override
+    public ActionContext<T> with(String name, Object value) {
+        Objects.requireNonNull(name, "name");
+        if (!action.hasParameter(name)) {
+            throw new IllegalArgumentException("action \"" + action.name() + "\" has no parameter \"" + name + "\"");
+        }
+        for (int i = 0; i < named; i++) {
+            if (names[i].equals(name)) {
+                values[i] = value;
+                return this;
+            }
+        }
+        if (named == names.length) {
+            int length = Math.max(4, named * 2);
+            names = Arrays.copyOf(names, length);
+            values = Arrays.copyOf(values, length);
+        }
+        names[named] = name;
+        values[named++] = value;
+        return this;
+    }
+
+    @Override
+    public ActionContext<T> with(int index, Object value) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        if (index >= args.length) {
+            args = Arrays.copyOf(args, Math.max(index + 1, args.length * 2));
+        }
+        args[index] = value;
+        count = Math.max(count, index + 1);
+        return this;
+    }
+
+    @Override
+    public ActionContext<T> with(Object value) {
+        return with(count, value);
+    }
+
+    @Override
+    public ActionContext<T> with(Object... values) {
+        for (Object value : values) {
+            with(count, value);
+        }
+        return this;
+    }
+
+    @Override
+    public ActionContext<T> reset() {
+        Arrays.fill(args, null);
+        count = 0;
+        Arrays.fill(names, 0, named, null);
+        Arrays.fill(values, 0, named, null);
+        named = 0;
+        return this;
+    }
+
+    @Override
+    public T call() throws ActionException {
+        if (named > 0) {
+            return action.invoke(args, count, names, values, named);
+        }
+        return action.invoke(args, count, true);
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.systemfalse.jcomp.spi;
+
+import com.google.common.primitives.Primitives;
+import io.github.systemfalse.jcomp.Parameter;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+public class SimpleParameter implements Parameter {
+    private final Class<?> type;
+    private final Class<?> wrapped;
+    private final String name;
+    private final boolean required;
+    private final Function<List<Object>, Object> defaultValue;
+    private final boolean constant;
+    private final Object constantValue;
+
+    public SimpleParameter(Class<?> type, String name) {
+        this(type, name, true, null);
+    }
+
+    public SimpleParameter(Class<?> type, String name, boolean required, Function<List<Object>, Object> defaultValue) {
+        this.type = Objects.requireNonNull(type);
+        this.wrapped = Primitives.wrap(type);
+        this.name = Objects.requireNonNull(name);
+        this.required = required;
+        this.defaultValue = required ? null : defaultValue;
+        this.constant = false;
+        this.constantValue = null;
+    }
+
+    private SimpleParameter(Class<?> type, String name, Object constantValue) {
+        this.type = Objects.requireNonNull(type);
+        this.wrapped = Primitives.wrap(type);
+        this.name = Objects.requireNonNull(name);
+        this.required = false;
+        this.defaultValue = args -> constantValue;
+        this.constant = true;
+        this.constantValue = constantValue;
+    }
+
+    public static SimpleParameter optional(Class<?> type, String name, Object defaultValue) {
+        return new SimpleParameter(type, name, defaultValue);
+    }
+
+    @Override
+    public Class<?> type() {
+        return type;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public boolean isValid(Object value) {
+        return value == null ? !type.isPrimitive() : wrapped.isInstance(value);
+    }
+
+    @Override
+    public boolean isRequired() {
+        return required;
+    }
+
+    @Override
+    public Function<List<Object>, Object> defaultValue() {
+        return defaultValue;
+    }
+
+    boolean hasConstantDefault() {
+        return constant;
+    }
+
+    Object constantDefault() {
+        return constantValue;
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.systemfalse.jcomp.spi;
+
+import io.github.systemfalse.jcomp.ColumnInitializer;
+import io.github.systemfalse.jcomp.Initializer;
+import io.github.systemfalse.jcomp.internal.Columns;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+public class SlotInitializer<C extends IndexedComponent> implements Initializer<C> {
+    private final Supplier<C> factory;
+    private final ToIntFunction<String> resolver;
+    private int[] slots = new int[4];
+    private Object[] values = new Object[4];
+    private int count;
+
+    public SlotInitializer(Supplier<C> factory, ToIntFunction<String> resolver) {
+        this.factory = Objects.requireNonNull(factory);
+        this.resolver = Objects.requireNonNull(resolver);
+    }
+
+    @Override
+    public Initializer<C> set(String property, Object value) {
+        int slot = slot(property);
+        //later value of the same property replaces earlier one, so repeated sets do not grow
+        for (int i = 0; i < count; i++) {
+            if (slots[i] == slot) {
+                values[i] = value;
+                return this;
+            }
+        }
+        if (count == slots.length) {
+            slots = Arrays.copyOf(slots, count * 2);
+            values = Arrays.copyOf(values, count * 2);
+        }
+        slots[count] = slot;
+        values[count] = value;
+        count++;
+        return this;
+    }
+
+    @Override
+    public C get() {
+        C component = factory.get();
+        for (int i = 0; i < count; i++) {
+            component.set(slots[i], values[i]);
+        }
+        return component;
+    }
+
+    @Override
+    public ColumnInitializer<C> columns(String... properties) {
+        int[] columnSlots = new int[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            columnSlots[i] = slot(properties[i]);
+        }
+        List<String> names = List.of(properties);
+        return new ColumnInitializer<>() {
+            @Override
+            public List<String> properties() {
+                return names;
+            }
+
+            @Override
+            public List<C> create(Object... columns) {
+                int rows = Columns.rows(columnSlots.length, columns);
+                Columns.Accessor[] accessors = Columns.accessors(columns);
+                List<C> components = new ArrayList<>(rows);
+                for (int row = 0; row < rows; row++) {
+                    C component = get();
+                    for (int i = 0; i < columnSlots.length; i++) {
+                        component.set(columnSlots[i], accessors[i].get(row));
+                    }
+                    components.add(component);
+                }
+                return components;
+            }
+        };
+    }
+
+    private int slot(String property) {
+        int slot = resolver.applyAsInt(Objects.requireNonNull(property, "property"));
+        if (slot < 0) {
+            throw new IllegalArgumentException("No such property: \"" + property + "\"");
+        }
+        return slot;
+    }
+}
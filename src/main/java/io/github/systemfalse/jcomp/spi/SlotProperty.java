@@ -0,0 +1,86 @@
+package io.github.systemfalse.jcomp.spi;
+
+import io.github.systemfalse.jcomp.ChangeObserver;
+import io.github.systemfalse.jcomp.Component;
+import io.github.systemfalse.jcomp.Property;
+import io.github.systemfalse.jcomp.internal.SimpleProperty;
+
+import java.util.Objects;
+
+public class SlotProperty<T> implements Property<T> {
+    final IndexedComponent owner;
+    private final Class<T> type;
+    private final String name;
+    final int slot;
+    final boolean readOnly;
+
+    public SlotProperty(IndexedComponent owner, Class<T> type, String name, int slot, boolean readOnly) {
+        this.owner = Objects.requireNonNull(owner);
+        this.type = Objects.requireNonNull(type);
+        this.name = Objects.requireNonNull(name);
+        this.slot = slot;
+        this.readOnly = readOnly;
+    }
+
+    @Override
+    public Class<T> type() {
+        return type;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T get() {
+        return (T) owner.get(slot);
+    }
+
+    @Override
+    public long version() {
+        return owner.propertyVersion();
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    @Override
+    public void set(Object value) {
+        checkWritable();
+        owner.set(slot, value);
+    }
+
+    final void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("unmodifiable property");
+        }
+    }
+
+    @Override
+    public void observe(ChangeObserver observer) {
+        ((Component) owner).observe(new Filter(this, observer));
+    }
+
+    @Override
+    public void unobserve(ChangeObserver observer) {
+        ((Component) owner).unobserve(new Filter(this, observer));
+    }
+
+    @Override
+    public Property<T> clone() {
+        return new SimpleProperty<>(type, name, get());
+    }
+
+    private record Filter(SlotProperty<?> property, ChangeObserver observer) implements ChangeObserver {
+        @Override
+        public void changed(Object source, String property) {
+            if (this.property.name.equals(property)) {
+                observer.changed(this.property, property);
+            }
+        }
+    }
+}
@@ -1,8 +1,14 @@
 module jcomp {
     requires static com.google.common;
-    requires jdk.compiler;
+    requires java.compiler;
 
     exports io.github.systemfalse.jcomp;
     exports io.github.systemfalse.jcomp.builders;
     exports io.github.systemfalse.jcomp.annotations;
-}
\ No newline at end of file
+    //support of generated components, which are compiled in modules of their definitions
+    exports io.github.systemfalse.jcomp.spi;
+
+    uses io.github.systemfalse.jcomp.MetricsExporter;
+
+    provides javax.annotation.processing.Processor with io.github.systemfalse.jcomp.annotations.ComponentProcessor;
+}
@@ -0,0 +1,91 @@
+package io.github.systemfalse.jcomp;
+
+import io.github.systemfalse.jcomp.annotations.ActionRef;
+import io.github.systemfalse.jcomp.annotations.ParameterRef;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActionBindingTest {
+    @Test
+    void actionsInvokeTargetMethods() {
+        Counter counter = new Counter();
+        Map<String, Action<?>> actions = ComponentFactory.actions(Sample.TYPE.initialize().get(), counter);
+        assertEquals(Set.of("add", "scale", "describe"), actions.keySet());
+        assertEquals(3, actions.get("add").perform(1, 2));
+        assertEquals(16, actions.get("add").perform(1));
+        assertEquals(16, counter.total);
+    }
+
+    @Test
+    void defaultsAreResolved() {
+        Map<String, Action<?>> actions = ComponentFactory.actions(Sample.TYPE.initialize().get(), new Counter());
+        assertEquals(10, actions.get("scale").perform(5));
+        assertEquals(7, actions.get("scale").perform(5, 7));
+    }
+
+    @Test
+    void presetIsSelectedByArguments() {
+        Action<?> describe = ComponentFactory.actions(Sample.TYPE.initialize().get(), new Counter()).get("describe");
+        assertEquals("text:a", describe.perform("a"));
+        assertEquals("2:a", describe.perform(2, "a"));
+        assertEquals("text:b", describe.perform("b"));
+    }
+
+    @Test
+    void actionsOfDifferentTargetsAreSeparate() {
+        Component handler = Sample.TYPE.initialize().get();
+        Counter first = new Counter();
+        Counter second = new Counter();
+        ComponentFactory.actions(handler, first).get("add").perform(1, 1);
+        ComponentFactory.actions(handler, second).get("add").perform(3, 3);
+        assertEquals(2, first.total);
+        assertEquals(6, second.total);
+    }
+
+    @Test
+    void invalidDefaultIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ComponentFactory.actions(Sample.TYPE.initialize().get(), new Invalid()));
+    }
+
+    public static class Counter {
+        int total;
+
+        static int twice(List<Object> args) {
+            return 2 * (Integer) args.get(0);
+        }
+
+        @ActionRef
+        public int add(int a, @ParameterRef(required = false, defaultValue = "12") int b) {
+            total += a + b;
+            return total;
+        }
+
+        @ActionRef
+        public int scale(int a, @ParameterRef(required = false, defaultComputedValue = "twice") int b) {
+            return b;
+        }
+
+        @ActionRef
+        public String describe(String text) {
+            return "text:" + text;
+        }
+
+        @ActionRef(preset = 1)
+        public String describe(int count, String text) {
+            return count + ":" + text;
+        }
+    }
+
+    public static class Invalid {
+        @ActionRef
+        public int add(int a, @ParameterRef(required = false, defaultValue = "text") int b) {
+            return a + b;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.systemfalse.jcomp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncActionsTest {
+    @Test
+    void performAsyncOnUsesGivenExecutor() throws Exception {
+        AtomicInteger tasks = new AtomicInteger();
+        Executor executor = task -> {
+            tasks.incrementAndGet();
+            task.run();
+        };
+        Sample sample = Sample.TYPE.initialize().get();
+        Action<?> move = sample.action("move").orElseThrow();
+        assertEquals(2, move.performAsyncOn(executor, 2, 3).get(10, TimeUnit.SECONDS));
+        assertEquals(1, tasks.get());
+        assertEquals(3, sample.get("y"));
+    }
+
+    @Test
+    void performAsyncUsesDefaultExecutor() throws Exception {
+        AtomicInteger tasks = new AtomicInteger();
+        AsyncActions.setDefaultExecutor(task -> {
+            tasks.incrementAndGet();
+            task.run();
+        });
+        try {
+            Sample sample = Sample.TYPE.initialize().get();
+            assertEquals("abab", sample.action("repeat").orElseThrow().performAsync("ab")
+                    .get(10, TimeUnit.SECONDS));
+            assertEquals(1, tasks.get());
+        } finally {
+            AsyncActions.setDefaultExecutor(null);
+        }
+        assertNotNull(AsyncActions.defaultExecutor());
+    }
+
+    @Test
+    void performAllKeepsListOrder() throws Exception {
+        ComponentList list = new ComponentList();
+        list.add("b", Sample.TYPE.initialize().set("x", 10).get());
+        list.add("a", Sample.TYPE.initialize().get());
+        Map<String, Object> results = AsyncActions.performAll(list, "move", 1, 1).get(10, TimeUnit.SECONDS);
+        assertEquals(List.of("b", "a"), List.copyOf(results.keySet()));
+        assertEquals(11, results.get("b"));
+        assertEquals(1, results.get("a"));
+    }
+
+    @Test
+    void performAllChecksActionsBeforeStarting() {
+        ComponentList list = new ComponentList();
+        Sample sample = Sample.TYPE.initialize().get();
+        list.add("sample", sample);
+        list.add("leaf", Leaf.TYPE.initialize().get());
+        assertThrows(NoSuchActionException.class, () -> AsyncActions.performAll(list, Runnable::run, "move", 1, 1));
+        assertEquals(0, sample.get("x"));
+    }
+
+    @Test
+    void failuresCompleteFutureExceptionally() {
+        Sample sample = Sample.TYPE.initialize().get();
+        var future = sample.action("move").orElseThrow().performAsyncOn(Runnable::run, "a", "b");
+        CompletionException e = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(ActionException.class, e.getCause());
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.systemfalse.jcomp;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryFormatTest {
+    private static byte[] write(Component component) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ComponentWriter writer = ComponentWriter.of(out)) {
+            writer.write(component);
+        }
+        return out.toByteArray();
+    }
+
+    private static ComponentReader reader(byte[] bytes) {
+        return ComponentReader.of(new ByteArrayInputStream(bytes), Sample.TYPE, Leaf.TYPE);
+    }
+
+    @Test
+    void componentRoundTrip() throws IOException {
+        Sample sample = Sample.TYPE.initialize().set("x", 3).set("label", "a").get();
+        sample.children().get("head").set("value", 5);
+        sample.tail().set("name", "t");
+        Component read;
+        try (ComponentReader reader = reader(write(sample))) {
+            assertTrue(reader.hasNext());
+            read = reader.readComponent();
+            assertFalse(reader.hasNext());
+        }
+        assertTrue(Sample.TYPE.isInstance(read));
+        assertEquals(3, read.get("x"));
+        assertEquals("a", read.get("label"));
+        assertEquals(5, read.children().get("head").get("value"));
+        assertEquals("t", read.children().get("tail").get("name"));
+    }
+
+    @Test
+    void listRoundTripKeepsNamesAndOrder() throws IOException {
+        ComponentList list = new ComponentList();
+        list.add("b", Leaf.TYPE.initialize().set("value", 2).get());
+        list.add("a", Leaf.TYPE.initialize().set("value", 1).get());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ComponentWriter writer = ComponentWriter.of(out)) {
+            writer.write(list);
+        }
+        ComponentList read;
+        try (ComponentReader reader = reader(out.toByteArray())) {
+            read = reader.readList();
+        }
+        assertEquals(2, read.size());
+        assertEquals("b", read.name(0));
+        assertEquals(1, read.get("a").get("value"));
+    }
+
+    @Test
+    void writingDoesNotStoreLazyChildren() throws IOException {
+        AtomicInteger created = new AtomicInteger();
+        ComponentList list = new ComponentList();
+        list.addLazy("leaf", () -> {
+            created.incrementAndGet();
+            return Leaf.TYPE.initialize().set("value", 4).get();
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ComponentWriter writer = ComponentWriter.of(out)) {
+            writer.write(list);
+        }
+        try (ComponentReader reader = reader(out.toByteArray())) {
+            assertEquals(4, reader.readList().get("leaf").get("value"));
+        }
+        //written component is not stored, so the entry is still created on the first access
+        int written = created.get();
+        Component leaf = list.get("leaf");
+        assertEquals(written + 1, created.get());
+        assertSame(leaf, list.get("leaf"));
+        assertEquals(written + 1, created.get());
+    }
+
+    @Test
+    void writingKeepsLazyChildOfComponentConsistent() throws IOException {
+        Sample sample = Sample.TYPE.initialize().get();
+        write(sample);
+        assertNull(sample.tail);
+        Component tail = sample.tail();
+        assertSame(tail, sample.children().get("tail"));
+        tail.set("value", 3);
+        assertEquals(3, sample.children().get("tail").get("value"));
+        write(sample);
+        assertSame(sample.tail(), sample.children().get("tail"));
+    }
+
+    @Test
+    void cyclesAreRejected() {
+        Sample sample = Sample.TYPE.initialize().get();
+        sample.children().add("self", sample);
+        assertThrows(IOException.class, () -> write(sample));
+    }
+
+    @Test
+    void lengthsAreNotTrusted() {
+        //component record with type name "a" and 2^31 - 1 property names
+        byte[] names = {0x4A, 0x43, 0x4D, 0x50, BinaryFormat.VERSION, BinaryFormat.RECORD_COMPONENT, 0, 1, 'a',
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+        assertThrows(EOFException.class, () -> reader(names).readComponent());
+        //component record with type name of 2^31 - 1 bytes
+        byte[] string = {0x4A, 0x43, 0x4D, 0x50, BinaryFormat.VERSION, BinaryFormat.RECORD_COMPONENT, 0,
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+        assertThrows(EOFException.class, () -> reader(string).readComponent());
+    }
+
+    @Test
+    void unknownTypesAreRejected() throws IOException {
+        byte[] bytes = write(Sample.TYPE.initialize().get());
+        try (ComponentReader reader = ComponentReader.of(new ByteArrayInputStream(bytes), Leaf.TYPE)) {
+            assertThrows(IOException.class, reader::readComponent);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.systemfalse.jcomp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeDispatcherTest {
+    @Test
+    void componentChangesAreCoalesced() {
+        ChangeDispatcher dispatcher = ChangeDispatcher.create();
+        Sample sample = Sample.TYPE.initialize().get();
+        List<Set<String>> changes = new ArrayList<>();
+        dispatcher.listen(sample, (component, properties) -> {
+            assertSame(sample, component);
+            changes.add(Set.copyOf(properties));
+        });
+        sample.set("x", 1);
+        sample.set("x", 2);
+        sample.set("label", "changed");
+        assertTrue(changes.isEmpty());
+        dispatcher.flush();
+        assertEquals(List.of(Set.of("x", "label")), changes);
+        dispatcher.flush();
+        assertEquals(1, changes.size());
+    }
+
+    @Test
+    void propertyListenerIsNotifiedOncePerFlush() {
+        ChangeDispatcher dispatcher = ChangeDispatcher.create();
+        Sample sample = Sample.TYPE.initialize().get();
+        @SuppressWarnings("unchecked")
+        Property<Integer> x = (Property<Integer>) sample.property("x").orElseThrow();
+        List<Integer> values = new ArrayList<>();
+        dispatcher.listen(x, property -> values.add(property.get()));
+        x.set(1);
+        sample.set("x", 5);
+        dispatcher.flush();
+        assertEquals(List.of(5), values);
+    }
+
+    @Test
+    void closedSubscriptionDropsChanges() {
+        ChangeDispatcher dispatcher = ChangeDispatcher.create();
+        Sample sample = Sample.TYPE.initialize().get();
+        AtomicInteger calls = new AtomicInteger();
+        ChangeDispatcher.Subscription subscription = dispatcher.listen(sample,
+                (component, properties) -> calls.incrementAndGet());
+        sample.set("y", 1);
+        subscription.close();
+        sample.set("y", 2);
+        dispatcher.flush();
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void executorIsScheduledOncePerBatch() {
+        List<Runnable> tasks = new ArrayList<>();
+        ChangeDispatcher dispatcher = ChangeDispatcher.create(tasks::add);
+        Sample first = Sample.TYPE.initialize().get();
+        Sample second = Sample.TYPE.initialize().get();
+        AtomicInteger calls = new AtomicInteger();
+        dispatcher.listen(first, (component, properties) -> calls.incrementAndGet());
+        dispatcher.listen(second, (component, properties) -> calls.incrementAndGet());
+        first.set("x", 1);
+        second.set("x", 1);
+        first.set("y", 1);
+        assertEquals(1, tasks.size());
+        tasks.remove(0).run();
+        assertEquals(2, calls.get());
+        first.set("x", 2);
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    void failingListenerDoesNotStopOthers() {
+        ChangeDispatcher dispatcher = ChangeDispatcher.create();
+        Sample sample = Sample.TYPE.initialize().get();
+        AtomicInteger calls = new AtomicInteger();
+        dispatcher.listen(sample, (component, properties) -> {
+            throw new IllegalStateException("listener");
+        });
+        dispatcher.listen(sample, (component, properties) -> calls.incrementAndGet());
+        sample.set("x", 1);
+        assertThrows(IllegalStateException.class, dispatcher::flush);
+        assertEquals(1, calls.get());
+    }
+}
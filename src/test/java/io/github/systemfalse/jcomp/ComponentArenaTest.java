@@ -0,0 +1,85 @@
+package io.github.systemfalse.jcomp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentArenaTest {
+    @Test
+    void slotsReadAndWriteRecords() {
+        try (ComponentArena<Sample> arena = new ComponentArena<>(Sample.TYPE)) {
+            ComponentArena.Slot slot = arena.allocate();
+            assertEquals("sample", slot.get("label"));
+            slot.set("x", 7);
+            slot.set("label", "a");
+            assertEquals(7, slot.get("x"));
+            assertEquals("a", slot.get("label"));
+            assertSame(Sample.TYPE, slot.type());
+            assertEquals(1, arena.size());
+            assertThrows(NoSuchPropertyException.class, () -> slot.get("missing"));
+        }
+    }
+
+    @Test
+    void allocateCopiesComponent() {
+        try (ComponentArena<Sample> arena = new ComponentArena<>(Sample.TYPE)) {
+            Sample sample = Sample.TYPE.initialize().set("y", 2).get();
+            ComponentArena.Slot slot = arena.allocate(sample);
+            sample.set("y", 3);
+            assertEquals(2, slot.get("y"));
+        }
+    }
+
+    @Test
+    void freedSlotsAreRejected() {
+        try (ComponentArena<Sample> arena = new ComponentArena<>(Sample.TYPE)) {
+            ComponentArena.Slot slot = arena.allocate();
+            slot.set("x", 1);
+            arena.free(slot);
+            assertFalse(slot.isLive());
+            assertThrows(IllegalStateException.class, () -> slot.get("x"));
+            assertThrows(IllegalStateException.class, () -> arena.free(slot));
+            ComponentArena.Slot reused = arena.allocate();
+            assertTrue(reused.isLive());
+            assertEquals(0, reused.get("x"));
+            assertThrows(IllegalStateException.class, () -> slot.set("x", 2));
+            assertNotEquals(slot, reused);
+        }
+    }
+
+    @Test
+    void slotsOfOtherArenasAreRejected() {
+        try (ComponentArena<Sample> first = new ComponentArena<>(Sample.TYPE);
+             ComponentArena<Sample> second = new ComponentArena<>(Sample.TYPE)) {
+            ComponentArena.Slot slot = first.allocate();
+            assertThrows(IllegalArgumentException.class, () -> second.free(slot));
+        }
+    }
+
+    @Test
+    void closedArenaRejectsSlots() {
+        ComponentArena<Sample> arena = new ComponentArena<>(Sample.TYPE);
+        ComponentArena.Slot slot = arena.allocate();
+        arena.close();
+        assertFalse(slot.isLive());
+        assertThrows(IllegalStateException.class, arena::allocate);
+        assertThrows(IllegalStateException.class, () -> slot.get("x"));
+    }
+
+    @Test
+    void cloneIsDetachedAndKeepsChildren() {
+        try (ComponentArena<Sample> arena = new ComponentArena<>(Sample.TYPE)) {
+            ComponentArena.Slot slot = arena.allocate();
+            slot.set("x", 4);
+            slot.children().get("head").set("value", 9);
+            slot.children().add("extra", Leaf.TYPE.initialize().get());
+            Component clone = slot.clone();
+            assertTrue(Sample.TYPE.isInstance(clone));
+            assertEquals(4, clone.get("x"));
+            assertEquals(9, clone.children().get("head").get("value"));
+            assertTrue(clone.children().contains("extra"));
+            clone.set("x", 5);
+            assertEquals(4, slot.get("x"));
+        }
+    }
+}
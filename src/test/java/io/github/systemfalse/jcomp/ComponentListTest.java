@@ -0,0 +1,238 @@
+package io.github.systemfalse.jcomp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentListTest {
+    @Test
+    void lazyCloneKeepsComponentsOfSource() {
+        ComponentList source = new ComponentList();
+        source.add("a", leaf(5));
+        Component a = source.get(0);
+        ComponentList copy = source.lazyClone();
+        assertSame(a, source.get(0));
+        assertSame(a, source.get("a"));
+        assertNotSame(a, copy.get(0));
+        copy.get("a").set("value", 7);
+        assertEquals(5, a.get("value"));
+        assertEquals(7, copy.get("a").get("value"));
+        source.add("b", leaf(1));
+        assertSame(a, source.get("a"));
+        assertEquals(1, copy.size());
+    }
+
+    @Test
+    void lazyCloneOfComponentKeepsChildrenOfSource() {
+        Sample sample = Sample.TYPE.initialize().get();
+        Component head = sample.children().get("head");
+        Component tail = sample.tail();
+        Component copy = sample.lazyClone();
+        assertSame(head, sample.children().get("head"));
+        assertSame(tail, sample.children().get("tail"));
+        assertSame(tail, sample.tail());
+        copy.children().get("tail").set("value", 2);
+        assertEquals(0, tail.get("value"));
+    }
+
+    @Test
+    void lazyCloneOfComponentKeepsChildrenSeparate() {
+        Sample sample = Sample.TYPE.initialize().get();
+        sample.tail().set("value", 4);
+        Component copy = sample.lazyClone();
+        sample.children().get("head").set("value", 3);
+        sample.tail().set("value", 9);
+        assertEquals(0, copy.children().get("head").get("value"));
+        assertEquals(4, copy.children().get("tail").get("value"));
+    }
+
+    @Test
+    void typedLazyEntryIsNotCreatedByQueries() {
+        AtomicInteger created = new AtomicInteger();
+        ComponentList list = new ComponentList();
+        list.addLazy("leaf", Leaf.TYPE, () -> {
+            created.incrementAndGet();
+            return Leaf.TYPE.initialize().get();
+        });
+        assertTrue(list.get(Sample.TYPE).isEmpty());
+        assertEquals(0, created.get());
+        assertEquals(1, list.get(Leaf.TYPE).size());
+        assertEquals(1, created.get());
+        assertSame(list.get("leaf"), list.get(0));
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    void untypedLazyEntryIsGroupedByItsClass() {
+        ComponentList list = new ComponentList();
+        list.addLazy("leaf", () -> Leaf.TYPE.initialize().get());
+        list.add("sample", Sample.TYPE.initialize().get());
+        assertEquals(1, list.get(Leaf.TYPE).size());
+        assertEquals(1, list.get(Sample.TYPE).size());
+        assertEquals("leaf", list.name(0));
+    }
+
+    @Test
+    void queryByTypeWithoutComponentClassChecksEachComponent() {
+        ComponentList list = new ComponentList();
+        list.add("a", leaf(1));
+        list.add("b", leaf(0));
+        list.add("c", leaf(2));
+        ComponentType<Leaf> positive = positive();
+        assertEquals(List.of(list.get("a"), list.get("c")), list.get(positive));
+        List<Leaf> view = list.view(positive);
+        assertEquals(2, view.size());
+        list.get("b").set("value", 3);
+        assertEquals(3, view.size());
+        assertSame(list.get("b"), view.get(1));
+    }
+
+    @Test
+    void typedLazyEntryIsCheckedByTypeWithoutComponentClass() {
+        AtomicInteger created = new AtomicInteger();
+        ComponentList list = new ComponentList();
+        list.addLazy("zero", Leaf.TYPE, () -> {
+            created.incrementAndGet();
+            return leaf(0);
+        });
+        list.addLazy("one", positive(), () -> leaf(1));
+        assertEquals(1, list.get(positive()).size());
+        assertEquals(1, created.get());
+        assertEquals(List.of(list.get("zero"), list.get("one")), list.get(Leaf.TYPE));
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    void concurrentListIteratesPublishedState() {
+        ComponentList list = ComponentList.concurrent(ComponentList.entry("a", leaf(1)),
+                ComponentList.entry("b", leaf(2)));
+        Iterator<Component> iterator = list.iterator();
+        assertEquals(1, iterator.next().get("value"));
+        list.add("c", leaf(3));
+        list.remove("b");
+        assertEquals(2, iterator.next().get("value"));
+        assertFalse(iterator.hasNext());
+        assertEquals(List.of("a", "c"), List.of(list.name(0), list.name(1)));
+    }
+
+    @Test
+    void concurrentListViewFollowsModifications() {
+        ComponentList list = ComponentList.concurrent(ComponentList.entry("a", leaf(1)));
+        List<Leaf> view = list.view(Leaf.TYPE);
+        assertEquals(1, view.size());
+        list.add("b", leaf(2));
+        list.addLazy("c", Leaf.TYPE, () -> leaf(3));
+        assertEquals(3, view.size());
+        list.remove("a");
+        assertEquals(List.of(2, 3), List.of(view.get(0).get("value"), view.get(1).get("value")));
+    }
+
+    @Test
+    void lazyComponentsAreCreatedOnceForAllReaders() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        ComponentList list = ComponentList.concurrent();
+        for (int i = 0; i < 100; i++) {
+            list.addLazy("leaf" + i, Leaf.TYPE, () -> {
+                created.incrementAndGet();
+                return leaf(1);
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Component>>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    List<Component> seen = new ArrayList<>();
+                    list.forEach(seen::add);
+                    return seen;
+                }));
+            }
+            List<Component> first = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<List<Component>> result : results) {
+                List<Component> seen = result.get(10, TimeUnit.SECONDS);
+                for (int i = 0; i < seen.size(); i++) {
+                    assertSame(first.get(i), seen.get(i));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(100, created.get());
+        assertSame(list.get(0), list.get("leaf0"));
+        assertEquals(100, created.get());
+    }
+
+    @Test
+    void listsSplitComponentsInOrder() {
+        List<Integer> expected = new ArrayList<>();
+        for (ComponentList list : List.of(new ComponentList(), ComponentList.concurrent(), ComponentList.ofLinked())) {
+            expected.clear();
+            for (int i = 0; i < 100; i++) {
+                list.add("leaf" + i, leaf(i));
+                expected.add(i);
+            }
+            assertEquals(100, list.spliterator().estimateSize());
+            assertEquals(expected, list.stream().map(c -> (Integer) c.get("value")).toList());
+            assertEquals(expected, list.stream().parallel().map(c -> (Integer) c.get("value")).toList());
+        }
+    }
+
+    @Test
+    void arrayListSpliteratorSplitsByRange() {
+        ComponentList list = new ComponentList();
+        for (int i = 0; i < 8; i++) {
+            list.add("leaf" + i, leaf(i));
+        }
+        Spliterator<Component> suffix = list.spliterator();
+        assertTrue(suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+        Spliterator<Component> prefix = suffix.trySplit();
+        assertNotNull(prefix);
+        assertEquals(4, prefix.estimateSize());
+        assertEquals(4, suffix.estimateSize());
+        prefix.tryAdvance(c -> assertEquals(0, c.get("value")));
+        suffix.tryAdvance(c -> assertEquals(4, c.get("value")));
+    }
+
+    private static Leaf leaf(int value) {
+        Leaf leaf = Leaf.TYPE.initialize().get();
+        leaf.set("value", value);
+        return leaf;
+    }
+
+    private static ComponentType<Leaf> positive() {
+        return new ComponentType<>() {
+            @Override
+            public boolean isInstance(Component comp) {
+                return Leaf.TYPE.isInstance(comp) && (int) comp.get("value") > 0;
+            }
+
+            @Override
+            public Set<String> properties() {
+                return Leaf.TYPE.properties();
+            }
+
+            @Override
+            public Set<String> actions() {
+                return Leaf.TYPE.actions();
+            }
+
+            @Override
+            public Leaf cast(Component comp) {
+                return Leaf.TYPE.cast(comp);
+            }
+
+            @Override
+            public Initializer<Leaf> initialize() {
+                return Leaf.TYPE.initialize();
+            }
+        };
+    }
+}
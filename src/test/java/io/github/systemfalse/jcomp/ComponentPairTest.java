@@ -0,0 +1,50 @@
+package io.github.systemfalse.jcomp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentPairTest {
+    private static final Mapper<Sample, Sample> MAPPER = Mapper.defaultMapper(Sample.TYPE, Sample.TYPE);
+
+    @Test
+    void pairCopiesValuesOnCreation() {
+        Sample source = Sample.TYPE.initialize().set("x", 2).set("label", "a").get();
+        ComponentPair<Sample, Sample> pair = MAPPER.pair(source);
+        assertTrue(pair.isObserved());
+        assertEquals(2, pair.target().get("x"));
+        assertEquals("a", pair.target().get("label"));
+        assertEquals(0, pair.sync());
+    }
+
+    @Test
+    void syncCopiesChangedProperties() {
+        Sample source = Sample.TYPE.initialize().get();
+        ComponentPair<Sample, Sample> pair = MAPPER.pair(source);
+        source.set("x", 4);
+        assertEquals(1, pair.sync());
+        assertEquals(4, pair.target().get("x"));
+        assertEquals(0, pair.sync());
+    }
+
+    @Test
+    void syncCopiesValuesAssignedByActions() {
+        Sample source = Sample.TYPE.initialize().get();
+        ComponentPair<Sample, Sample> pair = MAPPER.pair(source);
+        source.action("move").orElseThrow().perform(2, 3);
+        assertTrue(pair.sync() > 0);
+        assertEquals(2, pair.target().get("x"));
+        assertEquals(3, pair.target().get("y"));
+    }
+
+    @Test
+    void closedPairStopsObserving() {
+        Sample source = Sample.TYPE.initialize().get();
+        ComponentPair<Sample, Sample> pair = MAPPER.pair(source);
+        pair.close();
+        source.set("x", 4);
+        assertEquals(0, pair.target().get("x"));
+        assertEquals(3, pair.syncAll());
+        assertEquals(4, pair.target().get("x"));
+    }
+}
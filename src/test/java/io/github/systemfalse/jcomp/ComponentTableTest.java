@@ -0,0 +1,83 @@
+package io.github.systemfalse.jcomp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentTableTest {
+    @Test
+    void rowsAreViewsOfColumns() {
+        ComponentTable<Sample> table = new ComponentTable<>(Sample.TYPE);
+        ComponentTable.Row row = table.add();
+        row.set("x", 3);
+        row.set("label", "a");
+        assertEquals(3, table.intColumn("x")[0]);
+        assertEquals("a", table.objectColumn("label")[0]);
+        table.intColumn("x")[0] = 4;
+        assertEquals(4, row.get("x"));
+        assertEquals(row, table.row(0));
+        assertEquals(0, row.index());
+        assertThrows(NoSuchPropertyException.class, () -> row.get("missing"));
+    }
+
+    @Test
+    void addCopiesComponents() {
+        ComponentTable<Sample> table = new ComponentTable<>(Sample.TYPE);
+        Sample sample = Sample.TYPE.initialize().set("y", 2).get();
+        table.addAll(List.of(sample, Sample.TYPE.initialize().set("y", 5).get()));
+        sample.set("y", 3);
+        assertEquals(2, table.size());
+        assertArrayEquals(new int[]{2, 5}, Arrays.copyOf(table.intColumn("y"), table.size()));
+    }
+
+    @Test
+    void rowsAreNotInstancesOfTableType() {
+        ComponentTable<Sample> table = new ComponentTable<>(Sample.TYPE);
+        ComponentTable.Row row = table.add();
+        assertSame(Sample.TYPE, row.type());
+        assertFalse(Sample.TYPE.isInstance(row));
+        assertThrows(ClassCastException.class, () -> Sample.TYPE.cast(row));
+        Component clone = row.clone();
+        assertTrue(Sample.TYPE.isInstance(clone));
+    }
+
+    @Test
+    void materializeCreatesDetachedComponent() {
+        ComponentTable<Sample> table = new ComponentTable<>(Sample.TYPE);
+        table.add().set("x", 6);
+        Sample sample = table.materialize(0);
+        assertEquals(6, sample.get("x"));
+        sample.set("x", 7);
+        assertEquals(6, table.row(0).get("x"));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.materialize(1));
+    }
+
+    @Test
+    void rowChildrenAreSeparate() {
+        ComponentTable<Sample> table = new ComponentTable<>(Sample.TYPE);
+        ComponentTable.Row first = table.add();
+        ComponentTable.Row second = table.add();
+        first.children().get("head").set("value", 1);
+        assertEquals(0, second.children().get("head").get("value"));
+        assertEquals(1, table.row(0).children().get("head").get("value"));
+    }
+
+    @Test
+    void materializeKeepsRowChildren() {
+        ComponentTable<Sample> table = new ComponentTable<>(Sample.TYPE);
+        ComponentTable.Row row = table.add();
+        row.children().get("head").set("value", 8);
+        row.children().add("extra", Leaf.TYPE.initialize().get());
+        Sample sample = table.materialize(0);
+        assertEquals(8, sample.children().get("head").get("value"));
+        assertTrue(sample.children().contains("extra"));
+        Component clone = row.clone();
+        assertEquals(8, clone.children().get("head").get("value"));
+        clone.children().get("head").set("value", 1);
+        assertEquals(8, row.children().get("head").get("value"));
+        assertEquals(0, table.add().clone().children().get("head").get("value"));
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.systemfalse.jcomp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentTreeTest {
+    @Test
+    void depthFirstStreamVisitsChildrenAfterParent() {
+        Component root = tree();
+        assertEquals(List.of(0, 1, 3, 4, 2, 5), values(ComponentTree.stream(root).toList()));
+        assertEquals(List.of(0, 1, 3, 4, 2, 5),
+                values(ComponentTree.stream(root).parallel().collect(Collectors.toList())));
+    }
+
+    @Test
+    void breadthFirstStreamVisitsLevels() {
+        Component root = tree();
+        assertEquals(List.of(0, 1, 2, 3, 4, 5),
+                values(ComponentTree.stream(root, ComponentTree.Order.BREADTH_FIRST).toList()));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5),
+                values(ComponentTree.stream(root, ComponentTree.Order.BREADTH_FIRST).parallel().toList()));
+    }
+
+    @Test
+    void forEachVisitsEachComponentOnce() {
+        Set<Component> visited = ConcurrentHashMap.newKeySet();
+        Component root = tree();
+        ComponentTree.forEach(root, component -> assertTrue(visited.add(component)));
+        assertEquals(6, visited.size());
+        assertTrue(visited.contains(root));
+    }
+
+    @Test
+    void reduceHandlesDeepChains() {
+        Leaf root = leaf(0);
+        Leaf last = root;
+        for (int i = 1; i < 10_000; i++) {
+            Leaf next = leaf(i);
+            last.children().add("next", next);
+            last = next;
+        }
+        int sum = ComponentTree.reduce(root, 0, (result, component) -> result + (int) component.get("value"),
+                Integer::sum);
+        assertEquals(10_000 * 9_999 / 2, sum);
+        assertEquals(10_000, ComponentTree.stream(root).count());
+    }
+
+    private static Component tree() {
+        Leaf root = leaf(0);
+        Leaf a = leaf(1);
+        Leaf b = leaf(2);
+        root.children().add("a", a);
+        root.children().add("b", b);
+        a.children().add("c", leaf(3));
+        a.children().add("d", leaf(4));
+        b.children().add("e", leaf(5));
+        return root;
+    }
+
+    private static List<Object> values(List<Component> components) {
+        return components.stream().map(component -> component.get("value")).toList();
+    }
+
+    private static Leaf leaf(int value) {
+        Leaf leaf = Leaf.TYPE.initialize().get();
+        leaf.set("value", value);
+        return leaf;
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.systemfalse.jcomp;
+
+import io.github.systemfalse.jcomp.spi.IndexedComponent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneratedComponentTest {
+    @Test
+    void propertiesByNameAndSlot() {
+        Sample sample = Sample.TYPE.initialize().set("x", 3).get();
+        assertEquals(3, sample.get("x"));
+        assertEquals("sample", sample.get("label"));
+        int slot = sample.slot("y");
+        sample.set("y", 4);
+        assertEquals(4, sample.get(slot));
+        assertEquals(-1, sample.slot("missing"));
+        assertThrows(NoSuchPropertyException.class, () -> sample.get("missing"));
+        assertThrows(NoSuchPropertyException.class, () -> sample.set("missing", 1));
+    }
+
+    @Test
+    void versionChangesOnSetAndAction() {
+        Sample sample = Sample.TYPE.initialize().get();
+        long initial = sample.propertyVersion();
+        sample.set("x", 1);
+        long set = sample.propertyVersion();
+        assertNotEquals(initial, set);
+        sample.action("move").orElseThrow().perform(1, 1);
+        assertNotEquals(set, sample.propertyVersion());
+        assertEquals(2, sample.get("x"));
+    }
+
+    @Test
+    void observersReceiveChanges() {
+        Sample sample = Sample.TYPE.initialize().get();
+        List<String> changes = new ArrayList<>();
+        ChangeObserver observer = (source, property) -> changes.add(property);
+        sample.observe(observer);
+        sample.set("label", "a");
+        sample.unobserve(observer);
+        sample.set("x", 1);
+        assertEquals(List.of("label"), changes);
+    }
+
+    @Test
+    void defaultsAreFilled() {
+        Sample sample = Sample.TYPE.initialize().set("x", 100).get();
+        assertEquals(105, sample.action("shift").orElseThrow().perform(5));
+        assertEquals(1, sample.action("shift").orElseThrow().perform(5, 1));
+        assertEquals(8, sample.action("scale").orElseThrow().perform(4));
+        assertEquals("abab", sample.action("repeat").orElseThrow().perform("ab"));
+        assertEquals("ababab", sample.invoke("repeat").with("ab").with("times", 3).call());
+    }
+
+    @Test
+    void constantAndEnumDefaultsAreFilled() {
+        Sample sample = Sample.TYPE.initialize().get();
+        Action<?> join = sample.action("join").orElseThrow();
+        assertEquals("a-SECONDS-" + Integer.MAX_VALUE, join.perform("a"));
+        assertEquals("a+SECONDS+" + Integer.MAX_VALUE,
+                sample.invoke("join").with("a").with("separator", "+").call());
+        assertEquals("a:DAYS:1", join.perform("a", ":", TimeUnit.DAYS, 1));
+    }
+
+    @Test
+    void instanceDefaultsUseClone() {
+        Sample sample = Sample.TYPE.initialize().get();
+        sample.action("shift").orElseThrow().perform(0);
+        Component clone = sample.clone();
+        clone.set("x", 50);
+        assertEquals(5, sample.action("shift").orElseThrow().perform(5));
+        assertEquals(55, clone.action("shift").orElseThrow().perform(5));
+    }
+
+    @Test
+    void namedArgumentsArePlacedPerPreset() {
+        Sample sample = Sample.TYPE.initialize().get();
+        assertEquals("text:a", sample.invoke("describe").with("text", "a").call());
+        assertEquals("3:b", sample.invoke("describe").with(0, 3).with("text", "b").call());
+        assertThrows(IllegalArgumentException.class, () -> sample.invoke("describe").with("missing", 1));
+        assertThrows(ActionException.class, () -> sample.action("describe").orElseThrow().perform(1.5));
+    }
+
+    @Test
+    void lazyChildIsCreatedOnAccess() {
+        Sample sample = Sample.TYPE.initialize().get();
+        assertEquals(2, sample.children().size());
+        assertTrue(sample.children().get(Sample.TYPE).isEmpty());
+        assertNull(sample.tail);
+        Component tail = sample.tail();
+        assertSame(tail, sample.children().get("tail"));
+        assertSame(tail, sample.tail());
+        assertTrue(Leaf.TYPE.isInstance(tail));
+    }
+
+    @Test
+    void cloneCopiesChildren() {
+        Sample sample = Sample.TYPE.initialize().get();
+        sample.children().get("head").set("value", 1);
+        sample.tail().set("value", 2);
+        Component clone = sample.clone();
+        clone.children().get("head").set("value", 3);
+        assertEquals(1, sample.children().get("head").get("value"));
+        assertEquals(2, clone.children().get("tail").get("value"));
+        assertNotSame(sample.tail(), ((Sample) clone).tail());
+    }
+
+    @Test
+    void typeChecksInstances() {
+        Sample sample = Sample.TYPE.initialize().get();
+        assertTrue(Sample.TYPE.isInstance(sample));
+        assertFalse(Leaf.TYPE.isInstance(sample));
+        assertSame(sample, Sample.TYPE.cast(sample));
+        assertEquals(Set.of("x", "y", "label"), Sample.TYPE.properties());
+        assertInstanceOf(IndexedComponent.class, sample);
+    }
+}
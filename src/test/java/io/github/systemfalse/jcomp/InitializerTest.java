@@ -0,0 +1,78 @@
+package io.github.systemfalse.jcomp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InitializerTest {
+    @Test
+    void laterValueReplacesEarlierOne() {
+        Initializer<Leaf> initializer = Leaf.TYPE.initialize();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, initializer.set("value", i).get().get("value"));
+        }
+        initializer.set("name", "a").set("value", -1);
+        Leaf leaf = initializer.get();
+        assertEquals(-1, leaf.get("value"));
+        assertEquals("a", leaf.get("name"));
+    }
+
+    @Test
+    void batchCreatesSeparateComponents() {
+        List<Leaf> batch = Leaf.TYPE.initialize().set("value", 3).createBatch(3);
+        assertEquals(3, batch.size());
+        assertNotSame(batch.get(0), batch.get(1));
+        assertEquals(3, batch.get(2).get("value"));
+        assertThrows(IllegalArgumentException.class, () -> Leaf.TYPE.initialize().createBatch(-1));
+    }
+
+    @Test
+    void unknownPropertiesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Leaf.TYPE.initialize().set("missing", 1));
+        assertThrows(IllegalArgumentException.class, () -> Leaf.TYPE.initialize().columns("missing"));
+    }
+
+    @Test
+    void columnsOfPrimitiveAndReferenceArrays() {
+        ColumnInitializer<Leaf> columns = Leaf.TYPE.initialize().set("name", "row").columns("value");
+        List<Leaf> rows = columns.create((Object) new int[]{1, 2, 3});
+        assertEquals(List.of("value"), columns.properties());
+        assertEquals(3, rows.size());
+        assertEquals(2, rows.get(1).get("value"));
+        assertEquals("row", rows.get(1).get("name"));
+        List<Sample> samples = Sample.TYPE.initialize().columns("x", "label")
+                .create(new int[]{4, 5}, new String[]{"a", "b"});
+        assertEquals(5, samples.get(1).get("x"));
+        assertEquals("a", samples.get(0).get("label"));
+    }
+
+    @Test
+    void invalidColumnsAreRejected() {
+        ColumnInitializer<Sample> columns = Sample.TYPE.initialize().columns("x", "y");
+        assertThrows(IllegalArgumentException.class, () -> columns.create((Object) new int[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> columns.create(new int[]{1}, new int[]{1, 2}));
+        assertThrows(IllegalArgumentException.class, () -> columns.create(new int[]{1}, "not an array"));
+    }
+
+    @Test
+    void namedColumnsCheckPropertiesOfCreatedType() {
+        Initializer<Leaf> generated = Leaf.TYPE.initialize();
+        Initializer<Leaf> custom = new Initializer<>() {
+            @Override
+            public Initializer<Leaf> set(String property, Object value) {
+                generated.set(property, value);
+                return this;
+            }
+
+            @Override
+            public Leaf get() {
+                return generated.get();
+            }
+        };
+        assertTrue(custom.columns("value").create((Object) new int[0]).isEmpty());
+        assertEquals(8, custom.columns("value").create((Object) new Integer[]{8}).get(0).get("value"));
+        assertThrows(IllegalArgumentException.class, () -> custom.columns("missing").create((Object) new int[]{1}));
+    }
+}
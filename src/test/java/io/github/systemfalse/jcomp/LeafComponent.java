@@ -0,0 +1,17 @@
+package io.github.systemfalse.jcomp;
+
+import io.github.systemfalse.jcomp.annotations.ComponentRef;
+import io.github.systemfalse.jcomp.annotations.PropertyRef;
+
+/**
+ * Component without children used as a child of {@link SampleComponent}.
+ */
+@ComponentRef
+public class LeafComponent {
+    @PropertyRef
+    int value;
+    @PropertyRef
+    String name = "leaf";
+    @PropertyRef
+    final String kind = "leaf";
+}
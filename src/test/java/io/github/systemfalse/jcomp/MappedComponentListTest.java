@@ -0,0 +1,51 @@
+package io.github.systemfalse.jcomp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedComponentListTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void mappedListDecodesWrittenComponents() throws IOException {
+        ComponentList list = new ComponentList();
+        list.add("b", Leaf.TYPE.initialize().set("value", 2).get());
+        list.add("s", Sample.TYPE.initialize().set("x", 5).get());
+        Path file = directory.resolve("list.bin");
+        MappedComponentList.write(list, file);
+        try (MappedComponentList mapped = MappedComponentList.open(file, MappedComponentList.Eviction.never(),
+                Leaf.TYPE, Sample.TYPE)) {
+            assertEquals(2, mapped.size());
+            assertEquals("s", mapped.name(1));
+            assertEquals(2, mapped.get("b").get("value"));
+            assertEquals(5, mapped.get(1).get("x"));
+            assertSame(mapped.get("b"), mapped.get(0));
+        }
+    }
+
+    @Test
+    void writingDoesNotStoreLazyComponents() throws IOException {
+        AtomicInteger created = new AtomicInteger();
+        ComponentList list = new ComponentList();
+        list.addLazy("leaf", () -> {
+            created.incrementAndGet();
+            return Leaf.TYPE.initialize().set("value", 4).get();
+        });
+        Path file = directory.resolve("lazy.bin");
+        MappedComponentList.write(list, file);
+        int written = created.get();
+        list.get("leaf");
+        assertEquals(written + 1, created.get());
+        try (MappedComponentList mapped = MappedComponentList.open(file, MappedComponentList.Eviction.lru(1),
+                Leaf.TYPE)) {
+            assertEquals(4, mapped.get("leaf").get("value"));
+        }
+    }
+}
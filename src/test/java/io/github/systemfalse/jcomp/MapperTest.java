@@ -0,0 +1,96 @@
+package io.github.systemfalse.jcomp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapperTest {
+    @Test
+    void defaultMapperCopiesWritableProperties() {
+        Leaf leaf = Leaf.TYPE.initialize().get();
+        leaf.set("value", 3);
+        leaf.set("name", "copy");
+        Leaf mapped = Mapper.defaultMapper(Leaf.TYPE, Leaf.TYPE).apply(leaf);
+        assertNotSame(leaf, mapped);
+        assertEquals(3, mapped.get("value"));
+        assertEquals("copy", mapped.get("name"));
+        assertEquals("leaf", mapped.get("kind"));
+    }
+
+    @Test
+    void plansAreCompiledFromKeys() {
+        MappingPlan plan = MappingPlan.compile(Leaf.TYPE, Leaf.TYPE);
+        assertEquals(2, plan.size());
+        assertEquals(-1, plan.indexOf("kind"));
+        assertTrue(plan.indexOf("value") >= 0);
+        //types are not asked to create components
+        MappingPlan untyped = MappingPlan.compile(Leaf.TYPE, failing());
+        assertEquals(3, untyped.size());
+        assertEquals(0, MappingPlan.compile(failing(), Leaf.TYPE).size());
+    }
+
+    @Test
+    void mapAllKeepsNamesAndSkipsOtherTypes() {
+        ComponentList list = new ComponentList();
+        list.add("a", Leaf.TYPE.initialize().get());
+        list.add("s", Sample.TYPE.initialize().get());
+        list.add("b", Leaf.TYPE.initialize().get());
+        ComponentList mapped = Mapper.defaultMapper(Leaf.TYPE, Leaf.TYPE).mapAll(list);
+        assertEquals(Set.of("a", "b"), mapped.names());
+        assertEquals("b", mapped.name(1));
+        assertNotSame(list.get("a"), mapped.get("a"));
+    }
+
+    @Test
+    void mapAllRecordsFailures() {
+        ComponentType<Leaf> to = failing();
+        ComponentList list = new ComponentList();
+        list.add("a", Leaf.TYPE.initialize().get());
+        assertThrows(IllegalStateException.class, () -> Mapper.defaultMapper(Leaf.TYPE, to).mapAll(list));
+        MetricsSnapshot snapshot = Metrics.snapshot().stream()
+                .filter(s -> s.type() == Leaf.TYPE && s.kind() == MetricsSnapshot.Kind.MAP && s.name().equals("failing"))
+                .findFirst().orElseThrow();
+        assertEquals(1, snapshot.count());
+        assertEquals(1, snapshot.failures());
+    }
+
+    /**
+     * Type with properties of {@link Leaf} described only by names, which can not create
+     * components.
+     */
+    private static ComponentType<Leaf> failing() {
+        return new ComponentType<>() {
+            @Override
+            public boolean isInstance(Component comp) {
+                return Leaf.TYPE.isInstance(comp);
+            }
+
+            @Override
+            public Set<String> properties() {
+                return Leaf.TYPE.properties();
+            }
+
+            @Override
+            public Set<String> actions() {
+                return Leaf.TYPE.actions();
+            }
+
+            @Override
+            public Leaf cast(Component comp) {
+                return Leaf.TYPE.cast(comp);
+            }
+
+            @Override
+            public Initializer<Leaf> initialize() {
+                throw new IllegalStateException("type can not create components");
+            }
+
+            @Override
+            public String getTypeName() {
+                return "failing";
+            }
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.systemfalse.jcomp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+    @Test
+    void actionCallsAndFailuresAreRecorded() {
+        assertTrue(Metrics.isEnabled());
+        MetricsSnapshot before = find(MetricsSnapshot.Kind.ACTION, "describe");
+        Sample sample = Sample.TYPE.initialize().get();
+        Action<?> describe = sample.action("describe").orElseThrow();
+        describe.perform("a");
+        describe.perform(2, "b");
+        assertThrows(ActionException.class, () -> describe.perform(1.5));
+        MetricsSnapshot after = find(MetricsSnapshot.Kind.ACTION, "describe");
+        assertEquals(3, after.count() - before.count());
+        assertEquals(1, after.failures() - before.failures());
+        assertEquals(after.count(), Arrays.stream(after.histogram()).sum());
+        assertTrue(after.percentileNanos(0.5) <= after.percentileNanos(1));
+    }
+
+    @Test
+    void propertyReadsAndWritesAreRecorded() {
+        MetricsSnapshot reads = find(MetricsSnapshot.Kind.GET, "y");
+        MetricsSnapshot writes = find(MetricsSnapshot.Kind.SET, "y");
+        Sample sample = Sample.TYPE.initialize().get();
+        sample.set("y", 1);
+        sample.set("y", 2);
+        assertEquals(2, sample.get("y"));
+        assertEquals(2, find(MetricsSnapshot.Kind.SET, "y").count() - writes.count());
+        assertEquals(1, find(MetricsSnapshot.Kind.GET, "y").count() - reads.count());
+    }
+
+    @Test
+    void exportersReceiveSnapshots() {
+        List<MetricsSnapshot> exported = new ArrayList<>();
+        MetricsExporter exporter = exported::addAll;
+        Sample.TYPE.initialize().get().action("move").orElseThrow().perform(1, 1);
+        Metrics.addExporter(exporter);
+        try {
+            Metrics.export();
+        } finally {
+            Metrics.removeExporter(exporter);
+        }
+        assertTrue(exported.stream().anyMatch(s -> s.type() == Sample.TYPE && s.name().equals("move")));
+        int size = exported.size();
+        Metrics.export();
+        assertEquals(size, exported.size());
+    }
+
+    @Test
+    void snapshotChecksQuantile() {
+        MetricsSnapshot snapshot = new MetricsSnapshot(Sample.TYPE, MetricsSnapshot.Kind.GET, "x", 0, 0, 0,
+                new long[MetricsSnapshot.BUCKETS]);
+        assertEquals(0, snapshot.percentileNanos(0.99));
+        assertEquals(0, snapshot.meanNanos());
+        assertThrows(IllegalArgumentException.class, () -> snapshot.percentileNanos(1.5));
+    }
+
+    private static MetricsSnapshot find(MetricsSnapshot.Kind kind, String name) {
+        return Metrics.snapshot().stream()
+                .filter(s -> s.type() == Sample.TYPE && s.kind() == kind && s.name().equals(name))
+                .findFirst()
+                .orElse(new MetricsSnapshot(Sample.TYPE, kind, name, 0, 0, 0, new long[MetricsSnapshot.BUCKETS]));
+    }
+}
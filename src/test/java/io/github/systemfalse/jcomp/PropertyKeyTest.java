@@ -0,0 +1,43 @@
+package io.github.systemfalse.jcomp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PropertyKeyTest {
+    @Test
+    void keysAccessPropertiesByIndex() {
+        PropertyKey<Integer> x = Sample.TYPE.key("x", Integer.class);
+        PropertyKey<String> label = Sample.TYPE.key("label", String.class);
+        Sample sample = Sample.TYPE.initialize().get();
+        sample.set(x, 3);
+        assertEquals(3, sample.get(x));
+        assertEquals(3, sample.get("x"));
+        assertEquals("sample", sample.get(label));
+        assertTrue(x.index() >= 0);
+    }
+
+    @Test
+    void primitiveClassResolvesWrappedKey() {
+        PropertyKey<Integer> key = Sample.TYPE.key("x", int.class);
+        assertEquals(Integer.class, key.type());
+        assertEquals(Sample.TYPE.key("x", Integer.class), key);
+    }
+
+    @Test
+    void keysAreChecked() {
+        assertThrows(ClassCastException.class, () -> Sample.TYPE.key("x", String.class));
+        assertThrows(ClassCastException.class, () -> Sample.TYPE.key("label", long.class));
+        assertThrows(IllegalArgumentException.class, () -> Sample.TYPE.key("z", int.class));
+    }
+
+    @Test
+    void rowsAcceptKeysOfTableType() {
+        PropertyKey<Integer> value = Leaf.TYPE.key("value", int.class);
+        ComponentTable<Leaf> table = new ComponentTable<>(Leaf.TYPE);
+        ComponentTable.Row row = table.add();
+        row.set(value, 4);
+        assertEquals(4, row.get(value));
+        assertEquals(4, table.intColumn("value")[0]);
+    }
+}
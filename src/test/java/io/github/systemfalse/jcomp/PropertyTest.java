@@ -0,0 +1,85 @@
+package io.github.systemfalse.jcomp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PropertyTest {
+    @Test
+    void versionChangesWhenValueIsSet() {
+        Sample sample = Sample.TYPE.initialize().get();
+        Property<?> x = sample.property("x").orElseThrow();
+        long version = x.version();
+        assertTrue(version >= 0);
+        sample.set("x", 1);
+        assertNotEquals(version, x.version());
+        version = x.version();
+        x.set(2);
+        assertNotEquals(version, x.version());
+        assertEquals(2, sample.get("x"));
+    }
+
+    @Test
+    void memoizedPropertyConvertsOnlyAfterChange() {
+        Sample sample = Sample.TYPE.initialize().get();
+        Property<Integer> x = integer(sample, "x");
+        AtomicInteger conversions = new AtomicInteger();
+        Property<String> text = x.mapMemoized(String.class, value -> {
+            conversions.incrementAndGet();
+            return "x=" + value;
+        });
+        assertEquals("x=0", text.get());
+        assertEquals("x=0", text.get());
+        assertEquals(1, conversions.get());
+        sample.set("x", 3);
+        assertEquals("x=3", text.get());
+        assertEquals(2, conversions.get());
+        assertTrue(text.isReadOnly());
+    }
+
+    @Test
+    void memoizedChainIsMerged() {
+        Sample sample = Sample.TYPE.initialize().get();
+        Property<Integer> x = integer(sample, "x");
+        AtomicInteger conversions = new AtomicInteger();
+        Property<Long> twice = x.mapMemoized(Long.class, value -> {
+            conversions.incrementAndGet();
+            return 2L * value;
+        });
+        Property<String> text = twice.mapMemoized(String.class, String::valueOf);
+        sample.set("x", 4);
+        assertEquals("8", text.get());
+        assertEquals("8", text.get());
+        assertEquals(1, conversions.get());
+        assertEquals(x.version(), text.version());
+    }
+
+    @Test
+    void writableMemoizedPropertySetsOriginal() {
+        Sample sample = Sample.TYPE.initialize().get();
+        Property<String> text = integer(sample, "x").mapMemoized(String.class, String::valueOf, Integer::valueOf);
+        assertEquals("0", text.get());
+        text.set("5");
+        assertEquals(5, sample.get("x"));
+        assertEquals("5", text.get());
+        assertFalse(text.isReadOnly());
+    }
+
+    @Test
+    void clonedMemoizedPropertyIsDetached() {
+        Sample sample = Sample.TYPE.initialize().get();
+        Property<String> text = integer(sample, "x").mapMemoized(String.class, String::valueOf);
+        assertEquals("0", text.get());
+        Property<String> clone = text.clone();
+        sample.set("x", 6);
+        assertEquals("6", text.get());
+        assertEquals("0", clone.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Property<Integer> integer(Component component, String name) {
+        return (Property<Integer>) component.property(name).orElseThrow();
+    }
+}
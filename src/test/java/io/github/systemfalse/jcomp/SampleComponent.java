@@ -0,0 +1,76 @@
+package io.github.systemfalse.jcomp;
+
+import io.github.systemfalse.jcomp.annotations.ActionRef;
+import io.github.systemfalse.jcomp.annotations.ChildRef;
+import io.github.systemfalse.jcomp.annotations.ComponentRef;
+import io.github.systemfalse.jcomp.annotations.ParameterRef;
+import io.github.systemfalse.jcomp.annotations.PropertyRef;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Component with properties, actions with defaults and both eager and lazy children.
+ */
+@ComponentRef
+public class SampleComponent {
+    @PropertyRef
+    int x;
+    @PropertyRef
+    int y;
+    @PropertyRef
+    String label = "sample";
+    @ChildRef(type = "io.github.systemfalse.jcomp.Leaf")
+    Component head;
+    @ChildRef(type = "io.github.systemfalse.jcomp.Leaf", lazy = true)
+    Component tail;
+
+    static final String SEPARATOR = "-";
+
+    int offset(List<Object> args) {
+        return x + (Integer) args.get(0);
+    }
+
+    static int twice(List<Object> args) {
+        return 2 * (Integer) args.get(0);
+    }
+
+    @ActionRef
+    public int move(int dx, int dy) {
+        x += dx;
+        y += dy;
+        return x;
+    }
+
+    @ActionRef
+    public int shift(int a, @ParameterRef(required = false, defaultComputedValue = "offset") int b) {
+        return b;
+    }
+
+    @ActionRef
+    public int scale(int a, @ParameterRef(required = false, defaultComputedValue = "twice") int b) {
+        return b;
+    }
+
+    @ActionRef
+    public String repeat(String text, @ParameterRef(required = false, defaultValue = "2") int times) {
+        return text.repeat(times);
+    }
+
+    @ActionRef
+    public String describe(String text) {
+        return "text:" + text;
+    }
+
+    @ActionRef(preset = 1)
+    public String describe(int count, String text) {
+        return count + ":" + text;
+    }
+
+    @ActionRef
+    public String join(String text, @ParameterRef(required = false, defaultValueConstant = "SEPARATOR") String separator,
+                       @ParameterRef(required = false, defaultValue = "SECONDS") TimeUnit unit,
+                       @ParameterRef(required = false, defaultValueConstant = "java.lang.Integer.MAX_VALUE") int limit) {
+        return text + separator + unit + separator + limit;
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.systemfalse.jcomp.builders;
+
+import io.github.systemfalse.jcomp.Property;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PropertyBuilderTest {
+    private static <T> Property<T> property(Class<T> type) {
+        return new PropertyBuilder<T>().setType(type).setName("value").confirm();
+    }
+
+    @Test
+    void wrapperPropertiesHoldNull() {
+        Property<Integer> property = property(Integer.class);
+        assertNull(property.get());
+        property.set(3);
+        assertEquals(3, property.get());
+        property.set(null);
+        assertNull(property.get());
+    }
+
+    @Test
+    void primitivePropertiesHaveDefaultValue() {
+        assertEquals(0, property(int.class).get());
+        assertEquals(0L, property(long.class).get());
+        assertEquals(0.0, property(double.class).get());
+        assertEquals(false, property(boolean.class).get());
+        assertEquals((short) 0, property(short.class).get());
+    }
+
+    @Test
+    void initialValueIsKept() {
+        Property<Long> property = new PropertyBuilder<Long>().setType(long.class).setName("value")
+                .setInitialValue(5L).confirm();
+        assertEquals(5L, property.get());
+        assertEquals(Long.class, property.type());
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.systemfalse.jcomp.spi;
+
+import io.github.systemfalse.jcomp.Parameter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParameterBinderTest {
+    private static ParameterBinder binder(List<List<Object>> received) {
+        return ParameterBinder.of(List.of(
+                List.<Parameter>of(new SimpleParameter(String.class, "text"),
+                        SimpleParameter.optional(int.class, "times", 2)),
+                List.<Parameter>of(new SimpleParameter(int.class, "count"), new SimpleParameter(String.class, "text"),
+                        new SimpleParameter(int.class, "sum", false, args -> {
+                            received.add(List.copyOf(args));
+                            return (Integer) args.get(0) + 1;
+                        }))));
+    }
+
+    @Test
+    void presetIsSelectedByArgumentClasses() {
+        ParameterBinder binder = binder(new ArrayList<>());
+        assertEquals(0, binder.select(new Object[] {"a"}, 1));
+        assertEquals(0, binder.select(new Object[] {"a", 3}, 2));
+        assertEquals(1, binder.select(new Object[] {3, "a"}, 2));
+        assertEquals(0, binder.select(new Object[] {null}, 1));
+        assertEquals(1, binder.select(new Object[] {3, null}, 2));
+        assertEquals(-1, binder.select(new Object[] {null, "a"}, 2));
+        assertEquals(-1, binder.select(new Object[] {3}, 1));
+        assertTrue(binder.isCacheable());
+        assertEquals(3, binder.capacity());
+    }
+
+    @Test
+    void parameterNamesAreResolvedPerPreset() {
+        ParameterBinder binder = binder(new ArrayList<>());
+        assertEquals(0, binder.indexOf(0, "text"));
+        assertEquals(1, binder.indexOf(1, "text"));
+        assertEquals(-1, binder.indexOf(0, "count"));
+        assertTrue(binder.hasParameter("sum"));
+        assertFalse(binder.hasParameter("missing"));
+    }
+
+    @Test
+    void constantDefaultsAreFilled() {
+        ParameterBinder binder = binder(new ArrayList<>());
+        Object[] args = {"a"};
+        Object[] bound = binder.bind(0, args, 1);
+        assertArrayEquals(new Object[] {"a", 2}, bound);
+        assertArrayEquals(new Object[] {"a"}, args);
+        Object[] passed = {"a", 5};
+        assertSame(passed, binder.bind(0, passed, 2));
+        assertEquals(2, binder.filled(0, 1));
+    }
+
+    @Test
+    void computedDefaultsReceivePrecedingArguments() {
+        List<List<Object>> received = new ArrayList<>();
+        ParameterBinder binder = binder(received);
+        Object[] args = new Object[3];
+        args[0] = 4;
+        args[1] = "b";
+        Object[] bound = binder.bind(1, args, 2, true);
+        assertSame(args, bound);
+        assertEquals(5, bound[2]);
+        assertEquals(List.of(List.of(4, "b")), received);
+    }
+
+    @Test
+    void missingRequiredArgumentIsNotAccepted() {
+        ParameterBinder binder = binder(new ArrayList<>());
+        assertFalse(binder.accepts(1, new Object[] {4}, 1));
+        assertFalse(binder.accepts(0, new Object[0], 0));
+        assertThrows(IllegalArgumentException.class, () -> ParameterBinder.of(List.of()));
+    }
+}